@@ -175,6 +175,7 @@ function getAvailableModels() {
  * @param {Object} params 参数对象
  * @param {String} params.content 作文内容
  * @param {Number} params.modelId 模型ID（可选）
+ * @param {String} params.idempotencyKey 幂等键（可选），重试同一次批改时传入相同的值，不会重复扣积分
  * @returns {Promise} 返回批改结果
  */
 function checkEssay(params) {
@@ -227,14 +228,20 @@ function checkEssay(params) {
     
     console.log('[aiConfigApi] 发送HTTP请求到后端:', `${config.apiBaseUrl}/ai-models/check-essay`);
     
+    const { idempotencyKey, ...data } = params;
+    const header = {
+      'Authorization': token ? `Bearer ${token}` : '',
+      'Content-Type': 'application/json'
+    };
+    if (idempotencyKey) {
+      header['Idempotency-Key'] = idempotencyKey;
+    }
+    
     wx.request({
       url: `${config.apiBaseUrl}/ai-models/check-essay`,
       method: 'POST',
-      data: params, // 不需要stringify，wx.request会自动处理
-      header: {
-        'Authorization': token ? `Bearer ${token}` : '',
-        'Content-Type': 'application/json'
-      },
+      data: data, // 不需要stringify，wx.request会自动处理
+      header: header,
       success: (res) => {
         console.log('[aiConfigApi] 请求成功, 状态码:', res.statusCode, '响应:', res.data);
         
@@ -269,7 +276,9 @@ function checkEssay(params) {
           } else {
             // 处理业务异常
             console.warn('[aiConfigApi] 返回业务错误:', data.error, data.message);
-            reject(new Error(data.message || '作文批改失败'));
+            const error = new Error(data.message || '作文批改失败');
+            error.code = data.error;
+            reject(error);
           }
         } else if (res.statusCode === 401) {
           // 处理401未授权错误
@@ -164,6 +164,7 @@ function getPointsRecords(params = {}) {
  * @param {Object} params 参数对象
  * @param {Number} params.points 扣减的积分数量
  * @param {String} params.reason 扣减原因
+ * @param {String} params.idempotencyKey 幂等键（可选），重试同一次扣减时传入相同的值，不会重复扣减
  * @returns {Promise} 返回扣减结果的Promise
  */
 function deductPoints(params = {}) {
@@ -184,10 +185,10 @@ function deductPoints(params = {}) {
         points,
         reason
       },
-      header: {
+      header: Object.assign({
         'content-type': 'application/json',
         'Authorization': getAuthHeader()
-      },
+      }, params.idempotencyKey ? { 'Idempotency-Key': params.idempotencyKey } : {}),
       success: (res) => {
         console.log('[pointApi] 扣减积分API响应:', res);
         handleApiResponse(res, resolve, reject);
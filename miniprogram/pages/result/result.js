@@ -222,9 +222,8 @@ Page({
     
     console.log('[result.js] 开始保存历史记录');
     
-    // 计算消耗的积分（基于内容长度或复杂度）
-    const pointCost = result.pointCost || 
-                     Math.max(1, Math.floor((result.textLength || result.content?.length || 0) / 100));
+    // 消耗的积分以服务端批改接口返回的pointsCost为准，积分已在服务端扣除
+    const pointCost = result.pointsCost != null ? result.pointsCost : (result.pointCost || 0);
     
     // 准备保存数据
     const historyData = {
@@ -239,36 +238,6 @@ Page({
     
     // 调用API保存历史记录
     this.trySaveHistory(historyData, 0);
-    
-    // 扣减用户积分
-    this.deductUserPoints(pointCost);
-  },
-  
-  /**
-   * 扣减用户积分
-   * @param {Number} points 要扣减的积分数量
-   */
-  deductUserPoints: function(points) {
-    const pointApi = require('../../api/pointApi');
-    if (!pointApi || !pointApi.deductPoints) {
-      console.error('[result.js] 无法加载积分API或扣减积分功能不可用');
-      return;
-    }
-    
-    console.log(`[result.js] 开始扣减用户积分: ${points}点`);
-    
-    // 调用积分扣减API
-    pointApi.deductPoints({
-      points: points,
-      reason: '文本检测消费'
-    }).then(res => {
-      console.log('[result.js] 积分扣减成功:', res);
-      // 更新全局状态，表示积分已发生变化
-      getApp().globalData.pointsChanged = true;
-    }).catch(err => {
-      console.error('[result.js] 积分扣减失败:', err);
-      // 这里不需要用户提示，因为即使积分扣减失败，检测结果仍然有效
-    });
   },
   
   /**
@@ -928,10 +928,12 @@ Page({
     const aiConfigApi = require('../../api/aiConfigApi');
     aiConfigApi.checkEssay({
       content: this.data.textContent,
-      modelId: this.data.selectedModelId
+      modelId: this.data.selectedModelId,
+      idempotencyKey: this.getCheckIdempotencyKey(this.data.textContent, this.data.selectedModelId)
     }).then(res => {
       wx.hideLoading();
       console.log('[upload.js] 检测成功:', res);
+      this.clearCheckIdempotencyKey();
       
       // 扣除用户积分
       this.updateUserPoints();
@@ -949,6 +951,7 @@ Page({
     }).catch(err => {
       wx.hideLoading();
       console.error('[upload.js] 检测失败:', err);
+      this.releaseCheckIdempotencyKey(err);
       let errorMessage = '检测失败，请重试';
       
       if (err && err.message) {
@@ -968,6 +971,47 @@ Page({
     });
   },
   
+  /**
+   * 获取本次批改的幂等键
+   * 同一内容和模型的批改在成功前重试时复用同一个幂等键，服务端不会重复扣积分；
+   * 内容或模型变化后视为新的批改，重新生成
+   * @param {String} content 批改内容
+   * @param {Number} modelId 模型ID
+   * @return {String} 幂等键
+   */
+  getCheckIdempotencyKey: function(content, modelId) {
+    const pending = this.pendingCheck;
+    if (pending && pending.content === content && pending.modelId === modelId) {
+      return pending.idempotencyKey;
+    }
+    
+    this.pendingCheck = {
+      content: content,
+      modelId: modelId,
+      idempotencyKey: util.generateIdempotencyKey()
+    };
+    return this.pendingCheck.idempotencyKey;
+  },
+
+  /**
+   * 批改成功后清除幂等键，下次批改使用新的幂等键
+   */
+  clearCheckIdempotencyKey: function() {
+    this.pendingCheck = null;
+  },
+
+  /**
+   * 批改失败后决定是否保留幂等键
+   * 网络错误、服务端5xx和409（上次请求仍在处理）时保留，重试复用同一个幂等键；
+   * 其他业务错误（如积分不足）服务端已记录结果，保留会让重试直接得到同样的错误，因此清除
+   * @param {Error} err 失败原因
+   */
+  releaseCheckIdempotencyKey: function(err) {
+    if (err && typeof err.code === 'number' && err.code < 500 && err.code !== 409) {
+      this.clearCheckIdempotencyKey();
+    }
+  },
+
   /**
    * 获取当前选中的模型信息
    */
@@ -1042,19 +1086,23 @@ Page({
           
           aiConfigApi.checkEssay({
             modelId: selectedModelId,
-            content: content
+            content: content,
+            idempotencyKey: self.getCheckIdempotencyKey(content, selectedModelId)
           })
           .then(res => {
             console.log('[upload.js] 检查结果:', res);
             
             if (res && res.success) {
+              self.clearCheckIdempotencyKey();
+              
               // 作文检查成功，更新积分并跳转到结果页
               const result = res.data;
               
               // 更新用户积分
               if (self.data.userInfo) {
                 let userInfo = self.data.userInfo;
-                userInfo.points = Math.max(0, (userInfo.points || 0) - self.data.checkCost);
+                const pointsCost = result && result.pointsCost != null ? result.pointsCost : self.data.checkCost;
+                userInfo.points = Math.max(0, (userInfo.points || 0) - pointsCost);
                 wx.setStorageSync('userInfo', userInfo);
                 
                 self.setData({
@@ -1090,6 +1138,7 @@ Page({
           })
           .catch(err => {
             console.error('[upload.js] 作文检查请求失败:', err);
+            self.releaseCheckIdempotencyKey(err);
             
             self.setData({
               submitError: true,
@@ -137,6 +137,16 @@ const debounce = (fn, delay) => {
   }
 }
 
+/**
+ * 生成幂等键
+ * 同一次操作重试时应复用同一个幂等键，服务端据此识别重复请求
+ * @return {String} 幂等键
+ */
+const generateIdempotencyKey = () => {
+  return Date.now().toString(36) + '-' +
+    Math.random().toString(36).slice(2, 10) + Math.random().toString(36).slice(2, 10)
+}
+
 module.exports = {
   formatTime,
   formatNumber,
@@ -144,5 +154,6 @@ module.exports = {
   getFileExtension,
   deepClone,
   throttle,
-  debounce
+  debounce,
+  generateIdempotencyKey
 } 
\ No newline at end of file
@@ -59,4 +59,21 @@ public class ApiResponse<T> {
         response.setBody(null);
         return response;
     }
+    
+    /**
+     * 错误响应，同时返回部分数据
+     *
+     * @param code    错误代码
+     * @param message 错误消息
+     * @param data    响应数据
+     * @param <T>     数据类型
+     * @return ApiResponse对象
+     */
+    public static <T> ApiResponse<T> error(int code, String message, T data) {
+        ApiResponse<T> response = new ApiResponse<>();
+        response.setError(code);
+        response.setMessage(message);
+        response.setBody(data);
+        return response;
+    }
 } 
\ No newline at end of file
@@ -1,13 +1,22 @@
 package com.wordcheck.config;
 
+import com.wordcheck.service.CheckHistoryArchiveService;
+import com.wordcheck.service.CheckHistoryService;
+import com.wordcheck.service.CheckStatsService;
+import com.wordcheck.service.IdempotencyService;
+import com.wordcheck.service.PointService;
+import com.wordcheck.service.WordDictionaryService;
 import com.wordcheck.util.WechatUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.time.LocalDate;
+
 /**
  * 定时任务配置类
  */
@@ -20,6 +29,30 @@ public class ScheduleConfig {
     @Autowired
     private WechatUtil wechatUtil;
     
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+    
+    @Autowired
+    private CheckStatsService checkStatsService;
+    
+    @Autowired
+    private CheckHistoryArchiveService checkHistoryArchiveService;
+    
+    @Autowired
+    private CheckHistoryService checkHistoryService;
+    
+    @Autowired
+    private PointService pointService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    /**
+     * 每晚校正最近几天（不含今天）的检测统计
+     */
+    @Value("${check-history.stats.reconcile-days:2}")
+    private int reconcileDays;
+    
     /**
      * 定时清理过期的微信授权码缓存
      * 每5分钟执行一次
@@ -30,4 +63,89 @@ public class ScheduleConfig {
         wechatUtil.cleanExpiredCodes();
         logger.info("清理过期的微信授权码缓存完成");
     }
+    
+    /**
+     * 检查单词表是否变化，变化时重新加载词典（快照模式下同时重新生成快照）
+     * 默认每5分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${word.snapshot.check-interval-ms:300000}",
+            initialDelayString = "${word.snapshot.check-interval-ms:300000}")
+    public void refreshWordDictionary() {
+        try {
+            wordDictionaryService.refreshIfChanged();
+        } catch (Exception e) {
+            logger.error("检查单词词典版本失败", e);
+        }
+    }
+    
+    /**
+     * 按检测历史校正前几天的每日检测统计，修正增量维护中可能出现的偏差
+     * 默认每天3:30执行
+     */
+    @Scheduled(cron = "${check-history.stats.reconcile-cron:0 30 3 * * ?}")
+    public void reconcileCheckStats() {
+        LocalDate today = LocalDate.now();
+        for (int i = 1; i <= reconcileDays; i++) {
+            try {
+                checkStatsService.reconcile(today.minusDays(i));
+            } catch (Exception e) {
+                logger.error("校正{}的检测统计失败", today.minusDays(i), e);
+            }
+        }
+    }
+    
+    /**
+     * 将超过保留期的检测历史分批移到归档表
+     * 默认每天4:00执行
+     */
+    @Scheduled(cron = "${check-history.retention.cron:0 0 4 * * ?}")
+    public void archiveCheckHistory() {
+        try {
+            checkHistoryArchiveService.archiveExpired();
+        } catch (Exception e) {
+            logger.error("归档检测历史失败", e);
+        }
+    }
+    
+    /**
+     * 彻底删除超过撤销期的软删除检测历史
+     * 默认每分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${check-history.delete.purge-interval-ms:60000}",
+            initialDelayString = "${check-history.delete.purge-interval-ms:60000}")
+    public void purgeDeletedCheckHistory() {
+        try {
+            checkHistoryService.purgeDeleted();
+        } catch (Exception e) {
+            logger.error("彻底删除检测历史失败", e);
+        }
+    }
+    
+    /**
+     * 释放过期未结算的积分预占（如AI批改过程中服务重启）
+     * 默认每分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${points.reservation.sweep-interval-ms:60000}",
+            initialDelayString = "${points.reservation.sweep-interval-ms:60000}")
+    public void releaseExpiredPointReservations() {
+        try {
+            pointService.releaseExpiredReservations();
+        } catch (Exception e) {
+            logger.error("释放过期积分预占失败", e);
+        }
+    }
+    
+    /**
+     * 删除过期的幂等键
+     * 默认每10分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}",
+            initialDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredIdempotencyKeys() {
+        try {
+            idempotencyService.purgeExpired();
+        } catch (Exception e) {
+            logger.error("删除过期幂等键失败", e);
+        }
+    }
 } 
\ No newline at end of file
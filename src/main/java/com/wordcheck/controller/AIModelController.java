@@ -1,8 +1,13 @@
 package com.wordcheck.controller;
 
 import com.wordcheck.common.ApiResponse;
+import com.wordcheck.dictionary.AnalyzedText;
 import com.wordcheck.model.AIModelConfig;
+import com.wordcheck.model.dto.GrammarHintDTO;
 import com.wordcheck.service.AIModelConfigService;
+import com.wordcheck.service.GrammarHintService;
+import com.wordcheck.service.IdempotencyService;
+import com.wordcheck.service.PointService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AI模型接口控制器
@@ -25,9 +31,23 @@ import java.util.Map;
 @Slf4j
 public class AIModelController {
 
+    /**
+     * 积分预占的业务类型
+     */
+    private static final String ESSAY_CHECK_BUSINESS_TYPE = "AI_ESSAY_CHECK";
+
     @Autowired
     private AIModelConfigService aiModelConfigService;
     
+    @Autowired
+    private GrammarHintService grammarHintService;
+    
+    @Autowired
+    private PointService pointService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     /**
      * 获取可用的AI模型配置列表
      */
@@ -50,14 +70,24 @@ public class AIModelController {
     @Operation(summary = "使用AI模型批改作文")
     public ApiResponse<Map<String, Object>> checkEssay(
             HttpServletRequest request,
+            @Parameter(description = "幂等键，重试时使用同一个值") @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Object> params) {
+        // 从请求中获取用户ID
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        
+        // 相同幂等键的重试不再调用AI和扣积分，直接返回第一次的结果
+        return idempotencyService.execute(userId, "ai-check-essay", idempotencyKey, params, Map.class,
+                () -> doCheckEssay(userId, params));
+    }
+    
+    /**
+     * 批改作文：预占积分、调用AI模型、结算积分并整理结果
+     */
+    private ApiResponse<Map<String, Object>> doCheckEssay(Integer userId, Map<String, Object> params) {
         try {
-            // 从请求中获取用户ID
-            Integer userId = (Integer) request.getAttribute("userId");
-            if (userId == null) {
-                return ApiResponse.error(401, "未登录或登录已过期");
-            }
-            
             log.info("接收到AI批改请求，用户ID: {}, 参数: {}", userId, params);
             
             // 验证参数
@@ -87,39 +117,40 @@ public class AIModelController {
                 log.info("未指定模型ID，将使用默认模型");
             }
             
-            // 调用AI模型进行作文批改
-            String checkResult = aiModelConfigService.checkEssay(modelId, content);
-            log.info("AI批改完成，结果长度: {}", checkResult != null ? checkResult.length() : 0);
-            
-            // 构建返回结果
-            Map<String, Object> result = new HashMap<>();
-            result.put("evaluation", checkResult);
+            // 文本只分析一次；本地易混淆词检测与AI调用并行执行，不依赖AI结果
+            AnalyzedText analyzedText = AnalyzedText.analyze(content);
+            CompletableFuture<List<GrammarHintDTO>> grammarHintsFuture =
+                    CompletableFuture.supplyAsync(() -> grammarHintService.check(analyzedText));
             
-            // 获取模型信息
-            AIModelConfig modelConfig;
-            if (modelId != null) {
-                modelConfig = aiModelConfigService.getConfigById(modelId);
-            } else {
+            // 获取模型信息，指定的模型不存在时与批改一样使用默认模型
+            AIModelConfig modelConfig = modelId != null ? aiModelConfigService.getConfigById(modelId) : null;
+            if (modelConfig == null) {
                 modelConfig = aiModelConfigService.getDefaultConfig();
             }
             
-            // 添加模型信息到结果中
-            if (modelConfig != null) {
-                Map<String, Object> modelInfo = new HashMap<>();
-                modelInfo.put("id", modelConfig.getId());
-                modelInfo.put("name", modelConfig.getName());
-                modelInfo.put("provider", modelConfig.getProvider());
-                result.put("modelInfo", modelInfo);
+            // 调用AI前先预占积分，成功后结算、失败后释放；预占和结算各是一个短事务，不跨越AI调用
+            int pointsCost = modelConfig != null ? modelConfig.calculatePointsCost(content.length()) : 0;
+            Long reservationId = null;
+            if (pointsCost > 0) {
+                reservationId = pointService.holdPoints(userId, pointsCost, "AI作文批改",
+                        modelConfig.getId(), ESSAY_CHECK_BUSINESS_TYPE);
+                if (reservationId == null) {
+                    return ApiResponse.error(402, "积分不足，本次批改需要" + pointsCost + "积分");
+                }
             }
             
-            // 计算评分和提取关键建议（简单示例算法）
-            int score = calculateScore(checkResult);
-            List<String> suggestions = extractSuggestions(checkResult);
-            String summary = extractSummary(checkResult);
-            
-            result.put("score", score);
-            result.put("suggestions", suggestions);
-            result.put("summary", summary);
+            // 调用AI模型进行作文批改并构建返回结果；结果完整构建后才结算，之前的任何异常都释放预占，
+            // 结算之后不再有可能失败的步骤，重试不会因为5xx被当作新请求再次扣积分
+            Map<String, Object> result;
+            try {
+                String checkResult = aiModelConfigService.checkEssay(modelId, content);
+                log.info("AI批改完成，结果长度: {}", checkResult != null ? checkResult.length() : 0);
+                result = buildCheckResult(checkResult, pointsCost, modelConfig, grammarHintsFuture);
+            } catch (RuntimeException e) {
+                releaseQuietly(reservationId);
+                return checkFailed(e, grammarHintsFuture);
+            }
+            settleQuietly(reservationId);
             
             return ApiResponse.success(result);
         } catch (IllegalArgumentException e) {
@@ -134,6 +165,98 @@ public class AIModelController {
         }
     }
     
+    /**
+     * AI批改失败的响应：未扣积分，本地易混淆词提示不依赖AI结果，仍在body中返回
+     */
+    private ApiResponse<Map<String, Object>> checkFailed(RuntimeException e,
+                                                         CompletableFuture<List<GrammarHintDTO>> grammarHintsFuture) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("pointsCost", 0);
+        body.put("grammarHints", joinGrammarHints(grammarHintsFuture));
+        if (e instanceof IllegalArgumentException) {
+            log.error("参数错误: {}", e.getMessage(), e);
+            return ApiResponse.error(400, e.getMessage(), body);
+        }
+        if (e instanceof IllegalStateException) {
+            log.error("处理错误: {}", e.getMessage(), e);
+            return ApiResponse.error(500, e.getMessage(), body);
+        }
+        log.error("作文批改失败", e);
+        return ApiResponse.error(500, "作文批改失败: " + e.getMessage(), body);
+    }
+    
+    /**
+     * 构建批改返回结果：AI批改内容、消耗积分、模型信息、评分、建议、摘要和易混淆词提示
+     */
+    private Map<String, Object> buildCheckResult(String checkResult, int pointsCost, AIModelConfig modelConfig,
+                                                 CompletableFuture<List<GrammarHintDTO>> grammarHintsFuture) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("evaluation", checkResult);
+        result.put("pointsCost", pointsCost);
+        
+        // 添加模型信息到结果中
+        if (modelConfig != null) {
+            Map<String, Object> modelInfo = new HashMap<>();
+            modelInfo.put("id", modelConfig.getId());
+            modelInfo.put("name", modelConfig.getName());
+            modelInfo.put("provider", modelConfig.getProvider());
+            result.put("modelInfo", modelInfo);
+        }
+        
+        // 计算评分和提取关键建议（简单示例算法）
+        int score = calculateScore(checkResult);
+        List<String> suggestions = extractSuggestions(checkResult);
+        String summary = extractSummary(checkResult);
+        
+        result.put("score", score);
+        result.put("suggestions", suggestions);
+        result.put("summary", summary);
+        result.put("grammarHints", joinGrammarHints(grammarHintsFuture));
+        return result;
+    }
+    
+    /**
+     * 结算积分预占；失败时只记录日志，预占到期后由后台任务释放
+     */
+    private void settleQuietly(Long reservationId) {
+        if (reservationId == null) {
+            return;
+        }
+        try {
+            if (!pointService.settleReservation(reservationId)) {
+                log.warn("积分预占已过期释放，本次批改未扣积分, reservationId: {}", reservationId);
+            }
+        } catch (Exception e) {
+            log.error("结算积分预占失败, reservationId: {}", reservationId, e);
+        }
+    }
+    
+    /**
+     * 释放积分预占；失败时只记录日志，预占到期后由后台任务释放
+     */
+    private void releaseQuietly(Long reservationId) {
+        if (reservationId == null) {
+            return;
+        }
+        try {
+            pointService.releaseReservation(reservationId);
+        } catch (Exception e) {
+            log.error("释放积分预占失败, reservationId: {}", reservationId, e);
+        }
+    }
+    
+    /**
+     * 获取本地易混淆词检测结果，失败时返回空列表
+     */
+    private List<GrammarHintDTO> joinGrammarHints(CompletableFuture<List<GrammarHintDTO>> future) {
+        try {
+            return future.join();
+        } catch (Exception e) {
+            log.warn("本地语法提示失败: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
     /**
      * 从AI回复中计算评分
      * 简单实现，实际应用中可能需要更复杂的算法
@@ -2,15 +2,30 @@ package com.wordcheck.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wordcheck.common.ApiResponse;
+import com.wordcheck.model.UserHistoryStat;
 import com.wordcheck.model.vo.CheckHistory;
+import com.wordcheck.model.vo.CursorPageResult;
+import com.wordcheck.model.vo.HistoryDeleteResult;
+import com.wordcheck.service.CheckHistoryArchiveService;
+import com.wordcheck.service.CheckHistoryExportService;
 import com.wordcheck.service.CheckHistoryService;
+import com.wordcheck.service.CheckHistoryWriter;
+import com.wordcheck.service.HistoryDetailCache;
+import com.wordcheck.service.HistorySearchService;
+import com.wordcheck.service.UserHistoryStatService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,18 +39,44 @@ import java.util.Map;
 @Slf4j
 public class CheckHistoryController {
     
+    /**
+     * 每次批量删除的最大记录数
+     */
+    private static final int MAX_BATCH_DELETE = 500;
+    
     @Autowired
     private CheckHistoryService checkHistoryService;
     
+    @Autowired
+    private UserHistoryStatService userHistoryStatService;
+    
+    @Autowired
+    private CheckHistoryWriter checkHistoryWriter;
+    
+    @Autowired
+    private CheckHistoryExportService checkHistoryExportService;
+    
+    @Autowired
+    private CheckHistoryArchiveService checkHistoryArchiveService;
+    
+    @Autowired
+    private HistoryDetailCache historyDetailCache;
+    
+    @Autowired
+    private HistorySearchService historySearchService;
+    
     /**
      * 获取用户的检测历史列表
+     * 传入cursor参数（第一页传空字符串）时使用游标分页，返回nextCursor和hasMore，不返回总数；
+     * 只包含保留期内的记录，已归档的记录不在列表中，按ID仍可查看详情、可导出
      */
     @GetMapping("")
     @Operation(summary = "获取用户检测历史列表")
     public ApiResponse<Map<String, Object>> getUserHistoryList(
             HttpServletRequest request,
             @RequestParam(required = false, defaultValue = "1") Integer page,
-            @RequestParam(required = false, defaultValue = "10") Integer pageSize) {
+            @RequestParam(required = false, defaultValue = "10") Integer pageSize,
+            @Parameter(description = "游标分页：上一页返回的nextCursor，第一页传空字符串") @RequestParam(required = false) String cursor) {
         
         // 从请求中获取用户ID
         Integer userId = (Integer) request.getAttribute("userId");
@@ -43,6 +84,25 @@ public class CheckHistoryController {
             return ApiResponse.error(401, "未登录或登录已过期");
         }
         
+        if (cursor != null) {
+            try {
+                CursorPageResult<CheckHistory> cursorPage = checkHistoryService.getUserHistoryPage(userId, cursor, pageSize);
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("list", cursorPage.getRecords());
+                result.put("nextCursor", cursorPage.getNextCursor());
+                result.put("hasMore", cursorPage.getHasMore());
+                result.put("pageSize", cursorPage.getSize());
+                
+                return ApiResponse.success(result);
+            } catch (IllegalArgumentException e) {
+                return ApiResponse.error(400, e.getMessage());
+            } catch (Exception e) {
+                log.error("获取用户检测历史列表失败", e);
+                return ApiResponse.error(500, "获取历史记录失败: " + e.getMessage());
+            }
+        }
+        
         try {
             // 获取历史记录列表
             List<CheckHistory> historyList = checkHistoryService.getUserHistoryList(userId, page, pageSize);
@@ -64,6 +124,158 @@ public class CheckHistoryController {
         }
     }
     
+    /**
+     * 获取用户的检测历史汇总
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "获取用户检测历史汇总")
+    public ApiResponse<Map<String, Object>> getUserHistoryStats(HttpServletRequest request) {
+        
+        // 从请求中获取用户ID
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        
+        try {
+            UserHistoryStat stat = userHistoryStatService.getStats(userId);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("total", stat.getHistoryCount());
+            result.put("scoredCount", stat.getScoredCount());
+            result.put("averageScore", stat.getScoredCount() > 0
+                    ? Math.round(stat.getScoreSum() * 10.0 / stat.getScoredCount()) / 10.0 : null);
+            result.put("totalPointsCost", stat.getPointsCostSum());
+            
+            return ApiResponse.success(result);
+        } catch (Exception e) {
+            log.error("获取用户检测历史汇总失败", e);
+            return ApiResponse.error(500, "获取历史记录汇总失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 搜索用户的检测历史
+     * 只搜索保留期内的记录，不包含已归档的记录
+     */
+    @GetMapping("/search")
+    @Operation(summary = "按内容搜索用户检测历史")
+    public ApiResponse<List<CheckHistory>> searchHistory(
+            HttpServletRequest request,
+            @Parameter(description = "查询文本") @RequestParam String q,
+            @Parameter(description = "返回数量") @RequestParam(required = false, defaultValue = "20") Integer limit) {
+        
+        // 从请求中获取用户ID
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        if (q == null || q.trim().isEmpty()) {
+            return ApiResponse.error(400, "查询内容不能为空");
+        }
+        if (q.length() > 200) {
+            return ApiResponse.error(400, "查询内容不能超过200个字符");
+        }
+        if (limit < 1 || limit > 50) {
+            return ApiResponse.error(400, "返回数量必须在1-50之间");
+        }
+        
+        try {
+            return ApiResponse.success(checkHistoryService.searchUserHistory(userId, q, limit));
+        } catch (Exception e) {
+            log.error("搜索检测历史失败", e);
+            return ApiResponse.error(500, "搜索历史记录失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 导出用户的全部检测历史，包括已归档的记录
+     * 成功时直接写入响应输出流，不返回ApiResponse
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出用户全部检测历史（CSV或JSONL，可压缩为zip）")
+    public ApiResponse<Void> exportHistory(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @Parameter(description = "导出格式：csv或jsonl") @RequestParam(required = false, defaultValue = "csv") String format,
+            @Parameter(description = "是否压缩为zip") @RequestParam(required = false, defaultValue = "false") Boolean zip) {
+        
+        // 从请求中获取用户ID
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        format = format.toLowerCase();
+        if (!CheckHistoryExportService.FORMAT_CSV.equals(format) && !CheckHistoryExportService.FORMAT_JSONL.equals(format)) {
+            return ApiResponse.error(400, "导出格式只能是csv或jsonl");
+        }
+        
+        String fileName = "check-history-" + userId + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + "." + format;
+        String downloadName = zip ? fileName + ".zip" : fileName;
+        String contentType = zip ? "application/zip"
+                : CheckHistoryExportService.FORMAT_CSV.equals(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8";
+        try {
+            response.setContentType(contentType);
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + downloadName + "\"");
+            checkHistoryExportService.exportUserHistory(userId, format, zip, fileName, response.getOutputStream());
+            return null;
+        } catch (IllegalStateException e) {
+            if (response.isCommitted()) {
+                log.error("导出检测历史失败", e);
+                return null;
+            }
+            response.reset();
+            return ApiResponse.error(429, e.getMessage());
+        } catch (IOException e) {
+            // 客户端中断下载，响应已开始输出，无法再返回错误信息
+            log.warn("导出检测历史中断: {}", e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.error("导出检测历史失败", e);
+            if (response.isCommitted()) {
+                return null;
+            }
+            response.reset();
+            return ApiResponse.error(500, "导出历史记录失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取检测历史搜索索引统计信息
+     */
+    @GetMapping("/search-stats")
+    @Operation(summary = "获取检测历史搜索索引统计信息")
+    public ApiResponse<Map<String, Object>> getSearchStats() {
+        return ApiResponse.success(historySearchService.getStats());
+    }
+    
+    /**
+     * 获取检测历史写入统计信息
+     */
+    @GetMapping("/writer-stats")
+    @Operation(summary = "获取检测历史写入统计信息")
+    public ApiResponse<Map<String, Object>> getWriterStats() {
+        return ApiResponse.success(checkHistoryWriter.getStats());
+    }
+    
+    /**
+     * 获取检测历史详情缓存统计信息
+     */
+    @GetMapping("/detail-cache-stats")
+    @Operation(summary = "获取检测历史详情缓存统计信息")
+    public ApiResponse<Map<String, Object>> getDetailCacheStats() {
+        return ApiResponse.success(historyDetailCache.getStats());
+    }
+    
+    /**
+     * 获取检测历史归档统计信息
+     */
+    @GetMapping("/archive-stats")
+    @Operation(summary = "获取检测历史归档统计信息")
+    public ApiResponse<Map<String, Object>> getArchiveStats() {
+        return ApiResponse.success(checkHistoryArchiveService.getStats());
+    }
+    
     /**
      * 获取检测历史详情
      */
@@ -130,6 +342,78 @@ public class CheckHistoryController {
         }
     }
     
+    /**
+     * 批量删除检测历史记录
+     */
+    @PostMapping("/batch-delete")
+    @Operation(summary = "批量删除检测历史记录，撤销期内可撤销")
+    public ApiResponse<HistoryDeleteResult> batchDeleteHistory(
+            HttpServletRequest request,
+            @RequestBody Map<String, Object> params) {
+        
+        // 从请求中获取用户ID
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        
+        Object idsParam = params.get("ids");
+        if (!(idsParam instanceof List) || ((List<?>) idsParam).isEmpty()) {
+            return ApiResponse.error(400, "要删除的记录ID不能为空");
+        }
+        List<?> rawIds = (List<?>) idsParam;
+        if (rawIds.size() > MAX_BATCH_DELETE) {
+            return ApiResponse.error(400, "每次最多删除" + MAX_BATCH_DELETE + "条记录");
+        }
+        List<String> ids = new ArrayList<>(rawIds.size());
+        for (Object rawId : rawIds) {
+            if (rawId != null) {
+                ids.add(rawId.toString());
+            }
+        }
+        
+        try {
+            return ApiResponse.success(checkHistoryService.deleteHistories(userId, ids));
+        } catch (Exception e) {
+            log.error("批量删除检测历史记录失败", e);
+            return ApiResponse.error(500, "批量删除历史记录失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 撤销批量删除
+     */
+    @PostMapping("/undo-delete")
+    @Operation(summary = "撤销批量删除检测历史记录")
+    public ApiResponse<Map<String, Object>> undoDeleteHistory(
+            HttpServletRequest request,
+            @RequestBody Map<String, Object> params) {
+        
+        // 从请求中获取用户ID
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        
+        Object token = params.get("undoToken");
+        if (token == null || token.toString().isEmpty()) {
+            return ApiResponse.error(400, "撤销令牌不能为空");
+        }
+        
+        try {
+            int restored = checkHistoryService.undoDelete(userId, token.toString());
+            if (restored == 0) {
+                return ApiResponse.error(400, "撤销失败，令牌无效或已超过撤销期限");
+            }
+            Map<String, Object> result = new HashMap<>();
+            result.put("restoredCount", restored);
+            return ApiResponse.success(result);
+        } catch (Exception e) {
+            log.error("撤销删除检测历史记录失败", e);
+            return ApiResponse.error(500, "撤销删除失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 保存检测历史记录
      */
@@ -190,13 +474,10 @@ public class CheckHistoryController {
             
             log.info("处理后的参数: 模型ID={}, 模型名称={}, 检测类型={}", modelId, modelName, checkType);
             
-            // 调用服务保存历史记录
-            String historyId = checkHistoryService.saveHistory(
+            // 调用服务保存历史记录，直接返回保存的记录，不再重新查询
+            CheckHistory savedHistory = checkHistoryService.saveAndGetHistory(
                 userId, content, modelId, modelName, checkType, result, pointsCost);
             
-            // 获取保存后的记录详情
-            CheckHistory savedHistory = checkHistoryService.getHistoryById(historyId);
-            
             return ApiResponse.success(savedHistory);
         } catch (Exception e) {
             log.error("保存检测历史记录失败", e);
@@ -0,0 +1,55 @@
+package com.wordcheck.controller;
+
+import com.wordcheck.common.ApiResponse;
+import com.wordcheck.model.vo.CheckStatsVO;
+import com.wordcheck.service.CheckStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 检测统计控制器
+ */
+@RestController
+@RequestMapping("/check")
+@Tag(name = "检测统计", description = "用户检测次数、评分趋势和模型使用统计接口")
+@Slf4j
+public class CheckStatsController {
+
+    /**
+     * 最多统计的天数
+     */
+    private static final int MAX_DAYS = 365;
+
+    @Autowired
+    private CheckStatsService checkStatsService;
+
+    /**
+     * 获取当前用户最近若干天的检测统计
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "获取当前用户最近若干天的检测统计")
+    public ApiResponse<CheckStatsVO> getStats(
+            HttpServletRequest request,
+            @Parameter(description = "统计天数（含今天）") @RequestParam(required = false, defaultValue = "30") Integer days) {
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        if (days < 1 || days > MAX_DAYS) {
+            return ApiResponse.error(400, "统计天数必须在1-" + MAX_DAYS + "之间");
+        }
+
+        try {
+            return ApiResponse.success(checkStatsService.getUserStats(userId, days));
+        } catch (Exception e) {
+            log.error("获取检测统计失败", e);
+            return ApiResponse.error(500, "获取检测统计失败: " + e.getMessage());
+        }
+    }
+}
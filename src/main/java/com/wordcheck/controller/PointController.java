@@ -3,6 +3,8 @@ package com.wordcheck.controller;
 import com.wordcheck.common.ApiResponse;
 import com.wordcheck.model.dto.PointsDTO;
 import com.wordcheck.model.dto.PointsRecordDTO;
+import com.wordcheck.service.IdempotencyService;
+import com.wordcheck.service.PointCreditAccumulator;
 import com.wordcheck.service.PointService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
 
 /**
  * 积分控制器
@@ -24,6 +27,12 @@ public class PointController {
 
     @Autowired
     private PointService pointService;
+    
+    @Autowired
+    private PointCreditAccumulator pointCreditAccumulator;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     /**
      * 获取用户积分信息
@@ -100,6 +109,24 @@ public class PointController {
         return getUserPoints(request);
     }
     
+    /**
+     * 获取幂等键统计信息（执行、重放、等待次数等）
+     */
+    @GetMapping("/idempotency-stats")
+    @Operation(summary = "获取幂等键统计信息")
+    public ApiResponse<Map<String, Object>> getIdempotencyStats() {
+        return ApiResponse.success(idempotencyService.getStats());
+    }
+    
+    /**
+     * 获取积分合并写入统计信息（缓冲用户数、合并写入次数、日志大小等）
+     */
+    @GetMapping("/credit-stats")
+    @Operation(summary = "获取积分合并写入统计信息")
+    public ApiResponse<Map<String, Object>> getCreditStats() {
+        return ApiResponse.success(pointCreditAccumulator.getStats());
+    }
+    
     /**
      * 扣减用户积分
      *
@@ -111,6 +138,7 @@ public class PointController {
     @Operation(summary = "扣减用户积分")
     public ApiResponse<PointsDTO> deductPoints(
             HttpServletRequest request,
+            @Parameter(description = "幂等键，重试时使用同一个值") @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody(required = true) java.util.Map<String, Object> params
     ) {
         try {
@@ -145,9 +173,11 @@ public class PointController {
                 reason = "消费";
             }
             
-            // 调用服务扣减积分
-            PointsDTO result = pointService.deductPoints(userId, points, reason);
-            return ApiResponse.success(result);
+            // 调用服务扣减积分，相同幂等键的重试直接返回第一次的结果
+            Integer deductPoints = points;
+            String deductReason = reason;
+            return idempotencyService.execute(userId, "points-deduct", idempotencyKey, params, PointsDTO.class,
+                    () -> ApiResponse.success(pointService.deductPoints(userId, deductPoints, deductReason)));
         } catch (Exception e) {
             log.error("扣减用户积分失败", e);
             return ApiResponse.error(500, "扣减用户积分失败: " + e.getMessage());
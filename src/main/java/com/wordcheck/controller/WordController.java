@@ -0,0 +1,222 @@
+package com.wordcheck.controller;
+
+import com.wordcheck.common.ApiResponse;
+import com.wordcheck.model.dto.QuizItemDTO;
+import com.wordcheck.model.dto.TextCheckResultDTO;
+import com.wordcheck.model.dto.WeakWordDTO;
+import com.wordcheck.service.CheckRecordWriter;
+import com.wordcheck.service.GrammarHintService;
+import com.wordcheck.service.QuizService;
+import com.wordcheck.service.WeakWordService;
+import com.wordcheck.service.WordCheckService;
+import com.wordcheck.service.WordDictionaryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单词控制器
+ */
+@RestController
+@RequestMapping("/word")
+@Tag(name = "单词", description = "单词拼写检查相关接口")
+@Slf4j
+public class WordController {
+
+    /**
+     * 单次检查允许的最大文本长度
+     */
+    private static final int MAX_TEXT_LENGTH = 20000;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Autowired
+    private WordCheckService wordCheckService;
+
+    @Autowired
+    private CheckRecordWriter checkRecordWriter;
+
+    @Autowired
+    private WeakWordService weakWordService;
+
+    @Autowired
+    private GrammarHintService grammarHintService;
+
+    @Autowired
+    private QuizService quizService;
+
+    /**
+     * 检查整段文本的拼写
+     */
+    @PostMapping("/check")
+    @Operation(summary = "检查整段文本的拼写")
+    public ApiResponse<TextCheckResultDTO> checkText(
+            HttpServletRequest request,
+            @RequestBody Map<String, Object> params) {
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+
+        Object textParam = params.get("text") != null ? params.get("text") : params.get("content");
+        if (textParam == null || textParam.toString().trim().isEmpty()) {
+            return ApiResponse.error(400, "检查内容不能为空");
+        }
+        String text = textParam.toString();
+        if (text.length() > MAX_TEXT_LENGTH) {
+            return ApiResponse.error(400, "检查内容不能超过" + MAX_TEXT_LENGTH + "个字符");
+        }
+
+        try {
+            return ApiResponse.success(wordCheckService.checkText(userId, text));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(400, e.getMessage());
+        } catch (IllegalStateException e) {
+            log.error("文本拼写检查失败: {}", e.getMessage());
+            return ApiResponse.error(503, e.getMessage());
+        } catch (Exception e) {
+            log.error("文本拼写检查失败", e);
+            return ApiResponse.error(500, "文本拼写检查失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取当前用户最常拼错的单词
+     */
+    @GetMapping("/weak-words")
+    @Operation(summary = "获取当前用户最常拼错的单词")
+    public ApiResponse<List<WeakWordDTO>> getWeakWords(
+            HttpServletRequest request,
+            @Parameter(description = "返回数量") @RequestParam(required = false, defaultValue = "10") Integer limit) {
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        if (limit < 1 || limit > 100) {
+            return ApiResponse.error(400, "返回数量必须在1-100之间");
+        }
+
+        try {
+            return ApiResponse.success(weakWordService.getWeakWords(userId, limit));
+        } catch (Exception e) {
+            log.error("获取薄弱单词失败", e);
+            return ApiResponse.error(500, "获取薄弱单词失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 生成单词测验
+     */
+    @GetMapping("/quiz")
+    @Operation(summary = "生成单词测验，混入当前用户的薄弱单词")
+    public ApiResponse<List<QuizItemDTO>> getQuiz(
+            HttpServletRequest request,
+            @Parameter(description = "题目数量") @RequestParam(required = false, defaultValue = "10") Integer count,
+            @Parameter(description = "难度级别") @RequestParam(required = false) String difficulty,
+            @Parameter(description = "分类") @RequestParam(required = false) String category) {
+        Integer userId = (Integer) request.getAttribute("userId");
+        if (userId == null) {
+            return ApiResponse.error(401, "未登录或登录已过期");
+        }
+        if (count < 1 || count > 50) {
+            return ApiResponse.error(400, "题目数量必须在1-50之间");
+        }
+
+        try {
+            List<QuizItemDTO> items = quizService.generateQuiz(userId, difficulty, category, count);
+            if (items.isEmpty()) {
+                return ApiResponse.error(404, "没有符合条件的单词");
+            }
+            return ApiResponse.success(items);
+        } catch (Exception e) {
+            log.error("生成单词测验失败", e);
+            return ApiResponse.error(500, "生成单词测验失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取每日单词
+     */
+    @GetMapping("/daily")
+    @Operation(summary = "获取每日单词")
+    public ApiResponse<QuizItemDTO> getWordOfTheDay(
+            @Parameter(description = "难度级别") @RequestParam(required = false) String difficulty) {
+        try {
+            QuizItemDTO item = quizService.getWordOfTheDay(difficulty);
+            if (item == null) {
+                return ApiResponse.error(404, "没有符合条件的单词");
+            }
+            return ApiResponse.success(item);
+        } catch (Exception e) {
+            log.error("获取每日单词失败", e);
+            return ApiResponse.error(500, "获取每日单词失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取测验题库统计信息
+     */
+    @GetMapping("/quiz-stats")
+    @Operation(summary = "获取测验题库统计信息")
+    public ApiResponse<Map<String, Object>> getQuizStats() {
+        return ApiResponse.success(quizService.getPoolStats());
+    }
+
+    /**
+     * 获取单词拼写建议
+     */
+    @GetMapping("/suggestions")
+    @Operation(summary = "获取单词拼写建议")
+    public ApiResponse<List<String>> getSuggestions(
+            @Parameter(description = "单词") @RequestParam String word,
+            @Parameter(description = "建议数量") @RequestParam(defaultValue = "5") int limit) {
+        if (word == null || word.trim().isEmpty()) {
+            return ApiResponse.error(400, "单词不能为空");
+        }
+        if (limit < 1 || limit > 20) {
+            return ApiResponse.error(400, "建议数量必须在1-20之间");
+        }
+
+        try {
+            return ApiResponse.success(wordDictionaryService.suggest(word, limit));
+        } catch (Exception e) {
+            log.error("获取单词建议失败", e);
+            return ApiResponse.error(500, "获取单词建议失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取建议引擎统计信息，用于比较不同引擎的延迟和内存占用
+     */
+    @GetMapping("/engine-stats")
+    @Operation(summary = "获取建议引擎统计信息")
+    public ApiResponse<Map<String, Object>> getEngineStats() {
+        return ApiResponse.success(wordDictionaryService.getEngineStats());
+    }
+
+    /**
+     * 获取语言模型统计信息
+     */
+    @GetMapping("/ngram-stats")
+    @Operation(summary = "获取语言模型统计信息")
+    public ApiResponse<Map<String, Object>> getNgramStats() {
+        return ApiResponse.success(grammarHintService.getModelStats());
+    }
+
+    /**
+     * 获取检测记录写入统计信息（队列深度、批次耗时等）
+     */
+    @GetMapping("/record-writer-stats")
+    @Operation(summary = "获取检测记录写入统计信息")
+    public ApiResponse<Map<String, Object>> getRecordWriterStats() {
+        return ApiResponse.success(checkRecordWriter.getStats());
+    }
+}
@@ -0,0 +1,301 @@
+package com.wordcheck.dictionary;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 预处理后的文本
+ * 每次提交只分析一次，拼写检查和语法提示共用同一份结果。
+ * 规范化逐字符替换（全角转半角、中文标点转英文标点、弯引号转直引号），长度不变，
+ * 因此单词和句子在规范化文本中的位置就是在原文中的位置。
+ * 单词和句子只记录位置数组，需要时才创建字符串。创建后不可变，可在线程间共享
+ */
+public final class AnalyzedText {
+
+    /**
+     * 句号后面跟着这些缩写时不算句子结束
+     */
+    private static final String[] ABBREVIATIONS = {
+            "mr", "mrs", "ms", "dr", "prof", "sr", "jr", "st", "vs", "etc", "eg", "ie", "no", "fig"
+    };
+
+    private final String original;
+
+    private final String normalized;
+
+    private final WordTokenizer.Tokens tokens;
+
+    /**
+     * 第s个句子包含的单词下标为[sentenceTokenStarts[s], sentenceTokenStarts[s + 1])
+     */
+    private final int[] sentenceTokenStarts;
+
+    /**
+     * 第s个句子在原文中的字符范围为[sentenceStarts[s], sentenceEnds[s])
+     */
+    private final int[] sentenceStarts;
+
+    private final int[] sentenceEnds;
+
+    private final int sentenceCount;
+
+    private AnalyzedText(String original, String normalized, WordTokenizer.Tokens tokens,
+                         int[] sentenceTokenStarts, int[] sentenceStarts, int[] sentenceEnds, int sentenceCount) {
+        this.original = original;
+        this.normalized = normalized;
+        this.tokens = tokens;
+        this.sentenceTokenStarts = sentenceTokenStarts;
+        this.sentenceStarts = sentenceStarts;
+        this.sentenceEnds = sentenceEnds;
+        this.sentenceCount = sentenceCount;
+    }
+
+    /**
+     * 分析文本：规范化、切分单词、切分句子
+     *
+     * @param text 原文
+     * @return 分析结果
+     */
+    public static AnalyzedText analyze(String text) {
+        if (text == null) {
+            text = "";
+        }
+        String normalized = normalize(text);
+        WordTokenizer.Tokens tokens = WordTokenizer.tokenize(normalized);
+
+        int capacity = Math.max(4, tokens.size() / 8);
+        int[] tokenStarts = new int[capacity + 1];
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        int count = 0;
+        int first = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            int gapEnd = i + 1 < tokens.size() ? tokens.start(i + 1) : normalized.length();
+            int boundary = i + 1 == tokens.size() ? gapEnd : sentenceEnd(normalized, tokens, i, gapEnd);
+            if (boundary < 0) {
+                continue;
+            }
+            if (count == starts.length) {
+                tokenStarts = Arrays.copyOf(tokenStarts, count * 2 + 1);
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            tokenStarts[count] = first;
+            starts[count] = tokens.start(first);
+            ends[count] = i + 1 == tokens.size() ? trimEnd(normalized, tokens.end(i), boundary) : boundary;
+            count++;
+            first = i + 1;
+        }
+        tokenStarts[count] = tokens.size();
+        return new AnalyzedText(text, normalized, tokens, tokenStarts, starts, ends, count);
+    }
+
+    /**
+     * 逐字符规范化，长度不变
+     *
+     * @param text 原文
+     * @return 规范化文本
+     */
+    public static String normalize(String text) {
+        char[] chars = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char mapped = normalize(c);
+            if (mapped != c) {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = mapped;
+            }
+        }
+        return chars == null ? text : new String(chars);
+    }
+
+    private static char normalize(char c) {
+        if (c >= '！' && c <= '～') {
+            // 全角ASCII（含全角字母、数字和，。！？：；（）等标点）
+            return (char) (c - 0xFEE0);
+        }
+        switch (c) {
+            case '　':
+                return ' ';
+            case '。':
+            case '｡':
+                return '.';
+            case '、':
+                return ',';
+            case '“':
+            case '”':
+            case '「':
+            case '」':
+            case '《':
+            case '》':
+                return '"';
+            case '‘':
+            case '’':
+            case '『':
+            case '』':
+                return '\'';
+            case '【':
+                return '[';
+            case '】':
+                return ']';
+            case '…':
+                return '.';
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * 单词i之后到下一个单词之前的间隔中是否有句子结束，有则返回句子结束位置（含结束标点），否则返回-1
+     */
+    private static int sentenceEnd(String text, WordTokenizer.Tokens tokens, int i, int gapEnd) {
+        for (int p = tokens.end(i); p < gapEnd; p++) {
+            char c = text.charAt(p);
+            if (c == '\n') {
+                return p;
+            }
+            if (c == '!' || c == '?') {
+                return p + 1;
+            }
+            if (c == '.') {
+                // 句号后必须是空白、引号、括号、中文或文本结束；3.5、e.g.这类不算句子结束
+                char next = p + 1 < text.length() ? text.charAt(p + 1) : ' ';
+                boolean spaced = Character.isWhitespace(next) || next == '"' || next == '\'' || next == ')'
+                        || next > 0x7F;
+                if (spaced && p == tokens.end(i) && !isAbbreviation(text, tokens.start(i), tokens.end(i))) {
+                    return p + 1;
+                }
+                if (spaced && p > tokens.end(i)) {
+                    return p + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAbbreviation(String text, int start, int end) {
+        int length = end - start;
+        if (length == 1) {
+            // 单个字母加句号（姓名缩写 J. Smith）
+            return true;
+        }
+        for (String abbreviation : ABBREVIATIONS) {
+            if (abbreviation.length() == length && text.regionMatches(true, start, abbreviation, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int trimEnd(String text, int from, int end) {
+        int p = end;
+        while (p > from && Character.isWhitespace(text.charAt(p - 1))) {
+            p--;
+        }
+        return p;
+    }
+
+    /**
+     * 原文
+     */
+    public String getOriginal() {
+        return original;
+    }
+
+    /**
+     * 规范化文本，与原文长度相同
+     */
+    public String getNormalized() {
+        return normalized;
+    }
+
+    public int length() {
+        return original.length();
+    }
+
+    /**
+     * 单词数
+     */
+    public int tokenCount() {
+        return tokens.size();
+    }
+
+    public int tokenStart(int index) {
+        return tokens.start(index);
+    }
+
+    public int tokenEnd(int index) {
+        return tokens.end(index);
+    }
+
+    /**
+     * 单词在原文中的写法
+     */
+    public String token(int index) {
+        return original.substring(tokens.start(index), tokens.end(index));
+    }
+
+    /**
+     * 单词的规范形式：规范化后转为小写
+     */
+    public String normalizedToken(int index) {
+        String token = normalized.substring(tokens.start(index), tokens.end(index));
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return token.toLowerCase(Locale.ROOT);
+            }
+        }
+        return token;
+    }
+
+    /**
+     * 单词是否全部由大写字母组成（缩写）
+     */
+    public boolean isAllUpperCase(int index) {
+        for (int i = tokens.start(index); i < tokens.end(index); i++) {
+            char c = normalized.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 句子数
+     */
+    public int sentenceCount() {
+        return sentenceCount;
+    }
+
+    /**
+     * 句子中第一个单词的下标
+     */
+    public int sentenceTokenStart(int sentence) {
+        return sentenceTokenStarts[sentence];
+    }
+
+    /**
+     * 句子中最后一个单词之后的下标
+     */
+    public int sentenceTokenEnd(int sentence) {
+        return sentenceTokenStarts[sentence + 1];
+    }
+
+    /**
+     * 句子在原文中的起始位置
+     */
+    public int sentenceStart(int sentence) {
+        return sentenceStarts[sentence];
+    }
+
+    /**
+     * 句子在原文中的结束位置（含句末标点）
+     */
+    public int sentenceEnd(int sentence) {
+        return sentenceEnds[sentence];
+    }
+}
@@ -0,0 +1,268 @@
+package com.wordcheck.dictionary;
+
+import com.wordcheck.dictionary.metric.DistanceMetric;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 基于BK树的单词建议引擎
+ * 利用度量的三角不等式剪枝，只需计算少量节点的距离即可找到阈值内的所有单词。
+ * 在该度量下距离为0的不同单词（如读音相同）挂在同一节点上
+ */
+public class BkTreeSuggestionEngine implements SuggestionEngine {
+
+    public static final String NAME = "bktree";
+
+    private final DistanceMetric metric;
+
+    private Node root;
+
+    private int size;
+
+    private int nodeCount;
+
+    public BkTreeSuggestionEngine(DistanceMetric metric, Collection<String> words) {
+        this.metric = metric;
+        for (String word : words) {
+            add(word);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public DistanceMetric getMetric() {
+        return metric;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 向树中添加单词
+     */
+    private void add(String word) {
+        if (word == null || word.isEmpty()) {
+            return;
+        }
+        if (root == null) {
+            root = new Node(word);
+            nodeCount++;
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int d = metric.distance(word, node.word);
+            if (d == 0) {
+                if (node.addAlias(word)) {
+                    size++;
+                }
+                return;
+            }
+            Node child = node.child(d);
+            if (child == null) {
+                node.addChild(d, new Node(word));
+                nodeCount++;
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    @Override
+    public List<Suggestion> suggest(String word, int maxEdits, int limit) {
+        if (root == null || word == null || word.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int threshold = maxEdits * metric.unitCost();
+        List<Suggestion> results = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int d = metric.distance(word, node.word);
+            if (d <= threshold) {
+                results.add(new Suggestion(node.word, d));
+                if (node.aliases != null) {
+                    for (String alias : node.aliases) {
+                        results.add(new Suggestion(alias, d));
+                    }
+                }
+            }
+            // 三角不等式：只有距离落在[d - threshold, d + threshold]内的子树可能包含结果
+            int low = d - threshold;
+            int high = d + threshold;
+            for (int i = 0; i < node.childCount; i++) {
+                int childDistance = node.childDistances[i];
+                if (childDistance >= low && childDistance <= high) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+        results.sort(Suggestion.comparator(word));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    @Override
+    public long estimateMemoryBytes() {
+        // 节点对象头+字段约40字节，子节点数组按平均容量估算，单词按字符数估算
+        long bytes = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            bytes += 40 + estimateString(node.word);
+            if (node.children != null) {
+                bytes += 16 + node.children.length * 4L + 16 + node.childDistances.length * 4L;
+            }
+            if (node.aliases != null) {
+                bytes += 16 + node.aliases.length * 4L;
+                for (String alias : node.aliases) {
+                    bytes += estimateString(alias);
+                }
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                stack.push(node.children[i]);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 获取树的节点数（不含别名）
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * 按广度优先顺序把树展开为数组，供词典快照写入文件
+     */
+    Flattened flatten() {
+        Flattened flat = new Flattened(nodeCount);
+        if (root == null) {
+            return flat;
+        }
+        List<Node> order = new ArrayList<>(nodeCount);
+        order.add(root);
+        int edgeCount = 0;
+        for (int i = 0; i < order.size(); i++) {
+            Node node = order.get(i);
+            for (int c = 0; c < node.childCount; c++) {
+                order.add(node.children[c]);
+            }
+            edgeCount += node.childCount;
+        }
+
+        flat.edgeDistances = new int[edgeCount];
+        flat.edgeTargets = new int[edgeCount];
+        int nextChild = 1;
+        int edge = 0;
+        for (int i = 0; i < order.size(); i++) {
+            Node node = order.get(i);
+            flat.words[i] = node.word;
+            flat.aliases[i] = node.aliases;
+            flat.edgeStarts[i] = edge;
+            flat.edgeCounts[i] = node.childCount;
+            for (int c = 0; c < node.childCount; c++) {
+                flat.edgeDistances[edge] = node.childDistances[c];
+                flat.edgeTargets[edge] = nextChild++;
+                edge++;
+            }
+        }
+        return flat;
+    }
+
+    static long estimateString(String s) {
+        return 24 + 16 + s.length() * 2L;
+    }
+
+    /**
+     * 展开后的树：节点i的子节点为edgeTargets[edgeStarts[i]]起的edgeCounts[i]个节点，根节点下标为0
+     */
+    static final class Flattened {
+        final String[] words;
+        final String[][] aliases;
+        final int[] edgeStarts;
+        final int[] edgeCounts;
+        int[] edgeDistances = new int[0];
+        int[] edgeTargets = new int[0];
+
+        Flattened(int nodeCount) {
+            words = new String[nodeCount];
+            aliases = new String[nodeCount][];
+            edgeStarts = new int[nodeCount];
+            edgeCounts = new int[nodeCount];
+        }
+    }
+
+    /**
+     * BK树节点，子节点使用紧凑的并行数组存储
+     */
+    private static final class Node {
+        private final String word;
+        private String[] aliases;
+        private int[] childDistances;
+        private Node[] children;
+        private int childCount;
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (childDistances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (children == null) {
+                children = new Node[2];
+                childDistances = new int[2];
+            } else if (childCount == children.length) {
+                int capacity = childCount * 2;
+                children = java.util.Arrays.copyOf(children, capacity);
+                childDistances = java.util.Arrays.copyOf(childDistances, capacity);
+            }
+            children[childCount] = child;
+            childDistances[childCount] = distance;
+            childCount++;
+        }
+
+        boolean addAlias(String alias) {
+            if (alias.equals(word)) {
+                return false;
+            }
+            if (aliases == null) {
+                aliases = new String[]{alias};
+                return true;
+            }
+            for (String existing : aliases) {
+                if (existing.equals(alias)) {
+                    return false;
+                }
+            }
+            aliases = java.util.Arrays.copyOf(aliases, aliases.length + 1);
+            aliases[aliases.length - 1] = alias;
+            return true;
+        }
+    }
+}
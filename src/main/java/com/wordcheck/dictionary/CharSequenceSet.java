@@ -0,0 +1,92 @@
+package com.wordcheck.dictionary;
+
+import java.util.Collection;
+
+/**
+ * 只读字符串集合，可以直接用任意CharSequence查询
+ * 开放寻址哈希表，哈希算法与String.hashCode一致，查询时逐字符比较，
+ * 词形还原用复用的缓冲区反复查询时不需要先转换为字符串
+ */
+public final class CharSequenceSet {
+
+    private final String[] table;
+    private final int mask;
+    private final int size;
+
+    /**
+     * @param values 字符串集合，null元素忽略
+     */
+    public CharSequenceSet(Collection<String> values) {
+        int capacity = Integer.highestOneBit(Math.max(4, values.size() * 2 - 1)) << 1;
+        this.table = new String[capacity];
+        this.mask = capacity - 1;
+        int count = 0;
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            int slot = mix(value.hashCode()) & mask;
+            while (table[slot] != null && !table[slot].equals(value)) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == null) {
+                table[slot] = value;
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    /**
+     * 判断是否包含与给定字符序列内容相同的字符串
+     *
+     * @param value 字符序列
+     * @return 是否包含
+     */
+    public boolean contains(CharSequence value) {
+        int slot = mix(hash(value)) & mask;
+        while (true) {
+            String candidate = table[slot];
+            if (candidate == null) {
+                return false;
+            }
+            if (contentEquals(candidate, value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean contentEquals(String candidate, CharSequence value) {
+        int length = candidate.length();
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence value) {
+        if (value instanceof String) {
+            return value.hashCode();
+        }
+        int h = 0;
+        for (int i = 0; i < value.length(); i++) {
+            h = 31 * h + value.charAt(i);
+        }
+        return h;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,198 @@
+package com.wordcheck.dictionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 易混淆词检测
+ * 拼写正确但用错的单词（their/there、form/from）无法通过查词典发现。
+ * 对句子中属于易混淆词组的单词，用n元语言模型比较替换为同组其他单词后的句子概率，
+ * 替换后的对数概率高出阈值时给出提示
+ */
+public final class ConfusionDetector {
+
+    /**
+     * 易混淆词组
+     */
+    private static final String[][] CONFUSION_SETS = {
+            {"their", "there", "they're"},
+            {"your", "you're"},
+            {"its", "it's"},
+            {"whose", "who's"},
+            {"were", "where", "we're"},
+            {"form", "from"},
+            {"then", "than"},
+            {"to", "too", "two"},
+            {"of", "off"},
+            {"affect", "effect"},
+            {"accept", "except"},
+            {"advice", "advise"},
+            {"loose", "lose"},
+            {"weather", "whether"},
+            {"quiet", "quite"},
+            {"passed", "past"},
+            {"lead", "led"},
+            {"breath", "breathe"},
+            {"principal", "principle"},
+            {"piece", "peace"},
+            {"hear", "here"},
+            {"know", "no"},
+            {"knew", "new"},
+            {"right", "write"},
+            {"buy", "by", "bye"},
+            {"sea", "see"},
+            {"week", "weak"},
+            {"whole", "hole"},
+            {"threw", "through"},
+            {"desert", "dessert"},
+            {"cloths", "clothes"},
+            {"among", "between"},
+            {"fewer", "less"},
+            {"lay", "lie"},
+            {"rise", "raise"},
+            {"site", "sight", "cite"},
+            {"steal", "steel"},
+            {"wander", "wonder"}
+    };
+
+    private static final Map<String, String[]> SETS_BY_WORD = new HashMap<>();
+
+    static {
+        for (String[] set : CONFUSION_SETS) {
+            for (String word : set) {
+                SETS_BY_WORD.put(word, set);
+            }
+        }
+    }
+
+    private final NgramModel model;
+
+    /**
+     * 替换词的句子对数概率（以10为底）至少高出该值才提示
+     */
+    private final float minGain;
+
+    public ConfusionDetector(NgramModel model, float minGain) {
+        this.model = model;
+        this.minGain = minGain;
+    }
+
+    /**
+     * 检测一个句子中用错的易混淆词
+     *
+     * @param words 句子中的小写单词
+     * @return 提示列表，按单词位置排序
+     */
+    public List<Hint> detect(String[] words) {
+        int n = words.length;
+        if (n == 0) {
+            return Collections.emptyList();
+        }
+
+        // 句首句尾标记让"There is ..."、"... over there."这类位置也有足够的上下文
+        int[] ids = new int[n + 2];
+        ids[0] = model.wordId(NgramModel.SENTENCE_START);
+        ids[n + 1] = model.wordId(NgramModel.SENTENCE_END);
+        boolean hasCandidate = false;
+        for (int i = 0; i < n; i++) {
+            ids[i + 1] = model.wordId(words[i]);
+            hasCandidate |= SETS_BY_WORD.containsKey(words[i]);
+        }
+        if (!hasCandidate) {
+            return Collections.emptyList();
+        }
+
+        List<Hint> hints = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            String[] set = SETS_BY_WORD.get(words[i]);
+            if (set == null) {
+                continue;
+            }
+            int position = i + 1;
+            int originalId = ids[position];
+            float originalScore = windowScore(ids, position);
+
+            String best = null;
+            float bestScore = originalScore;
+            for (String alternative : set) {
+                if (alternative.equals(words[i])) {
+                    continue;
+                }
+                int alternativeId = model.wordId(alternative);
+                if (alternativeId < 0) {
+                    continue;
+                }
+                ids[position] = alternativeId;
+                float score = windowScore(ids, position);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = alternative;
+                }
+            }
+            ids[position] = originalId;
+
+            if (best != null && bestScore - originalScore >= minGain) {
+                hints.add(new Hint(i, words[i], best, bestScore - originalScore));
+            }
+        }
+        return hints;
+    }
+
+    /**
+     * 受position处单词影响的所有n元组的对数概率之和
+     */
+    private float windowScore(int[] ids, int position) {
+        int order = model.getOrder();
+        int last = Math.min(ids.length - 1, position + order - 1);
+        float score = 0f;
+        for (int end = position + 1; end <= last + 1; end++) {
+            score += model.logProb(ids, Math.max(0, end - order), end);
+        }
+        return score;
+    }
+
+    /**
+     * 易混淆词提示
+     */
+    public static final class Hint {
+        private final int index;
+        private final String word;
+        private final String replacement;
+        private final float gain;
+
+        Hint(int index, String word, String replacement, float gain) {
+            this.index = index;
+            this.word = word;
+            this.replacement = replacement;
+            this.gain = gain;
+        }
+
+        /**
+         * 单词在句子中的下标
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        /**
+         * 建议替换成的单词
+         */
+        public String getReplacement() {
+            return replacement;
+        }
+
+        /**
+         * 替换后句子对数概率的提升（以10为底）
+         */
+        public float getGain() {
+            return gain;
+        }
+    }
+}
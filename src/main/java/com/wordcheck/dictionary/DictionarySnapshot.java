@@ -0,0 +1,700 @@
+package com.wordcheck.dictionary;
+
+import com.wordcheck.dictionary.metric.DistanceMetric;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 词典二进制快照
+ * 单词表、按单词和按ID的哈希索引、展开后的BK树全部存放在一个文件中，
+ * 启动时以只读方式内存映射，查询直接读取映射区，不在堆上重建单词对象和索引。
+ *
+ * <pre>
+ * 文件头（64字节）：magic、格式版本、来源版本（words表最大update_time）、来源行数、
+ *                 单词数、节点数、哈希表容量、各段偏移、度量名称
+ * 单词表：每个单词6个int（id、小写键、单词、含义、分类、难度的字符串偏移，-1表示null）
+ * 单词哈希表、ID哈希表：各hashCapacity个int，存放单词下标+1，0表示空
+ * 节点表：每个节点5个int（单词下标、别名起点、别名数、子边起点、子边数）
+ * 子边表：每条边2个int（距离、子节点下标）
+ * 别名表：单词下标
+ * 字符串区：int字符数 + UTF-16字符
+ * </pre>
+ *
+ * 映射区只做绝对位置读取，可被多个线程同时查询。
+ * 每次生成都写入带版本后缀的新文件（基础文件名.版本号），不覆盖正在映射的旧文件
+ */
+public final class DictionarySnapshot {
+
+    /**
+     * 文件魔数 "WCDS"
+     */
+    private static final int MAGIC = 0x57434453;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+
+    private static final int ENTRY_INTS = 6;
+
+    private static final int NODE_INTS = 5;
+
+    private static final int NO_STRING = -1;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long sourceVersion;
+    private final int sourceCount;
+    private final int entryCount;
+    private final int nodeCount;
+    private final int hashMask;
+    private final int entriesOffset;
+    private final int wordHashOffset;
+    private final int idHashOffset;
+    private final int nodesOffset;
+    private final int edgesOffset;
+    private final int aliasesOffset;
+    private final int stringsOffset;
+    private final String metricName;
+
+    private DictionarySnapshot(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("不是有效的词典快照文件: " + file);
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("不支持的词典快照格式版本: " + buffer.getInt(4));
+        }
+        this.sourceVersion = buffer.getLong(8);
+        this.sourceCount = buffer.getInt(16);
+        this.entryCount = buffer.getInt(20);
+        this.nodeCount = buffer.getInt(24);
+        this.hashMask = buffer.getInt(28) - 1;
+        this.entriesOffset = buffer.getInt(32);
+        this.wordHashOffset = buffer.getInt(36);
+        this.idHashOffset = buffer.getInt(40);
+        this.nodesOffset = buffer.getInt(44);
+        this.edgesOffset = buffer.getInt(48);
+        this.aliasesOffset = buffer.getInt(52);
+        this.stringsOffset = buffer.getInt(56);
+        this.metricName = readString(buffer.getInt(60));
+    }
+
+    /**
+     * 以只读方式映射快照文件
+     *
+     * @param file 快照文件
+     * @return 快照
+     * @throws IOException 读取失败
+     * @throws IllegalStateException 文件格式不正确
+     */
+    public static DictionarySnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DictionarySnapshot(file, mapped);
+        }
+    }
+
+    /**
+     * 查找最新版本的快照文件
+     *
+     * @param file 快照基础路径
+     * @return 版本号最大的快照文件，不存在时返回null
+     * @throws IOException 读取目录失败
+     */
+    public static Path findLatest(Path file) throws IOException {
+        Path latest = null;
+        long latestVersion = -1;
+        for (Path path : listVersions(file)) {
+            long version = versionOf(file, path);
+            if (version > latestVersion) {
+                latest = path;
+                latestVersion = version;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * 删除当前文件以外的快照文件（含旧版未带版本后缀的文件）
+     * 仍被映射的文件在部分系统上无法删除，失败时跳过，下次再删
+     *
+     * @param file 快照基础路径
+     * @param current 正在使用的快照文件
+     * @return 删除的文件数
+     */
+    public static int deleteStale(Path file, Path current) {
+        List<Path> stale = new ArrayList<>();
+        try {
+            stale.addAll(listVersions(file));
+        } catch (IOException e) {
+            return 0;
+        }
+        stale.add(file);
+        int deleted = 0;
+        for (Path path : stale) {
+            if (current != null && path.toAbsolutePath().equals(current.toAbsolutePath())) {
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(path)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                // 仍被映射，下次再删
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 生成新版本的快照文件：先写临时文件再原子改名为新的版本文件，正在映射的旧文件不受影响
+     *
+     * @param file 快照基础路径，实际文件名为基础文件名加版本后缀
+     * @param sourceVersion 来源版本（words表最大update_time的毫秒数）
+     * @param sourceCount 来源行数
+     * @param metric 建议索引使用的距离度量
+     * @param entries 单词列表，小写键相同时保留后出现的
+     * @return 生成的快照文件
+     * @throws IOException 写入失败
+     * @throws IllegalArgumentException 路径没有上级目录
+     */
+    public static Path write(Path file, long sourceVersion, int sourceCount,
+                             DistanceMetric metric, List<Entry> entries) throws IOException {
+        // 临时文件必须与目标在同一目录，原子改名才不会跨文件系统
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent == null || file.getFileName() == null) {
+            throw new IllegalArgumentException("词典快照路径无效: " + file);
+        }
+
+        Map<String, Entry> byKey = new LinkedHashMap<>(entries.size() * 2);
+        for (Entry entry : entries) {
+            if (entry.key != null && !entry.key.isEmpty()) {
+                byKey.remove(entry.key);
+                byKey.put(entry.key, entry);
+            }
+        }
+        List<Entry> unique = new ArrayList<>(byKey.values());
+        Map<String, Integer> indexOfKey = new HashMap<>(unique.size() * 2);
+        for (int i = 0; i < unique.size(); i++) {
+            indexOfKey.put(unique.get(i).key, i);
+        }
+
+        BkTreeSuggestionEngine.Flattened tree =
+                new BkTreeSuggestionEngine(metric, byKey.keySet()).flatten();
+        int nodes = tree.words.length;
+        int aliasCount = 0;
+        for (String[] aliases : tree.aliases) {
+            aliasCount += aliases == null ? 0 : aliases.length;
+        }
+
+        // 字符串区
+        StringPool strings = new StringPool();
+        int metricRef = strings.add(metric.getName());
+        int[] entryInts = new int[unique.size() * ENTRY_INTS];
+        for (int i = 0; i < unique.size(); i++) {
+            Entry entry = unique.get(i);
+            int keyRef = strings.add(entry.key);
+            int base = i * ENTRY_INTS;
+            entryInts[base] = entry.id;
+            entryInts[base + 1] = keyRef;
+            entryInts[base + 2] = entry.key.equals(entry.word) ? keyRef : strings.add(entry.word);
+            entryInts[base + 3] = strings.add(entry.meaning);
+            entryInts[base + 4] = strings.add(entry.category);
+            entryInts[base + 5] = strings.add(entry.difficulty);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(4, unique.size() * 2 - 1)) << 1;
+        int entriesOffset = HEADER_BYTES;
+        int wordHashOffset = entriesOffset + entryInts.length * 4;
+        int idHashOffset = wordHashOffset + capacity * 4;
+        int nodesOffset = idHashOffset + capacity * 4;
+        int edgesOffset = nodesOffset + nodes * NODE_INTS * 4;
+        int aliasesOffset = edgesOffset + tree.edgeTargets.length * 2 * 4;
+        int stringsOffset = aliasesOffset + aliasCount * 4;
+        long total = (long) stringsOffset + strings.size();
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("词典过大，无法生成快照: " + total + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) total);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(sourceVersion).putInt(sourceCount)
+                .putInt(unique.size()).putInt(nodes).putInt(capacity)
+                .putInt(entriesOffset).putInt(wordHashOffset).putInt(idHashOffset).putInt(nodesOffset)
+                .putInt(edgesOffset).putInt(aliasesOffset).putInt(stringsOffset).putInt(metricRef);
+
+        out.position(entriesOffset);
+        for (int value : entryInts) {
+            out.putInt(value);
+        }
+
+        int mask = capacity - 1;
+        for (int i = 0; i < unique.size(); i++) {
+            int slot = mix(hash(unique.get(i).key)) & mask;
+            while (out.getInt(wordHashOffset + slot * 4) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            out.putInt(wordHashOffset + slot * 4, i + 1);
+
+            slot = mix(unique.get(i).id) & mask;
+            while (out.getInt(idHashOffset + slot * 4) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            out.putInt(idHashOffset + slot * 4, i + 1);
+        }
+
+        out.position(nodesOffset);
+        int alias = 0;
+        for (int n = 0; n < nodes; n++) {
+            String[] aliases = tree.aliases[n];
+            int count = aliases == null ? 0 : aliases.length;
+            out.putInt(indexOfKey.get(tree.words[n])).putInt(alias).putInt(count)
+                    .putInt(tree.edgeStarts[n]).putInt(tree.edgeCounts[n]);
+            alias += count;
+        }
+        for (int e = 0; e < tree.edgeTargets.length; e++) {
+            out.putInt(tree.edgeDistances[e]).putInt(tree.edgeTargets[e]);
+        }
+        for (String[] aliases : tree.aliases) {
+            if (aliases != null) {
+                for (String a : aliases) {
+                    out.putInt(indexOfKey.get(a));
+                }
+            }
+        }
+        strings.writeTo(out);
+        out.flip();
+
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Path target = nextVersionFile(file);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 新版本文件路径，版本号取当前毫秒数且大于已有的最大版本号
+     */
+    private static Path nextVersionFile(Path file) throws IOException {
+        long version = System.currentTimeMillis();
+        for (Path path : listVersions(file)) {
+            version = Math.max(version, versionOf(file, path) + 1);
+        }
+        return file.resolveSibling(file.getFileName() + "." + version);
+    }
+
+    /**
+     * 列出基础路径的全部版本文件
+     */
+    private static List<Path> listVersions(Path file) throws IOException {
+        List<Path> versions = new ArrayList<>();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent == null || !Files.isDirectory(parent)) {
+            return versions;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(parent, path -> versionOf(file, path) >= 0)) {
+            for (Path path : stream) {
+                versions.add(path);
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * 解析版本文件的版本号，不是版本文件时返回-1
+     */
+    private static long versionOf(Path file, Path path) {
+        String prefix = file.getFileName() + ".";
+        String name = path.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return -1;
+        }
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return -1;
+            }
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 来源版本（生成快照时words表最大update_time的毫秒数）
+     */
+    public long getSourceVersion() {
+        return sourceVersion;
+    }
+
+    /**
+     * 来源行数（生成快照时words表的行数）
+     */
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    /**
+     * 单词数量
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * 快照文件大小（字节）
+     */
+    public int getFileBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 按小写单词查找下标
+     *
+     * @param key 小写单词
+     * @return 单词下标，不存在时返回-1
+     */
+    public int indexOf(CharSequence key) {
+        int slot = mix(hash(key)) & hashMask;
+        while (true) {
+            int value = buffer.getInt(wordHashOffset + slot * 4);
+            if (value == 0) {
+                return -1;
+            }
+            int index = value - 1;
+            if (equalsString(entryInt(index, 1), key)) {
+                return index;
+            }
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    /**
+     * 按单词ID查找下标
+     *
+     * @param id 单词ID
+     * @return 单词下标，不存在时返回-1
+     */
+    public int indexOfId(int id) {
+        int slot = mix(id) & hashMask;
+        while (true) {
+            int value = buffer.getInt(idHashOffset + slot * 4);
+            if (value == 0) {
+                return -1;
+            }
+            if (entryInt(value - 1, 0) == id) {
+                return value - 1;
+            }
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    /**
+     * 读取单词
+     *
+     * @param index 单词下标
+     * @return 单词
+     */
+    public Entry entry(int index) {
+        if (index < 0 || index >= entryCount) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return new Entry(entryInt(index, 0), readString(entryInt(index, 1)), readString(entryInt(index, 2)),
+                readString(entryInt(index, 3)), readString(entryInt(index, 4)), readString(entryInt(index, 5)));
+    }
+
+    /**
+     * 获取基于映射区BK树的建议引擎，度量必须与生成快照时一致
+     *
+     * @param metric 距离度量
+     * @return 建议引擎
+     */
+    public SuggestionEngine suggestionEngine(DistanceMetric metric) {
+        if (!metric.getName().equals(metricName)) {
+            throw new IllegalArgumentException("快照使用的度量为" + metricName + "，与" + metric.getName() + "不一致");
+        }
+        return new MappedEngine(metric);
+    }
+
+    private int entryInt(int index, int field) {
+        return buffer.getInt(entriesOffset + (index * ENTRY_INTS + field) * 4);
+    }
+
+    private String readString(int ref) {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        int position = stringsOffset + ref;
+        int length = buffer.getInt(position);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(position + 4 + i * 2);
+        }
+        return new String(chars);
+    }
+
+    private boolean equalsString(int ref, CharSequence value) {
+        int position = stringsOffset + ref;
+        int length = buffer.getInt(position);
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getChar(position + 4 + i * 2) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence value) {
+        int h = 0;
+        for (int i = 0; i < value.length(); i++) {
+            h = 31 * h + value.charAt(i);
+        }
+        return h;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 基于映射区的BK树建议引擎，比较距离时直接读取映射区中的字符
+     */
+    private final class MappedEngine implements SuggestionEngine {
+
+        private final DistanceMetric metric;
+
+        MappedEngine(DistanceMetric metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public String getName() {
+            return BkTreeSuggestionEngine.NAME;
+        }
+
+        @Override
+        public DistanceMetric getMetric() {
+            return metric;
+        }
+
+        @Override
+        public int size() {
+            return entryCount;
+        }
+
+        @Override
+        public List<Suggestion> suggest(String word, int maxEdits, int limit) {
+            if (nodeCount == 0 || word == null || word.isEmpty() || limit <= 0) {
+                return Collections.emptyList();
+            }
+            int threshold = maxEdits * metric.unitCost();
+            List<Suggestion> results = new ArrayList<>();
+            MappedString candidate = new MappedString();
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = nodesOffset + stack[--top] * NODE_INTS * 4;
+                int entry = buffer.getInt(node);
+                candidate.reset(entryInt(entry, 1));
+                int d = metric.distance(word, candidate);
+                if (d <= threshold) {
+                    results.add(new Suggestion(candidate.toString(), d));
+                    int aliasStart = buffer.getInt(node + 4);
+                    int aliasCount = buffer.getInt(node + 8);
+                    for (int i = 0; i < aliasCount; i++) {
+                        int aliasEntry = buffer.getInt(aliasesOffset + (aliasStart + i) * 4);
+                        results.add(new Suggestion(readString(entryInt(aliasEntry, 1)), d));
+                    }
+                }
+                int low = d - threshold;
+                int high = d + threshold;
+                int edgeStart = buffer.getInt(node + 12);
+                int edgeCount = buffer.getInt(node + 16);
+                for (int i = 0; i < edgeCount; i++) {
+                    int edge = edgesOffset + (edgeStart + i) * 8;
+                    int childDistance = buffer.getInt(edge);
+                    if (childDistance >= low && childDistance <= high) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = buffer.getInt(edge + 4);
+                    }
+                }
+            }
+            results.sort(Suggestion.comparator(word));
+            return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+        }
+
+        @Override
+        public long estimateMemoryBytes() {
+            // 索引位于映射区，不占用堆内存
+            return 0;
+        }
+    }
+
+    /**
+     * 指向映射区字符串的可复用字符序列
+     */
+    private final class MappedString implements CharSequence {
+
+        private int position;
+        private int length;
+
+        void reset(int ref) {
+            position = stringsOffset + ref + 4;
+            length = buffer.getInt(position - 4);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return buffer.getChar(position + index * 2);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = buffer.getChar(position + i * 2);
+            }
+            return new String(chars);
+        }
+    }
+
+    /**
+     * 快照中的单词
+     */
+    public static final class Entry {
+        private final int id;
+        private final String key;
+        private final String word;
+        private final String meaning;
+        private final String category;
+        private final String difficulty;
+
+        /**
+         * @param id 单词ID
+         * @param key 小写单词，用于查询和建议
+         * @param word 原始单词
+         * @param meaning 含义
+         * @param category 分类
+         * @param difficulty 难度
+         */
+        public Entry(int id, String key, String word, String meaning, String category, String difficulty) {
+            this.id = id;
+            this.key = key;
+            this.word = word;
+            this.meaning = meaning;
+            this.category = category;
+            this.difficulty = difficulty;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public String getMeaning() {
+            return meaning;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getDifficulty() {
+            return difficulty;
+        }
+    }
+
+    /**
+     * 写入时使用的字符串区，相同字符串只保存一份
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int size;
+
+        int add(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer ref = refs.get(value);
+            if (ref == null) {
+                ref = size;
+                refs.put(value, ref);
+                values.add(value);
+                size += 4 + value.length() * 2;
+            }
+            return ref;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(ByteBuffer out) {
+            for (String value : values) {
+                out.putInt(value.length());
+                for (int i = 0; i < value.length(); i++) {
+                    out.putChar(value.charAt(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.wordcheck.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 倒排索引
+ * 英文按单词切分并转为小写，中文按单字和相邻两字切分，查询时中文只用两字词以提高准确度。
+ * 结果按BM25打分排序。文档删除时只打标记，标记过多时整理倒排表。
+ * 非线程安全，由调用方加锁
+ */
+public final class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    /**
+     * 已删除文档数超过该值且超过有效文档数时整理倒排表
+     */
+    private static final int COMPACT_THRESHOLD = 64;
+
+    /**
+     * 文档ID，已删除的位置为null
+     */
+    private String[] docIds = new String[16];
+
+    private int[] docLengths = new int[16];
+
+    /**
+     * 已使用的文档位置数（含已删除）
+     */
+    private int slotCount;
+
+    private int liveCount;
+
+    private long totalLength;
+
+    private final Map<String, Integer> slotsById = new HashMap<>();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * 添加文档，ID已存在时替换
+     *
+     * @param docId 文档ID
+     * @param text 文档内容
+     */
+    public void add(String docId, String text) {
+        remove(docId);
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = forEachTerm(text, false, term -> {
+            int[] count = frequencies.get(term);
+            if (count == null) {
+                frequencies.put(term, new int[]{1});
+            } else {
+                count[0]++;
+            }
+        });
+
+        if (slotCount == docIds.length) {
+            docIds = Arrays.copyOf(docIds, slotCount * 2);
+            docLengths = Arrays.copyOf(docLengths, slotCount * 2);
+        }
+        int slot = slotCount++;
+        docIds[slot] = docId;
+        docLengths[slot] = length;
+        slotsById.put(docId, slot);
+        liveCount++;
+        totalLength += length;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new Postings()).add(slot, entry.getValue()[0]);
+        }
+    }
+
+    /**
+     * 删除文档
+     *
+     * @param docId 文档ID
+     * @return 文档是否存在
+     */
+    public boolean remove(String docId) {
+        Integer slot = slotsById.remove(docId);
+        if (slot == null) {
+            return false;
+        }
+        docIds[slot] = null;
+        liveCount--;
+        totalLength -= docLengths[slot];
+        int dead = slotCount - liveCount;
+        if (dead > COMPACT_THRESHOLD && dead > liveCount) {
+            compact();
+        }
+        return true;
+    }
+
+    public boolean contains(String docId) {
+        return slotsById.containsKey(docId);
+    }
+
+    /**
+     * 文档数
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * 不同词项数
+     */
+    public int termCount() {
+        return postings.size();
+    }
+
+    /**
+     * 查询
+     *
+     * @param query 查询文本
+     * @param limit 最多返回数量
+     * @return 命中文档，按相关度从高到低排序
+     */
+    public List<Hit> search(String query, int limit) {
+        if (liveCount == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        forEachTerm(query, true, terms::add);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        float averageLength = Math.max(1f, (float) totalLength / liveCount);
+        float[] scores = new float[slotCount];
+        int[] touched = new int[slotCount];
+        int touchedCount = 0;
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            int documentFrequency = 0;
+            for (int i = 0; i < list.size; i++) {
+                if (docIds[list.slots[i]] != null) {
+                    documentFrequency++;
+                }
+            }
+            if (documentFrequency == 0) {
+                continue;
+            }
+            float idf = (float) Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.slots[i];
+                if (docIds[slot] == null) {
+                    continue;
+                }
+                int tf = list.frequencies[i];
+                float norm = K1 * (1 - B + B * docLengths[slot] / averageLength);
+                if (scores[slot] == 0f) {
+                    touched[touchedCount++] = slot;
+                }
+                scores[slot] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, Math.max(1, touchedCount)),
+                (a, b) -> Float.compare(a.score, b.score));
+        for (int i = 0; i < touchedCount; i++) {
+            int slot = touched[i];
+            if (top.size() < limit) {
+                top.add(new Hit(docIds[slot], scores[slot]));
+            } else if (scores[slot] > top.peek().score) {
+                top.poll();
+                top.add(new Hit(docIds[slot], scores[slot]));
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort((a, b) -> Float.compare(b.score, a.score));
+        return hits;
+    }
+
+    /**
+     * 估算占用内存（字节）
+     */
+    public long estimateMemoryBytes() {
+        long bytes = 64L + docIds.length * 12L + slotsById.size() * 48L;
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            bytes += 48 + BkTreeSuggestionEngine.estimateString(entry.getKey()) + 32 + entry.getValue().slots.length * 8L;
+        }
+        return bytes;
+    }
+
+    /**
+     * 去掉已删除文档，重新编号
+     */
+    private void compact() {
+        int[] remap = new int[slotCount];
+        int next = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (docIds[slot] != null) {
+                remap[slot] = next;
+                docIds[next] = docIds[slot];
+                docLengths[next] = docLengths[slot];
+                slotsById.put(docIds[next], next);
+                next++;
+            } else {
+                remap[slot] = -1;
+            }
+        }
+        Arrays.fill(docIds, next, slotCount, null);
+        slotCount = next;
+
+        List<String> emptyTerms = new ArrayList<>();
+        for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+            Postings list = entry.getValue();
+            int size = 0;
+            for (int i = 0; i < list.size; i++) {
+                int slot = remap[list.slots[i]];
+                if (slot >= 0) {
+                    list.slots[size] = slot;
+                    list.frequencies[size] = list.frequencies[i];
+                    size++;
+                }
+            }
+            list.size = size;
+            if (size == 0) {
+                emptyTerms.add(entry.getKey());
+            }
+        }
+        for (String term : emptyTerms) {
+            postings.remove(term);
+        }
+    }
+
+    /**
+     * 切分词项
+     *
+     * @param text 文本
+     * @param query 是否为查询：查询时连续两个以上汉字只取两字词
+     * @param consumer 词项
+     * @return 词项数
+     */
+    static int forEachTerm(String text, boolean query, TermConsumer consumer) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        String normalized = AnalyzedText.normalize(text);
+        int n = normalized.length();
+        int count = 0;
+        int i = 0;
+        while (i < n) {
+            char c = normalized.charAt(i);
+            if (isWordChar(c)) {
+                int start = i;
+                while (i < n && isWordChar(normalized.charAt(i))) {
+                    i++;
+                }
+                consumer.accept(normalized.substring(start, i).toLowerCase(Locale.ROOT));
+                count++;
+            } else if (isHan(c)) {
+                int start = i;
+                while (i < n && isHan(normalized.charAt(i))) {
+                    i++;
+                }
+                int length = i - start;
+                if (!query || length == 1) {
+                    for (int k = start; k < i; k++) {
+                        consumer.accept(String.valueOf(normalized.charAt(k)));
+                        count++;
+                    }
+                }
+                for (int k = start; k + 1 < i; k++) {
+                    consumer.accept(normalized.substring(k, k + 2));
+                    count++;
+                }
+            } else {
+                i++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isHan(char c) {
+        return (c >= '一' && c <= '鿿') || (c >= '㐀' && c <= '䶿') || (c >= '豈' && c <= '﫿');
+    }
+
+    /**
+     * 词项回调
+     */
+    interface TermConsumer {
+        void accept(String term);
+    }
+
+    /**
+     * 一个词项的倒排表：文档位置和词频
+     */
+    private static final class Postings {
+        int[] slots = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    /**
+     * 命中文档
+     */
+    public static final class Hit {
+        private final String docId;
+        private final float score;
+
+        Hit(String docId, float score) {
+            this.docId = docId;
+            this.score = score;
+        }
+
+        public String getDocId() {
+            return docId;
+        }
+
+        /**
+         * BM25相关度
+         */
+        public float getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.wordcheck.dictionary;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 英语词形还原
+ * 先查不规则词形表（went→go、children→child、better→good），
+ * 再按后缀规则（复数、过去式、进行时、比较级、副词）生成候选词干，返回第一个在词典中的候选。
+ * 有不规则变化的原形不再接受对应的规则变化（goed、childs、gooder），这类过度规则化是学习者最常见的错误。
+ * 候选写入按线程复用的字符缓冲区，查询过程中不创建字符串，只有命中时返回的结果才是字符串
+ */
+public final class Lemmatizer {
+
+    /**
+     * 词典查询接口
+     */
+    public interface Lexicon {
+
+        /**
+         * 判断小写单词是否在词典中
+         * @param word 小写单词，可能是复用的缓冲区，调用方不能保存引用
+         * @return 是否存在
+         */
+        boolean contains(CharSequence word);
+    }
+
+    /**
+     * 词干最短长度，避免"is"去掉"s"后变成"i"之类的误判
+     */
+    private static final int MIN_STEM = 2;
+
+    /**
+     * 不规则动词：屈折形式, 原形
+     */
+    private static final String[] IRREGULAR_VERBS = {
+            // be / have / do
+            "am", "be", "is", "be", "are", "be", "was", "be", "were", "be", "been", "be", "being", "be",
+            "has", "have", "had", "have", "having", "have",
+            "does", "do", "did", "do", "done", "do", "doing", "do",
+            // 不规则动词
+            "arose", "arise", "arisen", "arise", "awoke", "awake", "awoken", "awake",
+            "bore", "bear", "borne", "bear", "beat", "beat", "beaten", "beat",
+            "became", "become", "began", "begin", "begun", "begin", "bent", "bend",
+            "bet", "bet", "bit", "bite", "bitten", "bite", "bled", "bleed", "blew", "blow", "blown", "blow",
+            "broke", "break", "broken", "break", "bred", "breed", "brought", "bring",
+            "built", "build", "burnt", "burn", "bought", "buy", "caught", "catch",
+            "chose", "choose", "chosen", "choose", "came", "come", "cost", "cost", "crept", "creep",
+            "cut", "cut", "dealt", "deal", "dug", "dig", "drew", "draw", "drawn", "draw",
+            "dreamt", "dream", "drank", "drink", "drunk", "drink", "drove", "drive", "driven", "drive",
+            "ate", "eat", "eaten", "eat", "fell", "fall", "fallen", "fall", "fed", "feed", "felt", "feel",
+            "fought", "fight", "found", "find", "fled", "flee", "flew", "fly", "flown", "fly", "flies", "fly",
+            "forbade", "forbid", "forbidden", "forbid", "forgot", "forget", "forgotten", "forget",
+            "forgave", "forgive", "forgiven", "forgive", "froze", "freeze", "frozen", "freeze",
+            "got", "get", "gotten", "get", "gave", "give", "given", "give",
+            "went", "go", "gone", "go", "goes", "go", "ground", "grind", "grew", "grow", "grown", "grow",
+            "hung", "hang", "heard", "hear", "hid", "hide", "hidden", "hide", "hit", "hit",
+            "held", "hold", "hurt", "hurt", "kept", "keep", "knelt", "kneel", "knew", "know", "known", "know",
+            "laid", "lay", "led", "lead", "leant", "lean", "leapt", "leap", "learnt", "learn",
+            "left", "leave", "lent", "lend", "let", "let", "lay", "lie", "lain", "lie", "lit", "light",
+            "lost", "lose", "made", "make", "meant", "mean", "met", "meet", "paid", "pay", "put", "put",
+            "quit", "quit", "read", "read", "rode", "ride", "ridden", "ride", "rang", "ring", "rung", "ring",
+            "rose", "rise", "risen", "rise", "ran", "run", "said", "say", "saw", "see", "seen", "see",
+            "sought", "seek", "sold", "sell", "sent", "send", "set", "set", "sewn", "sew",
+            "shook", "shake", "shaken", "shake", "shone", "shine", "shot", "shoot", "shown", "show",
+            "shrank", "shrink", "shrunk", "shrink", "shut", "shut", "sang", "sing", "sung", "sing",
+            "sank", "sink", "sunk", "sink", "sat", "sit", "slept", "sleep", "slid", "slide",
+            "spoke", "speak", "spoken", "speak", "sped", "speed", "spelt", "spell", "spent", "spend",
+            "spilt", "spill", "spun", "spin", "spat", "spit", "split", "split", "spread", "spread",
+            "sprang", "spring", "sprung", "spring", "stood", "stand", "stole", "steal", "stolen", "steal",
+            "stuck", "stick", "stung", "sting", "stank", "stink", "struck", "strike", "strove", "strive",
+            "swore", "swear", "sworn", "swear", "swept", "sweep", "swam", "swim", "swum", "swim",
+            "swung", "swing", "took", "take", "taken", "take", "taught", "teach",
+            "tore", "tear", "torn", "tear", "told", "tell", "thought", "think", "threw", "throw", "thrown", "throw",
+            "understood", "understand", "woke", "wake", "woken", "wake", "wore", "wear", "worn", "wear",
+            "wove", "weave", "woven", "weave", "wept", "weep", "won", "win", "wound", "wind",
+            "withdrew", "withdraw", "withdrawn", "withdraw", "wrote", "write", "written", "write",
+            "mistook", "mistake", "mistaken", "mistake", "overcame", "overcome",
+            "undertook", "undertake", "undertaken", "undertake", "upset", "upset"
+    };
+
+    /**
+     * 不规则复数：复数, 单数
+     */
+    private static final String[] IRREGULAR_PLURALS = {
+            "men", "man", "women", "woman", "children", "child", "people", "person",
+            "feet", "foot", "teeth", "tooth", "geese", "goose", "mice", "mouse", "lice", "louse",
+            "oxen", "ox", "dice", "die", "pence", "penny",
+            "leaves", "leaf", "wives", "wife", "knives", "knife", "lives", "life", "halves", "half",
+            "wolves", "wolf", "shelves", "shelf", "selves", "self", "thieves", "thief", "loaves", "loaf",
+            "calves", "calf", "elves", "elf", "scarves", "scarf", "hooves", "hoof",
+            "analyses", "analysis", "bases", "basis", "crises", "crisis", "theses", "thesis",
+            "hypotheses", "hypothesis", "diagnoses", "diagnosis", "parentheses", "parenthesis",
+            "criteria", "criterion", "phenomena", "phenomenon", "data", "datum", "media", "medium",
+            "bacteria", "bacterium", "curricula", "curriculum", "cacti", "cactus", "fungi", "fungus",
+            "nuclei", "nucleus", "stimuli", "stimulus", "syllabi", "syllabus", "alumni", "alumnus",
+            "indices", "index", "appendices", "appendix", "matrices", "matrix", "vertices", "vertex",
+            "potatoes", "potato", "tomatoes", "tomato", "heroes", "hero", "echoes", "echo"
+    };
+
+    /**
+     * 不规则比较级、最高级：屈折形式, 原形
+     */
+    private static final String[] IRREGULAR_COMPARATIVES = {
+            "better", "good", "best", "good", "worse", "bad", "worst", "bad",
+            "more", "many", "most", "many", "less", "little", "least", "little",
+            "further", "far", "furthest", "far", "farther", "far", "farthest", "far",
+            "elder", "old", "eldest", "old"
+    };
+
+    /**
+     * 不规则变化与规则变化并存的原形（burned/burnt、indexes/indices、older/elder），仍接受规则变化
+     */
+    private static final String[] REGULAR_ALSO = {
+            "burn", "dream", "hang", "kneel", "lean", "leap", "learn", "lie", "light", "quit", "ring",
+            "sew", "shine", "show", "speed", "spell", "spill", "strive", "wake", "weave", "wind",
+            "appendix", "cactus", "curriculum", "datum", "die", "fungus", "hoof", "index", "matrix",
+            "medium", "penny", "person", "scarf", "syllabus", "vertex",
+            "little", "old"
+    };
+
+    /**
+     * 不规则词形哈希表（开放寻址），键与值交替存放
+     */
+    private final String[] table;
+
+    private final int mask;
+
+    /**
+     * 有不规则过去式、过去分词的动词原形，不接受-ed
+     */
+    private final CharSequenceSet irregularVerbs;
+
+    /**
+     * 有不规则复数的名词单数，不接受-s/-es
+     */
+    private final CharSequenceSet irregularPlurals;
+
+    /**
+     * 有不规则比较级的形容词原形，不接受-er/-est
+     */
+    private final CharSequenceSet irregularComparatives;
+
+    /**
+     * 按线程复用的候选缓冲区
+     */
+    private final ThreadLocal<Candidate> candidates = ThreadLocal.withInitial(Candidate::new);
+
+    public Lemmatizer() {
+        int pairs = (IRREGULAR_VERBS.length + IRREGULAR_PLURALS.length + IRREGULAR_COMPARATIVES.length) / 2;
+        int capacity = Integer.highestOneBit(pairs * 2 - 1) << 1;
+        this.table = new String[capacity * 2];
+        this.mask = capacity - 1;
+        put(IRREGULAR_VERBS);
+        put(IRREGULAR_PLURALS);
+        put(IRREGULAR_COMPARATIVES);
+
+        Set<String> regularAlso = new HashSet<>(Arrays.asList(REGULAR_ALSO));
+        this.irregularVerbs = bases(IRREGULAR_VERBS, regularAlso);
+        this.irregularPlurals = bases(IRREGULAR_PLURALS, regularAlso);
+        this.irregularComparatives = bases(IRREGULAR_COMPARATIVES, regularAlso);
+    }
+
+    private void put(String[] forms) {
+        for (int i = 0; i < forms.length; i += 2) {
+            String form = forms[i];
+            int slot = hash(form) & mask;
+            while (table[slot * 2] != null && !table[slot * 2].equals(form)) {
+                slot = (slot + 1) & mask;
+            }
+            // 同一屈折形式出现多次时保留先出现的
+            if (table[slot * 2] == null) {
+                table[slot * 2] = form;
+                table[slot * 2 + 1] = forms[i + 1];
+            }
+        }
+    }
+
+    private static CharSequenceSet bases(String[] forms, Set<String> regularAlso) {
+        Set<String> bases = new HashSet<>();
+        for (int i = 1; i < forms.length; i += 2) {
+            if (!regularAlso.contains(forms[i])) {
+                bases.add(forms[i]);
+            }
+        }
+        return new CharSequenceSet(bases);
+    }
+
+    /**
+     * 查询不规则词形的原形
+     *
+     * @param word 小写单词
+     * @return 原形，不是不规则词形时返回null
+     */
+    public String irregularBase(CharSequence word) {
+        int slot = hash(word) & mask;
+        String key;
+        while ((key = table[slot * 2]) != null) {
+            if (contentEquals(key, word)) {
+                return table[slot * 2 + 1];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 还原为词典中存在的原形
+     *
+     * @param word 小写单词
+     * @param lexicon 词典
+     * @return 词典中的原形，没有可用原形时返回null
+     */
+    public String lemmatize(CharSequence word, Lexicon lexicon) {
+        String irregular = irregularBase(word);
+        if (irregular != null && lexicon.contains(irregular)) {
+            return irregular;
+        }
+
+        int n = word.length();
+        if (n <= MIN_STEM + 1) {
+            return null;
+        }
+
+        Candidate c = candidates.get();
+        c.load(word);
+        char last = word.charAt(n - 1);
+
+        if (last == 's') {
+            c.exclude(irregularPlurals);
+            // studies → study, ties → tie
+            if (endsWith(word, "ies")) {
+                if (c.tryReplace(3, "y", lexicon) || c.tryReplace(3, "ie", lexicon)) {
+                    return c.toString();
+                }
+            }
+            // wolves → wolf, knives → knife（规则表之外的情况）
+            if (endsWith(word, "ves")) {
+                if (c.tryReplace(3, "f", lexicon) || c.tryReplace(3, "fe", lexicon)) {
+                    return c.toString();
+                }
+            }
+            // boxes → box, watches → watch, goes → go
+            if (endsWith(word, "es") && c.tryReplace(2, "", lexicon)) {
+                return c.toString();
+            }
+            // cats → cat, makes → make
+            if (!endsWith(word, "ss") && c.tryReplace(1, "", lexicon)) {
+                return c.toString();
+            }
+            return null;
+        }
+
+        if (endsWith(word, "ed")) {
+            c.exclude(irregularVerbs);
+            // studied → study
+            if (endsWith(word, "ied") && c.tryReplace(3, "y", lexicon)) {
+                return c.toString();
+            }
+            // walked → walk, liked → like, stopped → stop
+            if (c.tryStem(2, lexicon)) {
+                return c.toString();
+            }
+            return null;
+        }
+
+        if (endsWith(word, "ing")) {
+            c.exclude(null);
+            // lying → lie
+            if (endsWith(word, "ying") && c.tryReplace(4, "ie", lexicon)) {
+                return c.toString();
+            }
+            // walking → walk, making → make, running → run
+            if (c.tryStem(3, lexicon)) {
+                return c.toString();
+            }
+            return null;
+        }
+
+        if (endsWith(word, "est")) {
+            c.exclude(irregularComparatives);
+            // happiest → happy, fastest → fast, latest → late, biggest → big
+            if ((endsWith(word, "iest") && c.tryReplace(4, "y", lexicon))
+                    || c.tryStem(3, lexicon)) {
+                return c.toString();
+            }
+            return null;
+        }
+
+        if (endsWith(word, "er")) {
+            c.exclude(irregularComparatives);
+            // happier → happy, faster → fast, later → late, bigger → big
+            if ((endsWith(word, "ier") && c.tryReplace(3, "y", lexicon))
+                    || c.tryStem(2, lexicon)) {
+                return c.toString();
+            }
+            return null;
+        }
+
+        if (endsWith(word, "ly")) {
+            c.exclude(null);
+            // happily → happy, quickly → quick, gently → gentle
+            if ((endsWith(word, "ily") && c.tryReplace(3, "y", lexicon))
+                    || c.tryReplace(2, "", lexicon) || c.tryReplace(1, "e", lexicon)) {
+                return c.toString();
+            }
+            return null;
+        }
+
+        return null;
+    }
+
+    private static boolean endsWith(CharSequence word, String suffix) {
+        int offset = word.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (word.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contentEquals(String key, CharSequence word) {
+        if (key.length() != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence value) {
+        int h = 0;
+        for (int i = 0; i < value.length(); i++) {
+            h = 31 * h + value.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 候选词干缓冲区：source保存原词，chars保存当前候选
+     */
+    private static final class Candidate implements CharSequence {
+        private char[] source = new char[32];
+        private int sourceLength;
+        private char[] chars = new char[32];
+        private int length;
+
+        /**
+         * 当前后缀规则不接受的原形，为null时不排除
+         */
+        private CharSequenceSet excluded;
+
+        void exclude(CharSequenceSet excluded) {
+            this.excluded = excluded;
+        }
+
+        void load(CharSequence word) {
+            sourceLength = word.length();
+            if (source.length < sourceLength + 2) {
+                source = new char[sourceLength + 2];
+                chars = new char[sourceLength + 2];
+            }
+            for (int i = 0; i < sourceLength; i++) {
+                source[i] = word.charAt(i);
+            }
+        }
+
+        /**
+         * 去掉-ed/-ing/-er/-est后还原词干：直接去掉、补回e、去掉双写辅音。
+         * 词干为"辅音+元音+辅音"结尾时（hoped、hoping）原形通常以不发音的e结尾，先尝试补e
+         */
+        boolean tryStem(int strip, Lexicon lexicon) {
+            int stem = sourceLength - strip;
+            if (stem >= 2 && endsWithVowelConsonant(stem)) {
+                if (tryReplace(strip, "e", lexicon) || tryReplace(strip, "", lexicon)) {
+                    return true;
+                }
+            } else if (tryReplace(strip, "", lexicon) || tryReplace(strip, "e", lexicon)) {
+                return true;
+            }
+            return tryUndouble(strip, lexicon);
+        }
+
+        /**
+         * 去掉末尾strip个字符并追加replacement，结果过短、被排除或不在词典中时返回false
+         */
+        boolean tryReplace(int strip, String replacement, Lexicon lexicon) {
+            int stem = sourceLength - strip;
+            if (stem < 1 || stem + replacement.length() < MIN_STEM) {
+                return false;
+            }
+            System.arraycopy(source, 0, chars, 0, stem);
+            for (int i = 0; i < replacement.length(); i++) {
+                chars[stem + i] = replacement.charAt(i);
+            }
+            length = stem + replacement.length();
+            return accepts(lexicon);
+        }
+
+        /**
+         * 去掉后缀后词干以双写辅音结尾时去掉一个（stopped → stop）
+         */
+        boolean tryUndouble(int strip, Lexicon lexicon) {
+            int stem = sourceLength - strip;
+            if (stem < MIN_STEM + 1) {
+                return false;
+            }
+            char c = source[stem - 1];
+            if (c != source[stem - 2] || isVowel(c)) {
+                return false;
+            }
+            System.arraycopy(source, 0, chars, 0, stem - 1);
+            length = stem - 1;
+            return accepts(lexicon);
+        }
+
+        private boolean accepts(Lexicon lexicon) {
+            return (excluded == null || !excluded.contains(this)) && lexicon.contains(this);
+        }
+
+        private boolean endsWithVowelConsonant(int stem) {
+            char last = source[stem - 1];
+            if (isVowel(last) || last == 'w' || last == 'x' || last == 'y') {
+                return false;
+            }
+            if (!isVowel(source[stem - 2])) {
+                return false;
+            }
+            return stem == 2 || !isVowel(source[stem - 3]);
+        }
+
+        private static boolean isVowel(char c) {
+            return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
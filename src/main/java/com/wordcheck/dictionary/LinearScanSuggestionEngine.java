@@ -0,0 +1,68 @@
+package com.wordcheck.dictionary;
+
+import com.wordcheck.dictionary.metric.DistanceMetric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 线性扫描建议引擎
+ * 逐个计算与词典中所有单词的距离，内存占用最小，
+ * 作为BK树等索引的对照基准，小词典下也可直接使用
+ */
+public class LinearScanSuggestionEngine implements SuggestionEngine {
+
+    public static final String NAME = "linear";
+
+    private final DistanceMetric metric;
+
+    private final String[] words;
+
+    public LinearScanSuggestionEngine(DistanceMetric metric, Collection<String> words) {
+        this.metric = metric;
+        this.words = words.toArray(new String[0]);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public DistanceMetric getMetric() {
+        return metric;
+    }
+
+    @Override
+    public int size() {
+        return words.length;
+    }
+
+    @Override
+    public List<Suggestion> suggest(String word, int maxEdits, int limit) {
+        if (word == null || word.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int threshold = maxEdits * metric.unitCost();
+        List<Suggestion> results = new ArrayList<>();
+        for (String candidate : words) {
+            int d = metric.distance(word, candidate);
+            if (d <= threshold) {
+                results.add(new Suggestion(candidate, d));
+            }
+        }
+        results.sort(Suggestion.comparator(word));
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    @Override
+    public long estimateMemoryBytes() {
+        long bytes = 16 + words.length * 4L;
+        for (String word : words) {
+            bytes += BkTreeSuggestionEngine.estimateString(word);
+        }
+        return bytes;
+    }
+}
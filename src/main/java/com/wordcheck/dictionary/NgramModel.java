@@ -0,0 +1,382 @@
+package com.wordcheck.dictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * n元语言模型（Katz回退）
+ * 从ARPA格式文件加载，单词映射为整数ID，n元组按ID拼成long键，
+ * 概率和回退权重保存在以long为键的开放寻址表中，不创建装箱对象
+ */
+public final class NgramModel {
+
+    public static final String SENTENCE_START = "<s>";
+
+    public static final String SENTENCE_END = "</s>";
+
+    public static final String UNKNOWN = "<unk>";
+
+    /**
+     * 每个单词ID占用的位数，三元组正好放进一个long
+     */
+    private static final int ID_BITS = 21;
+
+    private static final int MAX_VOCABULARY = (1 << ID_BITS) - 1;
+
+    private static final int MAX_ORDER = 3;
+
+    /**
+     * 词表中没有<unk>时未知单词使用的对数概率
+     */
+    private static final float UNKNOWN_FLOOR = -7.0f;
+
+    private final int order;
+
+    private final Vocabulary vocabulary;
+
+    /**
+     * tables[n - 1]保存n元组
+     */
+    private final LongFloatTable[] tables;
+
+    private final float unknownLogProb;
+
+    private NgramModel(int order, Vocabulary vocabulary, LongFloatTable[] tables) {
+        this.order = order;
+        this.vocabulary = vocabulary;
+        this.tables = tables;
+        int unknownId = vocabulary.id(UNKNOWN);
+        this.unknownLogProb = unknownId >= 0 ? tables[0].prob(unknownId) : UNKNOWN_FLOOR;
+    }
+
+    /**
+     * 加载ARPA格式的模型文件，单词统一转为小写，最多使用三元组
+     *
+     * @param file 模型文件
+     * @return 模型
+     * @throws IOException 读取失败
+     * @throws IllegalArgumentException 文件格式不正确
+     */
+    public static NgramModel load(Path file) throws IOException {
+        int[] counts = new int[MAX_ORDER];
+        int order = 0;
+        Vocabulary vocabulary = null;
+        LongFloatTable[] tables = new LongFloatTable[MAX_ORDER];
+        int section = -1;
+        int[] ids = new int[MAX_ORDER];
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.equals("\\data\\")) {
+                    section = 0;
+                    continue;
+                }
+                if (line.equals("\\end\\")) {
+                    break;
+                }
+                if (line.startsWith("\\") && line.endsWith("-grams:")) {
+                    section = Integer.parseInt(line.substring(1, line.indexOf('-')));
+                    if (section == 1) {
+                        if (counts[0] <= 0) {
+                            throw new IllegalArgumentException("ARPA文件缺少\\data\\段: " + file);
+                        }
+                        order = 0;
+                        for (int n = 0; n < MAX_ORDER; n++) {
+                            if (counts[n] > 0) {
+                                order = n + 1;
+                                tables[n] = new LongFloatTable(counts[n]);
+                            }
+                        }
+                        if (counts[0] > MAX_VOCABULARY) {
+                            throw new IllegalArgumentException("词表过大: " + counts[0]);
+                        }
+                        vocabulary = new Vocabulary(counts[0]);
+                    }
+                    continue;
+                }
+
+                if (section == 0) {
+                    // ngram 2=12345
+                    if (line.startsWith("ngram ")) {
+                        int eq = line.indexOf('=');
+                        int n = Integer.parseInt(line.substring(6, eq).trim());
+                        if (n <= MAX_ORDER) {
+                            counts[n - 1] = Integer.parseInt(line.substring(eq + 1).trim());
+                        }
+                    }
+                    continue;
+                }
+                if (section < 1 || section > MAX_ORDER || vocabulary == null) {
+                    continue;
+                }
+
+                String[] parts = line.split("\\s+");
+                if (parts.length < section + 1) {
+                    throw new IllegalArgumentException("第" + lineNumber + "行格式错误: " + line);
+                }
+                float prob = Float.parseFloat(parts[0]);
+                float backoff = parts.length > section + 1 ? Float.parseFloat(parts[section + 1]) : 0f;
+                boolean known = true;
+                for (int k = 0; k < section; k++) {
+                    String word = parts[k + 1].toLowerCase(Locale.ROOT);
+                    ids[k] = section == 1 ? vocabulary.add(word) : vocabulary.id(word);
+                    if (ids[k] < 0) {
+                        known = false;
+                    }
+                }
+                if (known) {
+                    tables[section - 1].put(key(ids, 0, section), prob, backoff);
+                }
+            }
+        }
+
+        if (vocabulary == null || order == 0) {
+            throw new IllegalArgumentException("不是有效的ARPA模型文件: " + file);
+        }
+        return new NgramModel(order, vocabulary, tables);
+    }
+
+    /**
+     * 模型阶数
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * 词表大小
+     */
+    public int getVocabularySize() {
+        return vocabulary.size();
+    }
+
+    /**
+     * 各阶n元组数量之和
+     */
+    public long getNgramCount() {
+        long count = 0;
+        for (int n = 0; n < order; n++) {
+            count += tables[n].size();
+        }
+        return count;
+    }
+
+    /**
+     * 估算占用内存（字节）
+     */
+    public long estimateMemoryBytes() {
+        long bytes = vocabulary.estimateMemoryBytes();
+        for (int n = 0; n < order; n++) {
+            bytes += tables[n].estimateMemoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 查询单词ID
+     *
+     * @param word 小写单词
+     * @return 单词ID，不在词表中时返回-1
+     */
+    public int wordId(CharSequence word) {
+        return vocabulary.id(word);
+    }
+
+    /**
+     * 计算ids[end - 1]在前文ids[start .. end - 2]下的对数概率（以10为底），n元组不存在时逐级回退
+     *
+     * @param ids 单词ID，-1表示未知单词
+     * @param start 前文起点
+     * @param end 目标单词之后的位置
+     * @return 对数概率
+     */
+    public float logProb(int[] ids, int start, int end) {
+        int n = Math.min(end - start, order);
+        start = end - n;
+        float backoff = 0f;
+        while (n > 1) {
+            if (known(ids, start, end)) {
+                long key = key(ids, start, n);
+                if (tables[n - 1].contains(key)) {
+                    return backoff + tables[n - 1].prob(key);
+                }
+            }
+            // n元组不存在时回退到更短的前文，并累加当前前文的回退权重
+            if (known(ids, start, end - 1)) {
+                backoff += tables[n - 2].backoff(key(ids, start, n - 1));
+            }
+            start++;
+            n--;
+        }
+        int target = ids[end - 1];
+        if (target < 0 || !tables[0].contains(target)) {
+            return backoff + unknownLogProb;
+        }
+        return backoff + tables[0].prob(target);
+    }
+
+    private static boolean known(int[] ids, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (ids[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long key(int[] ids, int start, int n) {
+        long key = 0;
+        for (int i = start; i < start + n; i++) {
+            key = (key << ID_BITS) | ids[i];
+        }
+        return key;
+    }
+
+    /**
+     * 以long为键、两个float为值的开放寻址表
+     */
+    private static final class LongFloatTable {
+        private final long[] keys;
+        private final float[] probs;
+        private final float[] backoffs;
+        private final int mask;
+        private int size;
+
+        LongFloatTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            probs = new float[capacity];
+            backoffs = new float[capacity];
+            mask = capacity - 1;
+        }
+
+        void put(long key, float prob, float backoff) {
+            // 存储key + 1，0表示空槽
+            long stored = key + 1;
+            int slot = slot(stored);
+            if (keys[slot] == 0) {
+                if (size + 1 > mask) {
+                    throw new IllegalArgumentException("n元组数量超过文件头中声明的数量");
+                }
+                keys[slot] = stored;
+                size++;
+            }
+            probs[slot] = prob;
+            backoffs[slot] = backoff;
+        }
+
+        boolean contains(long key) {
+            return keys[slot(key + 1)] != 0;
+        }
+
+        float prob(long key) {
+            int slot = slot(key + 1);
+            return keys[slot] != 0 ? probs[slot] : 0f;
+        }
+
+        float backoff(long key) {
+            int slot = slot(key + 1);
+            return keys[slot] != 0 ? backoffs[slot] : 0f;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long estimateMemoryBytes() {
+            return 48L + keys.length * (8L + 4 + 4);
+        }
+
+        private int slot(long stored) {
+            long h = stored * 0x9E3779B97F4A7C15L;
+            int slot = (int) (h ^ (h >>> 32)) & mask;
+            while (keys[slot] != 0 && keys[slot] != stored) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * 词表：按字符内容哈希的开放寻址表，查询时不需要先转成字符串
+     */
+    private static final class Vocabulary {
+        private final String[] words;
+        private final int[] ids;
+        private final int mask;
+        private int size;
+
+        Vocabulary(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            words = new String[capacity];
+            ids = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        int add(String word) {
+            int slot = slot(word);
+            if (words[slot] == null) {
+                if (size + 1 > mask) {
+                    throw new IllegalArgumentException("单词数量超过文件头中声明的数量");
+                }
+                words[slot] = word;
+                ids[slot] = size++;
+            }
+            return ids[slot];
+        }
+
+        int id(CharSequence word) {
+            int slot = slot(word);
+            return words[slot] != null ? ids[slot] : -1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long estimateMemoryBytes() {
+            long bytes = 48L + words.length * 8L;
+            for (String word : words) {
+                if (word != null) {
+                    bytes += BkTreeSuggestionEngine.estimateString(word);
+                }
+            }
+            return bytes;
+        }
+
+        private int slot(CharSequence word) {
+            int h = 0;
+            for (int i = 0; i < word.length(); i++) {
+                h = 31 * h + word.charAt(i);
+            }
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (words[slot] != null && !equals(words[slot], word)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static boolean equals(String a, CharSequence b) {
+            if (a.length() != b.length()) {
+                return false;
+            }
+            for (int i = 0; i < a.length(); i++) {
+                if (a.charAt(i) != b.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.wordcheck.dictionary;
+
+/**
+ * 带种子的随机排列
+ * 用Feistel网络在[0, size)上构造一个双射，get(i)即为洗牌后第i个位置上的元素下标。
+ * 与Fisher-Yates洗牌结果一样不重复，但不需要生成和保存整个排列，
+ * 取前k个元素只需O(k)时间和O(1)空间，同一种子总是得到同一排列
+ */
+public final class SeededPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final int size;
+
+    private final int halfBits;
+
+    private final int halfMask;
+
+    private final long[] keys = new long[ROUNDS];
+
+    public SeededPermutation(int size, long seed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        this.size = size;
+        // 取不小于size的2的偶数次幂作为定义域，保证循环行走的期望次数不超过4
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, size - 1));
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1 << halfBits) - 1;
+        long state = seed;
+        for (int r = 0; r < ROUNDS; r++) {
+            state += 0x9E3779B97F4A7C15L;
+            keys[r] = mix(state);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 排列中第index个位置上的元素
+     *
+     * @param index 位置，0 ≤ index < size
+     * @return 元素下标，0 ≤ 返回值 < size
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        // 循环行走：结果落在[size, 2^bits)时继续加密，直到回到[0, size)
+        int value = index;
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return value;
+    }
+
+    private int encrypt(int value) {
+        int left = (value >>> halfBits) & halfMask;
+        int right = value & halfMask;
+        for (int r = 0; r < ROUNDS; r++) {
+            int next = left ^ ((int) mix(right ^ keys[r]) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
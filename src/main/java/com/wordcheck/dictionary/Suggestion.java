@@ -0,0 +1,47 @@
+package com.wordcheck.dictionary;
+
+import java.util.Comparator;
+
+/**
+ * 单词建议项
+ */
+public final class Suggestion {
+
+    /**
+     * 排序规则：距离升序，其次长度接近优先，最后按字母序
+     */
+    public static Comparator<Suggestion> comparator(String input) {
+        int length = input.length();
+        return Comparator.comparingInt(Suggestion::getDistance)
+                .thenComparingInt(s -> Math.abs(s.getWord().length() - length))
+                .thenComparing(Suggestion::getWord);
+    }
+
+    private final String word;
+
+    private final int distance;
+
+    public Suggestion(String word, int distance) {
+        this.word = word;
+        this.distance = distance;
+    }
+
+    /**
+     * 建议的单词
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * 与输入单词的距离（该引擎所用度量下的值）
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return word + "(" + distance + ")";
+    }
+}
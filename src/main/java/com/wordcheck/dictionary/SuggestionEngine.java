@@ -0,0 +1,45 @@
+package com.wordcheck.dictionary;
+
+import com.wordcheck.dictionary.metric.DistanceMetric;
+
+import java.util.List;
+
+/**
+ * 单词建议引擎接口
+ * 所有建议引擎实现同一接口，部署时可根据实测的延迟和内存占用选择合适的实现
+ */
+public interface SuggestionEngine {
+
+    /**
+     * 获取引擎名称
+     * @return 引擎名称
+     */
+    String getName();
+
+    /**
+     * 获取引擎使用的距离度量
+     * @return 距离度量
+     */
+    DistanceMetric getMetric();
+
+    /**
+     * 获取索引的单词数量
+     * @return 单词数量
+     */
+    int size();
+
+    /**
+     * 查找与输入单词相近的单词
+     * @param word 输入单词（已转为小写）
+     * @param maxEdits 最大编辑次数，会按度量的单次编辑代价换算为距离阈值
+     * @param limit 最多返回的建议数量
+     * @return 按距离排序的建议列表
+     */
+    List<Suggestion> suggest(String word, int maxEdits, int limit);
+
+    /**
+     * 估算索引占用的堆内存（字节）
+     * @return 估算的内存占用
+     */
+    long estimateMemoryBytes();
+}
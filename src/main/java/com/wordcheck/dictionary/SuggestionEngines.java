@@ -0,0 +1,35 @@
+package com.wordcheck.dictionary;
+
+import com.wordcheck.dictionary.metric.DistanceMetric;
+
+import java.util.Collection;
+
+/**
+ * 建议引擎工厂
+ */
+public final class SuggestionEngines {
+
+    private SuggestionEngines() {
+    }
+
+    /**
+     * 根据名称创建建议引擎
+     * @param name 引擎名称：bktree、linear
+     * @param metric 距离度量
+     * @param words 词典单词
+     * @return 建议引擎
+     */
+    public static SuggestionEngine create(String name, DistanceMetric metric, Collection<String> words) {
+        if (name == null || name.trim().isEmpty()) {
+            return new BkTreeSuggestionEngine(metric, words);
+        }
+        switch (name.trim().toLowerCase()) {
+            case BkTreeSuggestionEngine.NAME:
+                return new BkTreeSuggestionEngine(metric, words);
+            case LinearScanSuggestionEngine.NAME:
+                return new LinearScanSuggestionEngine(metric, words);
+            default:
+                throw new IllegalArgumentException("不支持的建议引擎: " + name);
+        }
+    }
+}
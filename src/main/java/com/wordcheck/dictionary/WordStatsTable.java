@@ -0,0 +1,208 @@
+package com.wordcheck.dictionary;
+
+/**
+ * 单个用户的单词统计表
+ * 以单词ID为键的开放寻址哈希表，计数保存在并行的基本类型数组中，不创建装箱对象
+ * 非线程安全，由调用方加锁
+ */
+public final class WordStatsTable {
+
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private int[] wrong;
+    private int[] right;
+    private long[] lastSeen;
+    private int size;
+    private int mask;
+
+    public WordStatsTable() {
+        this(16);
+    }
+
+    public WordStatsTable(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * 累加单词统计
+     *
+     * @param wordId 单词ID（大于0）
+     * @param wrongDelta 拼错次数增量
+     * @param rightDelta 拼对次数增量
+     * @param seenMillis 检测时间（毫秒），只保留较大值
+     */
+    public void add(int wordId, int wrongDelta, int rightDelta, long seenMillis) {
+        if (wordId <= EMPTY) {
+            throw new IllegalArgumentException("wordId must be positive: " + wordId);
+        }
+        int slot = slotOf(wordId);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = wordId;
+            if (++size * 2 > keys.length) {
+                rehash(keys.length << 1);
+                slot = slotOf(wordId);
+            }
+        }
+        wrong[slot] += wrongDelta;
+        right[slot] += rightDelta;
+        if (seenMillis > lastSeen[slot]) {
+            lastSeen[slot] = seenMillis;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int wrongCount(int wordId) {
+        int slot = find(wordId);
+        return slot < 0 ? 0 : wrong[slot];
+    }
+
+    public int rightCount(int wordId) {
+        int slot = find(wordId);
+        return slot < 0 ? 0 : right[slot];
+    }
+
+    public long lastSeen(int wordId) {
+        int slot = find(wordId);
+        return slot < 0 ? 0 : lastSeen[slot];
+    }
+
+    /**
+     * 返回最薄弱的单词ID：拼错次数减拼对次数越大越靠前，相同时最近检测的靠前
+     * 只包含至少拼错过一次的单词，用大小为limit的小顶堆选出，不对整张表排序
+     *
+     * @param limit 最多返回数量
+     * @return 单词ID数组，从最薄弱到较薄弱
+     */
+    public int[] weakest(int limit) {
+        if (limit <= 0 || size == 0) {
+            return new int[0];
+        }
+        int[] heap = new int[Math.min(limit, size)];
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == EMPTY || wrong[slot] <= 0) {
+                continue;
+            }
+            if (count < heap.length) {
+                heap[count] = slot;
+                siftUp(heap, count++);
+            } else if (weaker(slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, count);
+            }
+        }
+
+        int[] result = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            result[i] = keys[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i);
+        }
+        return result;
+    }
+
+    /**
+     * 估算占用内存（字节）
+     */
+    public long estimateMemoryBytes() {
+        return 64L + (long) keys.length * (4 + 4 + 4 + 8);
+    }
+
+    private boolean weaker(int a, int b) {
+        long scoreA = (long) wrong[a] - right[a];
+        long scoreB = (long) wrong[b] - right[b];
+        if (scoreA != scoreB) {
+            return scoreA > scoreB;
+        }
+        return lastSeen[a] > lastSeen[b];
+    }
+
+    private void siftUp(int[] heap, int i) {
+        int value = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!weaker(heap[parent], value)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    private void siftDown(int[] heap, int count) {
+        int i = 0;
+        int value = heap[0];
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && weaker(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!weaker(value, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    private int find(int wordId) {
+        if (wordId <= EMPTY) {
+            return -1;
+        }
+        int slot = slotOf(wordId);
+        return keys[slot] == wordId ? slot : -1;
+    }
+
+    private int slotOf(int wordId) {
+        int slot = mix(wordId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != wordId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldWrong = wrong;
+        int[] oldRight = right;
+        long[] oldLastSeen = lastSeen;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                wrong[slot] = oldWrong[i];
+                right[slot] = oldRight[i];
+                lastSeen[slot] = oldLastSeen[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        wrong = new int[capacity];
+        right = new int[capacity];
+        lastSeen = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "WordStatsTable{size=" + size + ", capacity=" + keys.length + "}";
+    }
+}
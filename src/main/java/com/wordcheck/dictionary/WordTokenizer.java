@@ -0,0 +1,86 @@
+package com.wordcheck.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * 英文单词切分器
+ * 只记录单词在原文中的起止位置，不创建子串对象。
+ * 单词由英文字母组成，允许中间出现撇号（don't、it's）和连字符（well-known）
+ */
+public final class WordTokenizer {
+
+    private WordTokenizer() {
+    }
+
+    /**
+     * 切分文本
+     * @param text 原文
+     * @return 单词位置
+     */
+    public static Tokens tokenize(CharSequence text) {
+        int n = text.length();
+        int capacity = Math.max(16, n / 5);
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        int count = 0;
+
+        int i = 0;
+        while (i < n) {
+            if (!isLetter(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            i++;
+            while (i < n) {
+                char c = text.charAt(i);
+                if (isLetter(c)) {
+                    i++;
+                } else if ((c == '\'' || c == '’' || c == '-') && i + 1 < n && isLetter(text.charAt(i + 1))) {
+                    i += 2;
+                } else {
+                    break;
+                }
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = i;
+            count++;
+        }
+        return new Tokens(starts, ends, count);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * 单词位置集合
+     */
+    public static final class Tokens {
+        private final int[] starts;
+        private final int[] ends;
+        private final int count;
+
+        Tokens(int[] starts, int[] ends, int count) {
+            this.starts = starts;
+            this.ends = ends;
+            this.count = count;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public int start(int index) {
+            return starts[index];
+        }
+
+        public int end(int index) {
+            return ends[index];
+        }
+    }
+}
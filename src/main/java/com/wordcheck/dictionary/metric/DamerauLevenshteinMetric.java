@@ -0,0 +1,114 @@
+package com.wordcheck.dictionary.metric;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Damerau-Levenshtein距离（不受限版本）
+ * 相邻字母换位算作一次编辑，适合处理"recieve"这类换位拼写错误；
+ * 与受限版本(OSA)不同，该实现满足三角不等式，可直接用于BK树
+ */
+public class DamerauLevenshteinMetric implements DistanceMetric {
+
+    public static final String NAME = "damerau";
+
+    /**
+     * ASCII字母最近出现位置表，按线程复用避免每次计算都分配
+     */
+    private static final ThreadLocal<int[]> ASCII_LAST_ROW = ThreadLocal.withInitial(() -> new int[128]);
+
+    /**
+     * 距离矩阵缓冲区，按线程复用
+     */
+    private static final ThreadLocal<int[]> MATRIX = ThreadLocal.withInitial(() -> new int[32 * 32]);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int distance(CharSequence a, CharSequence b) {
+        int n = a.length();
+        int m = b.length();
+        if (n == 0) {
+            return m;
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        int width = m + 2;
+        int size = (n + 2) * width;
+        int[] d = MATRIX.get();
+        if (d.length < size) {
+            d = new int[size];
+            MATRIX.set(d);
+        }
+
+        boolean ascii = isAscii(a) && isAscii(b);
+        int[] asciiLastRow = null;
+        Map<Character, Integer> lastRow = null;
+        if (ascii) {
+            asciiLastRow = ASCII_LAST_ROW.get();
+            java.util.Arrays.fill(asciiLastRow, 0);
+        } else {
+            lastRow = new HashMap<>();
+        }
+
+        int maxDist = n + m;
+        d[0] = maxDist;
+        for (int i = 0; i <= n; i++) {
+            d[(i + 1) * width] = maxDist;
+            d[(i + 1) * width + 1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[j + 1] = maxDist;
+            d[width + j + 1] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            char ca = a.charAt(i - 1);
+            int db = 0;
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int k;
+                if (ascii) {
+                    k = asciiLastRow[cb];
+                } else {
+                    Integer last = lastRow.get(cb);
+                    k = last != null ? last : 0;
+                }
+                int l = db;
+                int cost;
+                if (ca == cb) {
+                    cost = 0;
+                    db = j;
+                } else {
+                    cost = 1;
+                }
+                int substitution = d[i * width + j] + cost;
+                int insertion = d[(i + 1) * width + j] + 1;
+                int deletion = d[i * width + j + 1] + 1;
+                int transposition = d[k * width + l] + (i - k - 1) + 1 + (j - l - 1);
+                d[(i + 1) * width + j + 1] = Math.min(Math.min(substitution, insertion),
+                        Math.min(deletion, transposition));
+            }
+            if (ascii) {
+                asciiLastRow[ca] = i;
+            } else {
+                lastRow.put(ca, i);
+            }
+        }
+        return d[(n + 1) * width + m + 1];
+    }
+
+    private static boolean isAscii(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
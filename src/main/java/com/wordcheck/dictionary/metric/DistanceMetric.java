@@ -0,0 +1,31 @@
+package com.wordcheck.dictionary.metric;
+
+/**
+ * 单词距离度量接口
+ * 不同的检测类型可以选择不同的度量方式，BK树要求实现满足三角不等式
+ */
+public interface DistanceMetric {
+
+    /**
+     * 获取度量名称
+     * @return 度量名称
+     */
+    String getName();
+
+    /**
+     * 计算两个单词之间的距离
+     * @param a 单词a
+     * @param b 单词b
+     * @return 距离，0表示在该度量下相同
+     */
+    int distance(CharSequence a, CharSequence b);
+
+    /**
+     * 一次普通编辑操作对应的距离值
+     * 用于把"最大编辑次数"换算成该度量下的距离阈值
+     * @return 单次编辑的代价
+     */
+    default int unitCost() {
+        return 1;
+    }
+}
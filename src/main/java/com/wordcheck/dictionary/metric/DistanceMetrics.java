@@ -0,0 +1,31 @@
+package com.wordcheck.dictionary.metric;
+
+/**
+ * 距离度量工厂
+ */
+public final class DistanceMetrics {
+
+    private DistanceMetrics() {
+    }
+
+    /**
+     * 根据名称创建距离度量
+     * @param name 度量名称：damerau、keyboard、phonetic
+     * @return 距离度量
+     */
+    public static DistanceMetric of(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return new DamerauLevenshteinMetric();
+        }
+        switch (name.trim().toLowerCase()) {
+            case DamerauLevenshteinMetric.NAME:
+                return new DamerauLevenshteinMetric();
+            case KeyboardDistanceMetric.NAME:
+                return new KeyboardDistanceMetric();
+            case PhoneticDistanceMetric.NAME:
+                return new PhoneticDistanceMetric();
+            default:
+                throw new IllegalArgumentException("不支持的距离度量: " + name);
+        }
+    }
+}
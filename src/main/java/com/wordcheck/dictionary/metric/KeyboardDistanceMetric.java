@@ -0,0 +1,112 @@
+package com.wordcheck.dictionary.metric;
+
+/**
+ * 键盘加权编辑距离
+ * 替换为键盘上相邻的字母只计半次编辑，用于识别手机/键盘误触造成的拼写错误。
+ * 所有代价放大2倍保持整数：插入/删除/非相邻替换为2，相邻替换为1
+ */
+public class KeyboardDistanceMetric implements DistanceMetric {
+
+    public static final String NAME = "keyboard";
+
+    private static final int EDIT_COST = 2;
+
+    private static final int ADJACENT_COST = 1;
+
+    /**
+     * QWERTY键盘布局，每行相对上一行的水平偏移
+     */
+    private static final String[] ROWS = {"qwertyuiop", "asdfghjkl", "zxcvbnm"};
+    private static final double[] ROW_OFFSETS = {0, 0.25, 0.75};
+
+    /**
+     * 26个字母之间的相邻关系
+     */
+    private static final boolean[][] ADJACENT = new boolean[26][26];
+
+    static {
+        double[] x = new double[26];
+        int[] y = new int[26];
+        for (int row = 0; row < ROWS.length; row++) {
+            for (int col = 0; col < ROWS[row].length(); col++) {
+                int key = ROWS[row].charAt(col) - 'a';
+                x[key] = col + ROW_OFFSETS[row];
+                y[key] = row;
+            }
+        }
+        for (int i = 0; i < 26; i++) {
+            for (int j = 0; j < 26; j++) {
+                if (i != j && Math.abs(y[i] - y[j]) <= 1) {
+                    double dx = x[i] - x[j];
+                    double dy = y[i] - y[j];
+                    ADJACENT[i][j] = Math.sqrt(dx * dx + dy * dy) < 1.3;
+                }
+            }
+        }
+    }
+
+    private static final ThreadLocal<int[][]> ROWS_BUFFER = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int unitCost() {
+        return EDIT_COST;
+    }
+
+    @Override
+    public int distance(CharSequence a, CharSequence b) {
+        int n = a.length();
+        int m = b.length();
+        if (n == 0) {
+            return m * EDIT_COST;
+        }
+        if (m == 0) {
+            return n * EDIT_COST;
+        }
+
+        int[][] buffers = ROWS_BUFFER.get();
+        if (buffers[0].length < m + 1) {
+            buffers[0] = new int[m + 1];
+            buffers[1] = new int[m + 1];
+        }
+        int[] prev = buffers[0];
+        int[] curr = buffers[1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j * EDIT_COST;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            char ca = a.charAt(i - 1);
+            curr[0] = i * EDIT_COST;
+            for (int j = 1; j <= m; j++) {
+                int substitution = prev[j - 1] + substitutionCost(ca, b.charAt(j - 1));
+                int insertion = curr[j - 1] + EDIT_COST;
+                int deletion = prev[j] + EDIT_COST;
+                curr[j] = Math.min(substitution, Math.min(insertion, deletion));
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[m];
+    }
+
+    /**
+     * 计算替换代价
+     */
+    private static int substitutionCost(char a, char b) {
+        if (a == b) {
+            return 0;
+        }
+        char la = Character.toLowerCase(a);
+        char lb = Character.toLowerCase(b);
+        if (la >= 'a' && la <= 'z' && lb >= 'a' && lb <= 'z' && ADJACENT[la - 'a'][lb - 'a']) {
+            return ADJACENT_COST;
+        }
+        return EDIT_COST;
+    }
+}
@@ -0,0 +1,178 @@
+package com.wordcheck.dictionary.metric;
+
+/**
+ * 读音距离
+ * 先把单词编码为简化的读音键，再计算读音键之间的编辑距离。
+ * 编码规则针对中国学生常见的发音混淆：l/r、v/w、th/s/z、元音混读、辅音清浊等。
+ * 不同拼写可能得到相同读音键（距离为0），BK树会把它们挂在同一节点上
+ */
+public class PhoneticDistanceMetric implements DistanceMetric {
+
+    public static final String NAME = "phonetic";
+
+    private static final ThreadLocal<int[][]> ROWS_BUFFER = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int distance(CharSequence a, CharSequence b) {
+        return levenshtein(encode(a), encode(b));
+    }
+
+    /**
+     * 计算读音键
+     * @param word 单词
+     * @return 读音键
+     */
+    public static String encode(CharSequence word) {
+        StringBuilder key = new StringBuilder(word.length());
+        int n = word.length();
+        char last = 0;
+        for (int i = 0; i < n; i++) {
+            char c = Character.toLowerCase(word.charAt(i));
+            char next = i + 1 < n ? Character.toLowerCase(word.charAt(i + 1)) : 0;
+            char code;
+            switch (c) {
+                case 'a': case 'e': case 'i': case 'o': case 'u': case 'y':
+                    // 词尾不发音的e直接忽略，其余元音统一编码
+                    if (c == 'e' && i == n - 1 && n > 2) {
+                        continue;
+                    }
+                    code = 'a';
+                    break;
+                case 'p':
+                    if (next == 'h') {
+                        code = 'f';
+                        i++;
+                    } else {
+                        code = 'p';
+                    }
+                    break;
+                case 'b':
+                    code = 'p';
+                    break;
+                case 't':
+                    if (next == 'h') {
+                        code = 's';
+                        i++;
+                    } else {
+                        code = 't';
+                    }
+                    break;
+                case 'd':
+                    code = 't';
+                    break;
+                case 'c':
+                    if (next == 'k') {
+                        i++;
+                        code = 'k';
+                    } else if (next == 'e' || next == 'i' || next == 'y') {
+                        code = 's';
+                    } else if (next == 'h') {
+                        i++;
+                        code = 'j';
+                    } else {
+                        code = 'k';
+                    }
+                    break;
+                case 'k': case 'q': case 'g':
+                    if (c == 'g' && next == 'h') {
+                        i++;
+                        continue;
+                    }
+                    code = 'k';
+                    break;
+                case 'x':
+                    if (last != 'k') {
+                        key.append('k');
+                    }
+                    last = 's';
+                    key.append('s');
+                    continue;
+                case 's': case 'z':
+                    if (next == 'h') {
+                        i++;
+                        code = 'j';
+                    } else {
+                        code = 's';
+                    }
+                    break;
+                case 'j':
+                    code = 'j';
+                    break;
+                case 'r': case 'l':
+                    code = 'l';
+                    break;
+                case 'v': case 'w':
+                    if (c == 'w' && next == 'h') {
+                        i++;
+                    }
+                    code = 'w';
+                    break;
+                case 'f':
+                    code = 'f';
+                    break;
+                case 'h':
+                    // h在元音前才发音
+                    if (!isVowel(next)) {
+                        continue;
+                    }
+                    code = 'h';
+                    break;
+                case 'm': case 'n':
+                    code = c;
+                    break;
+                default:
+                    if (!Character.isLetter(c)) {
+                        continue;
+                    }
+                    code = c;
+            }
+            if (code != last) {
+                key.append(code);
+                last = code;
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    private static int levenshtein(String a, String b) {
+        int n = a.length();
+        int m = b.length();
+        if (n == 0) {
+            return m;
+        }
+        if (m == 0) {
+            return n;
+        }
+        int[][] buffers = ROWS_BUFFER.get();
+        if (buffers[0].length < m + 1) {
+            buffers[0] = new int[m + 1];
+            buffers[1] = new int[m + 1];
+        }
+        int[] prev = buffers[0];
+        int[] curr = buffers[1];
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(prev[j - 1] + cost, Math.min(curr[j - 1] + 1, prev[j] + 1));
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[m];
+    }
+}
@@ -0,0 +1,47 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.CheckHistoryEntity;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
+
+/**
+ * 检测历史归档数据访问接口
+ */
+@Mapper
+public interface CheckHistoryArchiveMapper {
+
+    /**
+     * 将检测历史及其详情复制到归档表，详情按原样（COMPRESS格式）复制
+     *
+     * @param ids 记录ID列表
+     * @return 插入行数
+     */
+    int insertFromHistory(@Param("ids") List<String> ids);
+
+    /**
+     * 根据ID查询归档记录（含详情）
+     *
+     * @param id 记录ID
+     * @return 归档记录，不存在时返回null
+     */
+    CheckHistoryEntity findById(@Param("id") String id);
+
+    /**
+     * 逐行读取用户全部归档记录（含详情），按创建时间升序，用于导出
+     *
+     * @param userId 用户ID
+     * @param handler 逐行处理
+     */
+    void streamByUserId(@Param("userId") Integer userId, ResultHandler<CheckHistoryEntity> handler);
+
+    /**
+     * 根据ID删除归档记录
+     *
+     * @param id 记录ID
+     * @return 影响行数
+     */
+    int deleteById(@Param("id") String id);
+}
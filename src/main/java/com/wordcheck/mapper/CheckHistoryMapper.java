@@ -3,7 +3,9 @@ package com.wordcheck.mapper;
 import com.wordcheck.model.CheckHistoryEntity;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -20,12 +22,64 @@ public interface CheckHistoryMapper {
     int insert(CheckHistoryEntity history);
     
     /**
-     * 根据ID查询历史记录
+     * 插入历史记录详情（内容和检测结果压缩后保存）
+     * @param history 历史记录实体
+     * @return 影响行数
+     */
+    int insertDetail(CheckHistoryEntity history);
+    
+    /**
+     * 批量插入历史记录
+     * @param list 历史记录实体列表
+     * @return 影响行数
+     */
+    int batchInsert(@Param("list") List<CheckHistoryEntity> list);
+    
+    /**
+     * 批量插入历史记录详情
+     * @param list 历史记录实体列表
+     * @return 影响行数
+     */
+    int batchInsertDetail(@Param("list") List<CheckHistoryEntity> list);
+    
+    /**
+     * 根据ID查询历史记录（含内容和检测结果）
      * @param id 历史记录ID
      * @return 历史记录
      */
     CheckHistoryEntity findById(@Param("id") String id);
     
+    /**
+     * 根据ID查询历史记录的列表字段（不含内容和检测结果）
+     * @param id 历史记录ID
+     * @return 历史记录
+     */
+    CheckHistoryEntity findSummaryById(@Param("id") String id);
+    
+    /**
+     * 根据ID批量查询用户历史记录的列表字段
+     * @param userId 用户ID
+     * @param ids 历史记录ID列表
+     * @return 历史记录列表（顺序不定）
+     */
+    List<CheckHistoryEntity> findSummaryByIds(@Param("userId") Integer userId, @Param("ids") List<String> ids);
+    
+    /**
+     * 逐行读取用户全部历史记录的ID、内容和摘要，用于构建搜索索引
+     * 数据库逐行流式返回，内存占用与记录总数无关
+     * @param userId 用户ID
+     * @param handler 逐行处理
+     */
+    void streamSearchTextByUserId(@Param("userId") Integer userId, ResultHandler<CheckHistoryEntity> handler);
+    
+    /**
+     * 逐行读取用户全部历史记录（含详情），按创建时间升序，用于导出
+     * 数据库逐行流式返回，内存占用与记录总数无关
+     * @param userId 用户ID
+     * @param handler 逐行处理
+     */
+    void streamByUserId(@Param("userId") Integer userId, ResultHandler<CheckHistoryEntity> handler);
+    
     /**
      * 查询用户的历史记录列表
      * @param userId 用户ID
@@ -37,6 +91,19 @@ public interface CheckHistoryMapper {
                                           @Param("limit") Integer limit, 
                                           @Param("offset") Integer offset);
     
+    /**
+     * 按游标查询用户的历史记录列表（按创建时间、ID倒序）
+     * @param userId 用户ID
+     * @param cursorTime 上一页最后一条记录的创建时间，为空时查询第一页
+     * @param cursorId 上一页最后一条记录的ID，为空时查询第一页
+     * @param limit 查询数量限制
+     * @return 历史记录列表
+     */
+    List<CheckHistoryEntity> findByUserIdAfter(@Param("userId") Integer userId,
+                                               @Param("cursorTime") Date cursorTime,
+                                               @Param("cursorId") String cursorId,
+                                               @Param("limit") Integer limit);
+    
     /**
      * 统计用户的历史记录总数
      * @param userId 用户ID
@@ -51,10 +118,80 @@ public interface CheckHistoryMapper {
      */
     int update(CheckHistoryEntity history);
     
+    /**
+     * 更新历史记录的检测结果
+     * @param history 历史记录实体
+     * @return 影响行数
+     */
+    int updateDetail(CheckHistoryEntity history);
+    
     /**
      * 删除历史记录
      * @param id 历史记录ID
      * @return 影响行数
      */
     int deleteById(@Param("id") String id);
+    
+    /**
+     * 按(create_time, id)顺序查询早于截止时间的一批记录并加锁，用于归档
+     * @param before 截止时间（不含）
+     * @param afterTime 上一批最后一条记录的创建时间，第一批为null
+     * @param afterId 上一批最后一条记录的ID，第一批为null
+     * @param limit 最多返回条数
+     * @return 记录列表（列表字段）
+     */
+    List<CheckHistoryEntity> findArchiveCandidates(@Param("before") Date before,
+                                                   @Param("afterTime") Date afterTime,
+                                                   @Param("afterId") String afterId,
+                                                   @Param("limit") Integer limit);
+    
+    /**
+     * 批量删除记录（详情随外键级联删除）
+     * @param ids 记录ID列表
+     * @return 删除行数
+     */
+    int deleteByIds(@Param("ids") List<String> ids);
+    
+    /**
+     * 软删除用户的记录，不属于该用户或已删除的记录不受影响
+     * @param userId 用户ID
+     * @param ids 记录ID列表
+     * @param token 撤销令牌
+     * @param deletedAt 删除时间
+     * @return 删除行数
+     */
+    int softDeleteByIds(@Param("userId") Integer userId,
+                        @Param("ids") List<String> ids,
+                        @Param("token") String token,
+                        @Param("deletedAt") Date deletedAt);
+    
+    /**
+     * 查询某个撤销令牌在撤销期内删除的记录并加锁
+     * @param userId 用户ID
+     * @param token 撤销令牌
+     * @param since 撤销期起点，在此之前删除的记录不能撤销
+     * @return 记录列表（列表字段）
+     */
+    List<CheckHistoryEntity> findByDeleteToken(@Param("userId") Integer userId,
+                                               @Param("token") String token,
+                                               @Param("since") Date since);
+    
+    /**
+     * 恢复某个撤销令牌在撤销期内删除的记录
+     * @param userId 用户ID
+     * @param token 撤销令牌
+     * @param since 撤销期起点
+     * @return 恢复行数
+     */
+    int restoreByDeleteToken(@Param("userId") Integer userId,
+                             @Param("token") String token,
+                             @Param("since") Date since);
+    
+    /**
+     * 彻底删除一批超过撤销期的软删除记录
+     * @param before 删除时间早于该时间的记录
+     * @param limit 最多删除条数
+     * @return 删除行数
+     */
+    int purgeDeleted(@Param("before") Date before, @Param("limit") Integer limit);
 } 
\ No newline at end of file
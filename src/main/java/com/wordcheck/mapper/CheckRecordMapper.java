@@ -0,0 +1,22 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.CheckRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 单词检测记录数据访问接口
+ */
+@Mapper
+public interface CheckRecordMapper {
+
+    /**
+     * 批量插入检测记录（单条多值INSERT）
+     *
+     * @param records 检测记录列表
+     * @return 影响行数
+     */
+    int batchInsert(@Param("records") List<CheckRecord> records);
+}
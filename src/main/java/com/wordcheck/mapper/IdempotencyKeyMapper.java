@@ -0,0 +1,85 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.IdempotencyRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+
+/**
+ * 幂等键数据访问接口
+ */
+@Mapper
+public interface IdempotencyKeyMapper {
+
+    /**
+     * 登记幂等键，已存在时忽略
+     *
+     * @param record 幂等键记录
+     * @return 影响行数，已存在时为0
+     */
+    int insertIgnore(IdempotencyRecord record);
+
+    /**
+     * 查询幂等键记录
+     *
+     * @param userId 用户ID
+     * @param scope 接口标识
+     * @param idemKey 幂等键
+     * @return 幂等键记录
+     */
+    IdempotencyRecord find(@Param("userId") Integer userId,
+                           @Param("scope") String scope,
+                           @Param("idemKey") String idemKey);
+
+    /**
+     * 保存处理结果
+     *
+     * @param userId 用户ID
+     * @param scope 接口标识
+     * @param idemKey 幂等键
+     * @param responseBody 响应（JSON）
+     * @param expireTime 过期时间
+     * @return 影响行数
+     */
+    int complete(@Param("userId") Integer userId,
+                 @Param("scope") String scope,
+                 @Param("idemKey") String idemKey,
+                 @Param("responseBody") String responseBody,
+                 @Param("expireTime") Date expireTime);
+
+    /**
+     * 删除处理中的幂等键（处理失败，允许客户端重试）
+     *
+     * @param userId 用户ID
+     * @param scope 接口标识
+     * @param idemKey 幂等键
+     * @return 影响行数
+     */
+    int deleteProcessing(@Param("userId") Integer userId,
+                         @Param("scope") String scope,
+                         @Param("idemKey") String idemKey);
+
+    /**
+     * 删除已过期的某个幂等键
+     *
+     * @param userId 用户ID
+     * @param scope 接口标识
+     * @param idemKey 幂等键
+     * @param now 当前时间
+     * @return 影响行数
+     */
+    int deleteIfExpired(@Param("userId") Integer userId,
+                        @Param("scope") String scope,
+                        @Param("idemKey") String idemKey,
+                        @Param("now") Date now);
+
+    /**
+     * 分批删除已过期的幂等键
+     *
+     * @param now 当前时间
+     * @param limit 每批最多删除条数
+     * @return 删除行数
+     */
+    int deleteExpired(@Param("now") Date now, @Param("limit") int limit);
+}
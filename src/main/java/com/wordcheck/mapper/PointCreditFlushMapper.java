@@ -0,0 +1,30 @@
+package com.wordcheck.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+
+/**
+ * 积分合并写入记录数据访问接口
+ */
+@Mapper
+public interface PointCreditFlushMapper {
+
+    /**
+     * 记录日志段中某个用户的积分已计入，已记录过时忽略
+     *
+     * @param segment 日志段名称
+     * @param userId 用户ID
+     * @return 影响行数，已记录过时为0
+     */
+    int insertIgnore(@Param("segment") String segment, @Param("userId") Integer userId);
+
+    /**
+     * 删除早于指定时间的记录
+     *
+     * @param before 截止时间
+     * @return 删除行数
+     */
+    int deleteBefore(@Param("before") Date before);
+}
@@ -0,0 +1,46 @@
+package com.wordcheck.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+
+/**
+ * 积分合并写入待计入记录数据访问接口
+ */
+@Mapper
+public interface PointCreditIntentMapper {
+
+    /**
+     * 登记一笔待计入的加分，须在业务事务中调用
+     *
+     * @param creditId 加分ID
+     * @param userId 用户ID
+     * @return 影响行数
+     */
+    int insert(@Param("creditId") String creditId, @Param("userId") Integer userId);
+
+    /**
+     * 锁定待计入记录；记录由未提交的事务插入时等待该事务结束
+     *
+     * @param creditId 加分ID
+     * @return 加分ID，记录不存在（业务已回滚或已计入）时为null
+     */
+    String lockById(@Param("creditId") String creditId);
+
+    /**
+     * 删除待计入记录
+     *
+     * @param creditId 加分ID
+     * @return 删除行数
+     */
+    int deleteById(@Param("creditId") String creditId);
+
+    /**
+     * 删除早于指定时间的记录
+     *
+     * @param before 截止时间
+     * @return 删除行数
+     */
+    int deleteBefore(@Param("before") Date before);
+}
@@ -27,6 +27,14 @@ public interface PointRecordMapper {
      */
     int insert(PointRecord record);
     
+    /**
+     * 批量插入积分记录
+     *
+     * @param records 积分记录列表
+     * @return 影响行数
+     */
+    int batchInsert(@Param("records") List<PointRecord> records);
+    
     /**
      * 根据用户ID和类型查询积分记录
      *
@@ -0,0 +1,61 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.PointReservation;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 积分预占数据访问接口
+ */
+@Mapper
+public interface PointReservationMapper {
+
+    /**
+     * 插入预占记录
+     *
+     * @param reservation 预占记录，插入后回填ID
+     * @return 影响行数
+     */
+    int insert(PointReservation reservation);
+
+    /**
+     * 根据ID查询预占记录
+     *
+     * @param id 预占ID
+     * @return 预占记录
+     */
+    PointReservation findById(@Param("id") Long id);
+
+    /**
+     * 查询用户某个业务最近一条冻结中的预占记录
+     *
+     * @param userId 用户ID
+     * @param businessType 业务类型
+     * @param businessId 业务ID，可为空
+     * @return 预占记录
+     */
+    PointReservation findLatestHeld(@Param("userId") Integer userId,
+                                    @Param("businessType") String businessType,
+                                    @Param("businessId") Integer businessId);
+
+    /**
+     * 把冻结中的预占改为结算或释放，只有一个调用方能成功
+     *
+     * @param id 预占ID
+     * @param status 新状态
+     * @return 影响行数，已结算或已释放时为0
+     */
+    int finish(@Param("id") Long id, @Param("status") String status);
+
+    /**
+     * 查询已过期仍冻结中的预占ID
+     *
+     * @param now 当前时间
+     * @param limit 最多返回数量
+     * @return 预占ID，按过期时间排序
+     */
+    List<Long> findExpiredHeldIds(@Param("now") Date now, @Param("limit") int limit);
+}
@@ -0,0 +1,48 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.UserDailyCheckStat;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 用户每日检测汇总数据访问接口
+ */
+@Mapper
+public interface UserDailyCheckStatMapper {
+
+    /**
+     * 查询用户从某天起的每日汇总
+     *
+     * @param userId 用户ID
+     * @param fromDate 起始日期（含）
+     * @return 汇总行，按日期升序
+     */
+    List<UserDailyCheckStat> findByUserIdSince(@Param("userId") Integer userId, @Param("fromDate") Date fromDate);
+
+    /**
+     * 累加汇总增量，不存在时插入
+     *
+     * @param stat 汇总增量，statDate为检测时间
+     * @return 影响行数
+     */
+    int upsertDelta(@Param("stat") UserDailyCheckStat stat);
+
+    /**
+     * 删除某天的全部汇总
+     *
+     * @param statDate 统计日期
+     * @return 影响行数
+     */
+    int deleteByDate(@Param("statDate") Date statDate);
+
+    /**
+     * 根据检测历史重新生成某天的汇总
+     *
+     * @param statDate 统计日期
+     * @return 影响行数
+     */
+    int rebuildByDate(@Param("statDate") Date statDate);
+}
@@ -0,0 +1,28 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.UserHistoryStat;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 用户检测历史汇总数据访问接口
+ */
+@Mapper
+public interface UserHistoryStatMapper {
+
+    /**
+     * 查询用户的检测历史汇总
+     *
+     * @param userId 用户ID
+     * @return 汇总，不存在时返回null
+     */
+    UserHistoryStat findByUserId(@Param("userId") Integer userId);
+
+    /**
+     * 累加汇总增量，不存在时插入
+     *
+     * @param stat 汇总增量
+     * @return 影响行数
+     */
+    int upsertDelta(@Param("stat") UserHistoryStat stat);
+}
@@ -34,20 +34,70 @@ public interface UserPointMapper {
     int update(UserPoint userPoint);
     
     /**
-     * 增加用户积分
+     * 增加用户积分，新余额通过{@link #selectLastInsertId()}读取
      *
      * @param userId 用户ID
      * @param points 增加的积分数
-     * @return 影响行数
+     * @return 影响行数，用户积分记录不存在时为0
      */
     int addPoints(@Param("userId") Integer userId, @Param("points") Integer points);
     
     /**
-     * 减少用户积分
+     * 减少用户积分，余额不足时不更新，新余额通过{@link #selectLastInsertId()}读取
      *
      * @param userId 用户ID
      * @param points 减少的积分数
-     * @return 影响行数
+     * @return 影响行数，用户积分记录不存在或余额不足时为0
      */
     int deductPoints(@Param("userId") Integer userId, @Param("points") Integer points);
+    
+    /**
+     * 读取当前连接上一次addPoints/deductPoints写入的新余额，须与更新在同一事务中调用
+     *
+     * @return 新余额
+     */
+    Integer selectLastInsertId();
+    
+    /**
+     * 用户积分记录不存在时插入，已存在时忽略
+     *
+     * @param userPoint 用户积分对象
+     * @return 影响行数，已存在时为0
+     */
+    int insertIfAbsent(UserPoint userPoint);
+    
+    /**
+     * 用户积分记录不存在时按表默认值插入，已存在时忽略
+     *
+     * @param userId 用户ID
+     * @return 影响行数，已存在时为0
+     */
+    int initIfAbsent(@Param("userId") Integer userId);
+    
+    /**
+     * 冻结积分，余额不足时不更新，新的可用积分通过{@link #selectLastInsertId()}读取
+     *
+     * @param userId 用户ID
+     * @param points 冻结的积分数
+     * @return 影响行数，用户积分记录不存在或余额不足时为0
+     */
+    int holdPoints(@Param("userId") Integer userId, @Param("points") Integer points);
+    
+    /**
+     * 结算冻结积分，计入总消费
+     *
+     * @param userId 用户ID
+     * @param points 结算的积分数
+     * @return 影响行数
+     */
+    int settleFrozenPoints(@Param("userId") Integer userId, @Param("points") Integer points);
+    
+    /**
+     * 释放冻结积分，退回可用积分，新的可用积分通过{@link #selectLastInsertId()}读取
+     *
+     * @param userId 用户ID
+     * @param points 释放的积分数
+     * @return 影响行数
+     */
+    int releaseFrozenPoints(@Param("userId") Integer userId, @Param("points") Integer points);
 } 
\ No newline at end of file
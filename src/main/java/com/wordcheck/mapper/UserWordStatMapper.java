@@ -0,0 +1,30 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.UserWordStat;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 用户单词统计数据访问接口
+ */
+@Mapper
+public interface UserWordStatMapper {
+
+    /**
+     * 查询用户的全部单词统计
+     *
+     * @param userId 用户ID
+     * @return 单词统计列表
+     */
+    List<UserWordStat> findByUserId(@Param("userId") Integer userId);
+
+    /**
+     * 批量累加单词统计，不存在时插入
+     *
+     * @param stats 统计增量列表
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("stats") List<UserWordStat> stats);
+}
@@ -0,0 +1,35 @@
+package com.wordcheck.mapper;
+
+import com.wordcheck.model.Word;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 单词数据访问接口
+ */
+@Mapper
+public interface WordMapper {
+
+    /**
+     * 查询词典中的所有单词
+     *
+     * @return 单词列表
+     */
+    List<Word> findAll();
+
+    /**
+     * 查询单词表的最大更新时间，用作词典版本
+     *
+     * @return 最大更新时间，表为空时返回null
+     */
+    Date findMaxUpdateTime();
+
+    /**
+     * 查询单词总数
+     *
+     * @return 单词总数
+     */
+    int countAll();
+}
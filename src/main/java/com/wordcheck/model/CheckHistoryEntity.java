@@ -27,7 +27,7 @@ public class CheckHistoryEntity {
     private Integer userId;
     
     /**
-     * 检测内容
+     * 检测内容，压缩保存在check_history_detail表
      */
     private String content;
     
@@ -36,6 +36,11 @@ public class CheckHistoryEntity {
      */
     private Integer contentLength;
     
+    /**
+     * 内容预览（前50个字符）
+     */
+    private String contentPreview;
+    
     /**
      * 检测类型
      */
@@ -52,7 +57,17 @@ public class CheckHistoryEntity {
     private String modelName;
     
     /**
-     * 检测结果（JSON格式）
+     * 检测结果摘要
+     */
+    private String summary;
+    
+    /**
+     * 建议数量
+     */
+    private Integer suggestionCount;
+    
+    /**
+     * 检测结果（JSON格式），压缩保存在check_history_detail表
      */
     private String checkResult;
     
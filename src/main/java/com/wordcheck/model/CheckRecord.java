@@ -0,0 +1,48 @@
+package com.wordcheck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 用户单词检测记录实体（check_records表）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckRecord {
+
+    /**
+     * 记录ID
+     */
+    private Integer id;
+
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+
+    /**
+     * 单词ID，拼写错误时为最接近的建议单词ID
+     */
+    private Integer wordId;
+
+    /**
+     * 用户输入的单词
+     */
+    private String inputWord;
+
+    /**
+     * 是否拼写正确
+     */
+    private Boolean isCorrect;
+
+    /**
+     * 检测时间
+     */
+    private Date checkTime;
+}
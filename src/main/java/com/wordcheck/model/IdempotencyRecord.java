@@ -0,0 +1,68 @@
+package com.wordcheck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 幂等键记录实体（idempotency_keys表）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    /**
+     * 处理中
+     */
+    public static final String STATUS_PROCESSING = "PROCESSING";
+
+    /**
+     * 已完成
+     */
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+
+    /**
+     * 接口标识
+     */
+    private String scope;
+
+    /**
+     * 客户端提供的幂等键
+     */
+    private String idemKey;
+
+    /**
+     * 请求内容的SHA-256
+     */
+    private String requestHash;
+
+    /**
+     * 状态
+     */
+    private String status;
+
+    /**
+     * 已完成请求的响应（JSON）
+     */
+    private String responseBody;
+
+    /**
+     * 过期时间
+     */
+    private Date expireTime;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+}
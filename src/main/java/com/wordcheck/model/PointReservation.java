@@ -0,0 +1,79 @@
+package com.wordcheck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 积分预占实体（point_reservations表）
+ * 冻结时从可用积分移到冻结积分，结算时计入消费，释放时退回可用积分
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointReservation {
+
+    /**
+     * 冻结中
+     */
+    public static final String STATUS_HELD = "HELD";
+
+    /**
+     * 已结算
+     */
+    public static final String STATUS_SETTLED = "SETTLED";
+
+    /**
+     * 已释放
+     */
+    public static final String STATUS_RELEASED = "RELEASED";
+
+    /**
+     * 预占ID
+     */
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+
+    /**
+     * 冻结的积分
+     */
+    private Integer points;
+
+    /**
+     * 状态
+     */
+    private String status;
+
+    /**
+     * 原因
+     */
+    private String reason;
+
+    /**
+     * 业务ID
+     */
+    private Integer businessId;
+
+    /**
+     * 业务类型
+     */
+    private String businessType;
+
+    /**
+     * 过期时间
+     */
+    private Date expireTime;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+}
@@ -0,0 +1,59 @@
+package com.wordcheck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 用户每日检测汇总实体（user_daily_check_stats表）
+ * 每个用户每天每个模型一行；写入时表示增量，查询时表示累计值
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDailyCheckStat {
+
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+
+    /**
+     * 统计日期；写入增量时为检测时间，按其日期归入对应的行
+     */
+    private Date statDate;
+
+    /**
+     * 模型ID，0表示未使用模型
+     */
+    private Integer modelId;
+
+    /**
+     * 模型名称
+     */
+    private String modelName;
+
+    /**
+     * 检测次数
+     */
+    private Integer checkCount;
+
+    /**
+     * 有评分的次数
+     */
+    private Integer scoredCount;
+
+    /**
+     * 评分之和
+     */
+    private Long scoreSum;
+
+    /**
+     * 消耗积分之和
+     */
+    private Long pointsCostSum;
+}
@@ -0,0 +1,42 @@
+package com.wordcheck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户检测历史汇总实体（user_history_stats表）
+ * 写入时表示增量，查询时表示累计值
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserHistoryStat {
+
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+
+    /**
+     * 检测历史记录数
+     */
+    private Integer historyCount;
+
+    /**
+     * 有评分的记录数
+     */
+    private Integer scoredCount;
+
+    /**
+     * 评分之和
+     */
+    private Long scoreSum;
+
+    /**
+     * 消耗积分之和
+     */
+    private Long pointsCostSum;
+}
@@ -19,6 +19,11 @@ public class UserPoint {
      */
     private Integer currentPoints;
     
+    /**
+     * 冻结中的积分（已预占、尚未结算或释放）
+     */
+    private Integer frozenPoints;
+    
     /**
      * 历史总获取积分
      */
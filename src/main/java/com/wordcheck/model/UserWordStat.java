@@ -0,0 +1,44 @@
+package com.wordcheck.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 用户单词统计实体（user_word_stats表）
+ * 写入时表示增量，查询时表示累计值
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserWordStat {
+
+    /**
+     * 用户ID
+     */
+    private Integer userId;
+
+    /**
+     * 单词ID
+     */
+    private Integer wordId;
+
+    /**
+     * 拼错次数
+     */
+    private Integer wrongCount;
+
+    /**
+     * 拼对次数
+     */
+    private Integer rightCount;
+
+    /**
+     * 最近一次检测时间
+     */
+    private Date lastSeen;
+}
@@ -0,0 +1,40 @@
+package com.wordcheck.model.dto;
+
+import lombok.Data;
+
+/**
+ * 易混淆词提示DTO
+ */
+@Data
+public class GrammarHintDTO {
+
+    /**
+     * 原文中的单词
+     */
+    private String word;
+
+    /**
+     * 单词在原文中的起始位置
+     */
+    private Integer offset;
+
+    /**
+     * 单词长度（字符数）
+     */
+    private Integer length;
+
+    /**
+     * 建议替换成的单词
+     */
+    private String suggestion;
+
+    /**
+     * 替换后句子对数概率的提升（以10为底），越大越可信
+     */
+    private Double confidence;
+
+    /**
+     * 提示信息
+     */
+    private String message;
+}
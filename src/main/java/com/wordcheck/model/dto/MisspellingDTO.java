@@ -0,0 +1,32 @@
+package com.wordcheck.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 拼写错误项DTO
+ */
+@Data
+public class MisspellingDTO {
+
+    /**
+     * 拼写错误的单词（小写）
+     */
+    private String word;
+
+    /**
+     * 单词长度（字符数）
+     */
+    private Integer length;
+
+    /**
+     * 单词在原文中出现的所有起始位置
+     */
+    private List<Integer> offsets;
+
+    /**
+     * 拼写建议
+     */
+    private List<String> suggestions;
+}
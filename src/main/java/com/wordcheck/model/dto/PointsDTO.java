@@ -12,6 +12,11 @@ public class PointsDTO {
      */
     private Integer currentPoints;
     
+    /**
+     * 冻结中的积分
+     */
+    private Integer frozenPoints;
+    
     /**
      * 历史总获取积分
      */
@@ -0,0 +1,40 @@
+package com.wordcheck.model.dto;
+
+import lombok.Data;
+
+/**
+ * 单词测验题目DTO
+ */
+@Data
+public class QuizItemDTO {
+
+    /**
+     * 单词ID
+     */
+    private Integer wordId;
+
+    /**
+     * 单词
+     */
+    private String word;
+
+    /**
+     * 含义
+     */
+    private String meaning;
+
+    /**
+     * 分类
+     */
+    private String category;
+
+    /**
+     * 难度级别
+     */
+    private String difficulty;
+
+    /**
+     * 是否来自用户的薄弱单词
+     */
+    private Boolean weak;
+}
@@ -0,0 +1,42 @@
+package com.wordcheck.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 文本拼写检查结果DTO
+ */
+@Data
+public class TextCheckResultDTO {
+
+    /**
+     * 单词总数
+     */
+    private Integer totalWords;
+
+    /**
+     * 去重后的单词数
+     */
+    private Integer distinctWords;
+
+    /**
+     * 拼写错误的单词数（去重后）
+     */
+    private Integer misspelledCount;
+
+    /**
+     * 服务端检查耗时（微秒）
+     */
+    private Long elapsedMicros;
+
+    /**
+     * 拼写错误列表，按首次出现位置排序
+     */
+    private List<MisspellingDTO> misspellings;
+
+    /**
+     * 易混淆词提示（语言模型未加载时为空）
+     */
+    private List<GrammarHintDTO> grammarHints;
+}
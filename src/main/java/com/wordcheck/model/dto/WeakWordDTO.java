@@ -0,0 +1,44 @@
+package com.wordcheck.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 薄弱单词DTO
+ */
+@Data
+public class WeakWordDTO {
+
+    /**
+     * 单词ID
+     */
+    private Integer wordId;
+
+    /**
+     * 单词
+     */
+    private String word;
+
+    /**
+     * 含义
+     */
+    private String meaning;
+
+    /**
+     * 拼错次数
+     */
+    private Integer wrongCount;
+
+    /**
+     * 拼对次数
+     */
+    private Integer rightCount;
+
+    /**
+     * 最近一次检测时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date lastSeen;
+}
@@ -80,6 +80,11 @@ public class CheckHistory {
      */
     private List<String> suggestions;
     
+    /**
+     * 建议数量
+     */
+    private Integer suggestionCount;
+    
     /**
      * 消耗的积分
      */
@@ -0,0 +1,96 @@
+package com.wordcheck.model.vo;
+
+import lombok.Data;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 检测统计信息VO
+ */
+@Data
+public class CheckStatsVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 统计天数（含今天）
+     */
+    private Integer days;
+
+    /**
+     * 检测次数
+     */
+    private Integer totalChecks;
+
+    /**
+     * 有评分的检测次数
+     */
+    private Integer scoredChecks;
+
+    /**
+     * 平均评分，没有评分时为null
+     */
+    private Double averageScore;
+
+    /**
+     * 消耗积分
+     */
+    private Long totalPointsCost;
+
+    /**
+     * 有检测的天数
+     */
+    private Integer activeDays;
+
+    /**
+     * 每日检测统计，按日期升序，没有检测的日期次数为0
+     */
+    private List<DailyCheckVO> daily;
+
+    /**
+     * 各模型使用次数，按次数降序
+     */
+    private List<ModelUsageVO> models;
+
+    /**
+     * 每日检测统计
+     */
+    @Data
+    public static class DailyCheckVO {
+        /**
+         * 日期，格式：yyyy-MM-dd
+         */
+        private String date;
+
+        /**
+         * 检测次数
+         */
+        private Integer checkCount;
+
+        /**
+         * 平均评分，没有评分时为null
+         */
+        private Double averageScore;
+    }
+
+    /**
+     * 模型使用统计
+     */
+    @Data
+    public static class ModelUsageVO {
+        /**
+         * 模型ID，0表示未使用模型
+         */
+        private Integer modelId;
+
+        /**
+         * 模型名称
+         */
+        private String modelName;
+
+        /**
+         * 使用次数
+         */
+        private Integer checkCount;
+    }
+}
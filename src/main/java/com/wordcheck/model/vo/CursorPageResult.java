@@ -0,0 +1,36 @@
+package com.wordcheck.model.vo;
+
+import lombok.Data;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页查询结果封装类
+ * 下一页从上一页最后一条记录之后开始查询，翻页深度不影响查询代价
+ * @param <T> 分页数据类型
+ */
+@Data
+public class CursorPageResult<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 数据记录列表
+     */
+    private List<T> records;
+
+    /**
+     * 查询下一页使用的游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
+    /**
+     * 每页记录数
+     */
+    private Integer size;
+}
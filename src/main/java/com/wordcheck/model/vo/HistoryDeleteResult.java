@@ -0,0 +1,31 @@
+package com.wordcheck.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 批量删除检测历史结果
+ */
+@Data
+public class HistoryDeleteResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 删除的记录数
+     */
+    private Integer deletedCount;
+
+    /**
+     * 撤销删除使用的令牌，没有可撤销的记录时为null
+     */
+    private String undoToken;
+
+    /**
+     * 撤销截止时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date undoExpireTime;
+}
@@ -0,0 +1,40 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.CheckHistoryEntity;
+
+import java.util.Map;
+
+/**
+ * 检测历史归档服务接口
+ * 超过保留期的记录分批从check_history移到压缩的归档表，列表和计数只扫描近期记录；
+ * 归档后的记录仍可按ID查询和删除
+ */
+public interface CheckHistoryArchiveService {
+
+    /**
+     * 归档超过保留期的检测历史
+     * @return 归档的记录数
+     */
+    long archiveExpired();
+
+    /**
+     * 根据ID查询归档记录（含详情）
+     * @param id 记录ID
+     * @return 归档记录，不存在时返回null
+     */
+    CheckHistoryEntity findArchived(String id);
+
+    /**
+     * 删除用户的归档记录
+     * @param id 记录ID
+     * @param userId 用户ID
+     * @return 是否删除成功
+     */
+    boolean deleteArchived(String id, Integer userId);
+
+    /**
+     * 获取归档统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
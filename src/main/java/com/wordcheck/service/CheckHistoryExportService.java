@@ -0,0 +1,34 @@
+package com.wordcheck.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 检测历史导出服务接口
+ * 从数据库逐行读取并直接写入输出流，内存占用与记录总数无关
+ */
+public interface CheckHistoryExportService {
+
+    /**
+     * CSV格式，带UTF-8 BOM以便Excel识别中文
+     */
+    String FORMAT_CSV = "csv";
+
+    /**
+     * JSON Lines格式，每行一条记录
+     */
+    String FORMAT_JSONL = "jsonl";
+
+    /**
+     * 导出用户的全部检测历史，包括已归档的记录
+     * @param userId 用户ID
+     * @param format 导出格式：csv或jsonl
+     * @param zip 是否压缩为zip
+     * @param fileName 文件名（压缩时为zip中的文件名）
+     * @param out 输出流，导出完成后不关闭
+     * @return 导出的记录数
+     * @throws IOException 写入输出流失败
+     * @throws IllegalStateException 同时进行的导出过多
+     */
+    long exportUserHistory(Integer userId, String format, boolean zip, String fileName, OutputStream out) throws IOException;
+}
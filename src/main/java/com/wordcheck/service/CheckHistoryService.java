@@ -1,6 +1,8 @@
 package com.wordcheck.service;
 
 import com.wordcheck.model.vo.CheckHistory;
+import com.wordcheck.model.vo.CursorPageResult;
+import com.wordcheck.model.vo.HistoryDeleteResult;
 
 import java.util.List;
 import java.util.Map;
@@ -24,6 +26,20 @@ public interface CheckHistoryService {
     String saveHistory(Integer userId, String content, Integer modelId, String modelName,
                        String checkType, Map<String, Object> result, Integer pointsCost);
     
+    /**
+     * 保存检测历史记录并返回保存的记录，不再从数据库读取
+     * @param userId 用户ID
+     * @param content 检测内容
+     * @param modelId 模型ID
+     * @param modelName 模型名称
+     * @param checkType 检测类型
+     * @param result 检测结果
+     * @param pointsCost 消耗积分
+     * @return 历史记录，保存失败时返回null
+     */
+    CheckHistory saveAndGetHistory(Integer userId, String content, Integer modelId, String modelName,
+                                   String checkType, Map<String, Object> result, Integer pointsCost);
+    
     /**
      * 根据ID获取历史记录
      * @param id 历史记录ID
@@ -40,6 +56,25 @@ public interface CheckHistoryService {
      */
     List<CheckHistory> getUserHistoryList(Integer userId, Integer page, Integer pageSize);
     
+    /**
+     * 按游标获取用户的历史记录列表，翻到任意深度的代价与第一页相同
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，为空时获取第一页
+     * @param pageSize 每页记录数
+     * @return 历史记录列表和下一页游标
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    CursorPageResult<CheckHistory> getUserHistoryPage(Integer userId, String cursor, Integer pageSize);
+    
+    /**
+     * 按内容和摘要搜索用户的历史记录（英文按单词、中文按相邻两字匹配）
+     * @param userId 用户ID
+     * @param query 查询文本
+     * @param limit 最多返回数量
+     * @return 历史记录列表（不含完整内容），按相关度从高到低排序
+     */
+    List<CheckHistory> searchUserHistory(Integer userId, String query, int limit);
+    
     /**
      * 获取用户历史记录总数
      * @param userId 用户ID
@@ -54,4 +89,27 @@ public interface CheckHistoryService {
      * @return 是否删除成功
      */
     boolean deleteHistory(String id, Integer userId);
+    
+    /**
+     * 批量删除用户的历史记录（软删除），撤销期内可按返回的令牌恢复
+     * 不属于该用户或不存在的ID被忽略
+     * @param userId 用户ID
+     * @param ids 历史记录ID列表
+     * @return 删除结果
+     */
+    HistoryDeleteResult deleteHistories(Integer userId, List<String> ids);
+    
+    /**
+     * 撤销批量删除
+     * @param userId 用户ID
+     * @param undoToken 撤销令牌
+     * @return 恢复的记录数，令牌无效或已过撤销期时为0
+     */
+    int undoDelete(Integer userId, String undoToken);
+    
+    /**
+     * 分批彻底删除超过撤销期的软删除记录
+     * @return 删除的记录数
+     */
+    long purgeDeleted();
 } 
\ No newline at end of file
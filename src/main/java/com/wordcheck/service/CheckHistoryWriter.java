@@ -0,0 +1,60 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.CheckHistoryEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 检测历史写入器接口
+ * 检测历史先保存在内存中并立即返回，由后台线程批量写入数据库；写入之前可从内存中读取
+ */
+public interface CheckHistoryWriter {
+
+    /**
+     * 提交检测历史
+     * @param history 检测历史（含内容和检测结果）
+     * @return 是否已进入队列；未启用或队列已满时返回false，由调用方同步写入
+     */
+    boolean submit(CheckHistoryEntity history);
+
+    /**
+     * 获取尚未写入数据库的检测历史
+     * @param id 历史记录ID
+     * @return 检测历史，已写入或不存在时返回null
+     */
+    CheckHistoryEntity getPending(String id);
+
+    /**
+     * 获取用户尚未写入数据库的检测历史
+     * @param userId 用户ID
+     * @return 检测历史列表
+     */
+    List<CheckHistoryEntity> listPending(Integer userId);
+
+    /**
+     * 取消尚未写入数据库的检测历史
+     * 正在写入的批次会先完成，此时返回false，记录已在数据库中
+     * @param id 历史记录ID
+     * @return 是否取消成功
+     */
+    boolean cancel(String id);
+
+    /**
+     * 设置丢弃回调：检测历史多次写入失败被丢弃时调用，调用方据此清理缓存和搜索索引
+     * @param listener 回调，参数为被丢弃的检测历史
+     */
+    void setDropListener(Consumer<CheckHistoryEntity> listener);
+
+    /**
+     * 立即将队列中的检测历史全部写入数据库
+     */
+    void flush();
+
+    /**
+     * 获取写入统计信息（队列深度、写入行数、批次耗时等）
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,31 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.CheckRecord;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单词检测记录写入器接口
+ * 检测记录先进入内存队列，由后台线程批量写入数据库
+ */
+public interface CheckRecordWriter {
+
+    /**
+     * 提交检测记录
+     * 队列已满时短暂等待，仍无空间则由调用线程直接写入数据库
+     * @param records 检测记录
+     */
+    void submit(List<CheckRecord> records);
+
+    /**
+     * 立即将队列中的记录全部写入数据库
+     */
+    void flush();
+
+    /**
+     * 获取写入统计信息（队列深度、写入行数、批次耗时等）
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,54 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.model.vo.CheckStatsVO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 检测统计服务接口
+ * 按用户、日期、模型维护每日汇总，保存和删除检测历史时在同一事务中累加，每晚按check_history校正。
+ * 查询一个月的统计只读取该用户一个月的汇总行
+ */
+public interface CheckStatsService {
+
+    /**
+     * 记录新增的检测历史，须在插入检测历史的事务中调用
+     * @param history 新增的检测历史
+     */
+    void recordSaved(CheckHistoryEntity history);
+
+    /**
+     * 记录删除的检测历史，须在删除检测历史的事务中调用
+     * @param history 删除的检测历史
+     */
+    void recordDeleted(CheckHistoryEntity history);
+
+    /**
+     * 记录一批新增的检测历史，同一用户同一天同一模型的增量合并后写入一次
+     * @param histories 新增的检测历史
+     */
+    void recordSaved(List<CheckHistoryEntity> histories);
+
+    /**
+     * 记录一批删除的检测历史，同一用户同一天同一模型的增量合并后写入一次
+     * @param histories 删除的检测历史
+     */
+    void recordDeleted(List<CheckHistoryEntity> histories);
+
+    /**
+     * 获取用户最近若干天的检测统计
+     * @param userId 用户ID
+     * @param days 天数（含今天）
+     * @return 统计信息
+     */
+    CheckStatsVO getUserStats(Integer userId, int days);
+
+    /**
+     * 根据检测历史重新生成某天的汇总
+     * @param date 日期
+     * @return 生成的汇总行数
+     */
+    int reconcile(LocalDate date);
+}
@@ -0,0 +1,40 @@
+package com.wordcheck.service;
+
+import com.wordcheck.dictionary.AnalyzedText;
+import com.wordcheck.model.dto.GrammarHintDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 语法提示服务接口
+ * 使用本地n元语言模型检测用错的易混淆词（their/there、form/from），不调用外部接口
+ */
+public interface GrammarHintService {
+
+    /**
+     * 语言模型是否已加载
+     * @return 是否可用
+     */
+    boolean isAvailable();
+
+    /**
+     * 检测文本中用错的易混淆词
+     * @param text 原文
+     * @return 提示列表，模型未加载时返回空列表
+     */
+    List<GrammarHintDTO> check(String text);
+
+    /**
+     * 检测已分析文本中用错的易混淆词，按句子检测
+     * @param text 分析后的文本
+     * @return 提示列表，模型未加载时返回空列表
+     */
+    List<GrammarHintDTO> check(AnalyzedText text);
+
+    /**
+     * 获取语言模型统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getModelStats();
+}
@@ -0,0 +1,53 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.vo.CheckHistory;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 检测历史详情缓存接口
+ * 缓存解析后的检测历史详情，按占用字节数而不是条数限制大小，删除记录时失效
+ */
+public interface HistoryDetailCache {
+
+    /**
+     * 获取缓存的详情
+     * @param id 历史记录ID
+     * @return 详情副本，未缓存时返回null
+     */
+    CheckHistory get(String id);
+
+    /**
+     * 获取详情，未缓存时调用loader加载并放入缓存
+     * 加载期间有记录失效时不放入缓存，避免缓存已删除的记录
+     * @param id 历史记录ID
+     * @param loader 加载详情，不存在时返回null
+     * @return 详情副本，不存在时返回null
+     */
+    CheckHistory get(String id, Function<String, CheckHistory> loader);
+
+    /**
+     * 缓存详情
+     * @param history 详情
+     */
+    void put(CheckHistory history);
+
+    /**
+     * 使一条记录的缓存失效
+     * @param id 历史记录ID
+     */
+    void invalidate(String id);
+
+    /**
+     * 使用户全部记录的缓存失效
+     * @param userId 用户ID
+     */
+    void invalidateUser(Integer userId);
+
+    /**
+     * 获取缓存统计信息（命中率、占用字节数等）
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,48 @@
+package com.wordcheck.service;
+
+import com.wordcheck.dictionary.InvertedIndex;
+import com.wordcheck.model.CheckHistoryEntity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 检测历史搜索服务接口
+ * 每个用户一份内存倒排索引，首次搜索时从检测历史构建，之后随保存和删除增量更新
+ */
+public interface HistorySearchService {
+
+    /**
+     * 检测历史已保存
+     * @param history 检测历史（含内容）
+     */
+    void onSaved(CheckHistoryEntity history);
+
+    /**
+     * 检测历史已删除
+     * @param userId 用户ID
+     * @param historyId 历史记录ID
+     */
+    void onDeleted(Integer userId, String historyId);
+
+    /**
+     * 搜索用户的检测历史
+     * @param userId 用户ID
+     * @param query 查询文本
+     * @param limit 最多返回数量
+     * @return 命中的历史记录ID，按相关度从高到低排序
+     */
+    List<InvertedIndex.Hit> search(Integer userId, String query, int limit);
+
+    /**
+     * 丢弃用户的索引，下次搜索时从检测历史重新构建
+     * @param userId 用户ID
+     */
+    void invalidate(Integer userId);
+
+    /**
+     * 获取索引统计信息（缓存用户数、文档数、内存估算）
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
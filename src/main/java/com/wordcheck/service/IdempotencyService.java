@@ -0,0 +1,50 @@
+package com.wordcheck.service;
+
+import com.wordcheck.common.ApiResponse;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 幂等键服务接口
+ * 客户端在请求头Idempotency-Key中携带幂等键，同一用户同一接口使用相同幂等键的重复请求不再执行：
+ * 第一次请求已完成时直接返回它的结果，仍在处理时等待它完成。
+ * 幂等键先在本机内存中登记，再登记到数据库，多实例部署或重启后仍然有效
+ */
+public interface IdempotencyService {
+
+    /**
+     * 请求头名称
+     */
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * 按幂等键执行请求
+     * 响应错误码小于500时保存结果；执行抛出异常或返回5xx时不保存，客户端可以用同一幂等键重试
+     *
+     * @param userId   用户ID
+     * @param scope    接口标识
+     * @param key      幂等键，为空时直接执行
+     * @param request  请求内容，用于识别同一幂等键被用于不同请求
+     * @param bodyType 响应body的类型，用于还原保存的结果
+     * @param action   请求处理
+     * @param <T>      响应body类型
+     * @return 本次或第一次请求的响应
+     */
+    <T> ApiResponse<T> execute(Integer userId, String scope, String key, Object request,
+                               Class<?> bodyType, Supplier<ApiResponse<T>> action);
+
+    /**
+     * 删除已过期的幂等键
+     *
+     * @return 删除条数
+     */
+    int purgeExpired();
+
+    /**
+     * 获取统计信息（执行、重放、等待次数等）
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
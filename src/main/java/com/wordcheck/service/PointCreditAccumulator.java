@@ -0,0 +1,53 @@
+package com.wordcheck.service;
+
+import com.wordcheck.enums.PointActionEnum;
+import com.wordcheck.enums.PointTypeEnum;
+
+import java.util.Map;
+
+/**
+ * 积分合并写入器接口
+ * 签到奖励等小额、非关键的加分先写入本地追加日志并按用户累加在内存中，
+ * 由后台线程定期把每个用户的累计值一次性计入用户积分表，积分记录批量插入。
+ * 未启用时直接调用{@link PointService#addPoints}
+ */
+public interface PointCreditAccumulator {
+
+    /**
+     * 增加用户积分
+     * 在事务中调用时，随业务事务登记待计入记录并写入日志，事务提交后才放入缓冲区，回滚的业务不会加分
+     *
+     * @param userId       用户ID
+     * @param points       积分数量
+     * @param reason       积分变动原因
+     * @param type         积分类型
+     * @param action       积分动作
+     * @param businessId   业务ID
+     * @param businessType 业务类型
+     * @param remark       备注
+     * @return 该用户尚未计入用户积分表的积分（含本次），直接写入时为0
+     */
+    int credit(Integer userId, Integer points, String reason,
+               PointTypeEnum type, PointActionEnum action,
+               Integer businessId, String businessType, String remark);
+
+    /**
+     * 获取用户尚未计入用户积分表的积分
+     *
+     * @param userId 用户ID
+     * @return 积分数
+     */
+    int getPendingPoints(Integer userId);
+
+    /**
+     * 立即把缓冲区中的积分全部计入用户积分表
+     */
+    void flush();
+
+    /**
+     * 获取统计信息（缓冲用户数、合并写入次数、日志大小等）
+     *
+     * @return 统计信息
+     */
+    Map<String, Object> getStats();
+}
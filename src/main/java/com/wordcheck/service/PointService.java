@@ -84,6 +84,43 @@ public interface PointService {
     Long unfreezePoints(Integer userId, Integer points, String reason, 
                         Integer businessId, String businessType, String remark);
 
+    /**
+     * 预占用户积分：从可用积分移到冻结积分，并创建带过期时间的预占记录
+     * 预占后须调用{@link #settleReservation(Long)}结算或{@link #releaseReservation(Long)}释放，
+     * 过期仍未处理的由后台任务释放
+     *
+     * @param userId       用户ID
+     * @param points       积分数量
+     * @param reason       原因
+     * @param businessId   业务ID
+     * @param businessType 业务类型
+     * @return 预占ID，可用积分不足时返回null
+     */
+    Long holdPoints(Integer userId, Integer points, String reason, Integer businessId, String businessType);
+
+    /**
+     * 结算预占：冻结积分计入消费
+     *
+     * @param reservationId 预占ID
+     * @return 是否结算成功，预占已释放（如已过期）或已结算时返回false
+     */
+    boolean settleReservation(Long reservationId);
+
+    /**
+     * 释放预占：冻结积分退回可用积分
+     *
+     * @param reservationId 预占ID
+     * @return 是否释放成功，预占已结算或已释放时返回false
+     */
+    boolean releaseReservation(Long reservationId);
+
+    /**
+     * 释放已过期仍未结算的预占
+     *
+     * @return 释放的预占数
+     */
+    int releaseExpiredReservations();
+
     /**
      * 获取用户积分记录
      *
@@ -0,0 +1,36 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.dto.QuizItemDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单词测验服务接口
+ * 按难度、分类把单词ID预先分组保存在内存中，出题时不查询数据库
+ */
+public interface QuizService {
+
+    /**
+     * 为用户生成一组测验单词，同一用户连续出题时在题库用完之前不会重复，并混入用户的薄弱单词
+     * @param userId 用户ID
+     * @param difficulty 难度级别，为空时不限
+     * @param category 分类，为空时不限
+     * @param count 题目数量
+     * @return 题目列表，题库不足时少于count
+     */
+    List<QuizItemDTO> generateQuiz(Integer userId, String difficulty, String category, int count);
+
+    /**
+     * 获取每日单词，同一天所有用户相同，题库用完之前每天不重复
+     * @param difficulty 难度级别，为空时不限
+     * @return 每日单词，题库为空时返回null
+     */
+    QuizItemDTO getWordOfTheDay(String difficulty);
+
+    /**
+     * 获取题库统计信息（各难度、分类的单词数）
+     * @return 统计信息
+     */
+    Map<String, Object> getPoolStats();
+}
@@ -0,0 +1,44 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.model.UserHistoryStat;
+
+import java.util.List;
+
+/**
+ * 用户检测历史汇总服务接口
+ * 保存和删除检测历史时在同一事务中累加user_history_stats，查询记录数和评分时不扫描check_history
+ */
+public interface UserHistoryStatService {
+
+    /**
+     * 记录新增的检测历史，须在插入检测历史的事务中调用
+     * @param history 新增的检测历史
+     */
+    void recordSaved(CheckHistoryEntity history);
+
+    /**
+     * 记录删除的检测历史，须在删除检测历史的事务中调用
+     * @param history 删除的检测历史
+     */
+    void recordDeleted(CheckHistoryEntity history);
+
+    /**
+     * 记录一批新增的检测历史，同一用户的增量合并后写入一次
+     * @param histories 新增的检测历史
+     */
+    void recordSaved(List<CheckHistoryEntity> histories);
+
+    /**
+     * 记录一批删除的检测历史，同一用户的增量合并后写入一次
+     * @param histories 删除的检测历史
+     */
+    void recordDeleted(List<CheckHistoryEntity> histories);
+
+    /**
+     * 获取用户的检测历史汇总
+     * @param userId 用户ID
+     * @return 汇总，没有记录时各项为0
+     */
+    UserHistoryStat getStats(Integer userId);
+}
@@ -0,0 +1,35 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.CheckRecord;
+import com.wordcheck.model.dto.WeakWordDTO;
+
+import java.util.List;
+
+/**
+ * 用户薄弱单词服务接口
+ * 根据写入的检测记录增量维护每个用户每个单词的对错次数，查询时不扫描检测记录
+ */
+public interface WeakWordService {
+
+    /**
+     * 累加一批已写入数据库的检测记录
+     * @param records 检测记录
+     */
+    void recordChecks(List<CheckRecord> records);
+
+    /**
+     * 获取用户最常拼错的单词
+     * @param userId 用户ID
+     * @param limit 最多返回数量
+     * @return 薄弱单词列表，从最薄弱开始
+     */
+    List<WeakWordDTO> getWeakWords(Integer userId, int limit);
+
+    /**
+     * 获取用户最常拼错的单词ID
+     * @param userId 用户ID
+     * @param limit 最多返回数量
+     * @return 单词ID数组，从最薄弱开始
+     */
+    int[] getWeakWordIds(Integer userId, int limit);
+}
@@ -0,0 +1,27 @@
+package com.wordcheck.service;
+
+import com.wordcheck.dictionary.AnalyzedText;
+import com.wordcheck.model.dto.TextCheckResultDTO;
+
+/**
+ * 单词拼写检查服务接口
+ */
+public interface WordCheckService {
+
+    /**
+     * 检查整段文本的拼写
+     * 文本切分为单词并去重后与内存词典比对，错误单词附带建议，检测记录批量写入
+     * @param userId 用户ID
+     * @param text 待检查文本
+     * @return 检查结果
+     */
+    TextCheckResultDTO checkText(Integer userId, String text);
+
+    /**
+     * 检查已分析文本的拼写，复用分析结果中的单词切分和规范形式
+     * @param userId 用户ID
+     * @param text 分析后的文本
+     * @return 检查结果
+     */
+    TextCheckResultDTO checkText(Integer userId, AnalyzedText text);
+}
@@ -0,0 +1,84 @@
+package com.wordcheck.service;
+
+import com.wordcheck.model.Word;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单词词典服务接口
+ * 将words表加载到内存中，提供单词查询和拼写建议
+ */
+public interface WordDictionaryService {
+
+    /**
+     * 从数据库重新加载词典并重建建议索引
+     */
+    void reload();
+
+    /**
+     * words表的最大更新时间或行数变化时重新加载词典
+     * @return 是否重新加载
+     */
+    boolean refreshIfChanged();
+
+    /**
+     * 查询单词（忽略大小写）
+     * @param word 单词
+     * @return 单词信息，不存在时返回null
+     */
+    Word findWord(String word);
+
+    /**
+     * 查询屈折形式对应的原形（studies→study、went→go），words表只保存原形
+     * @param word 单词
+     * @return 原形单词信息，无法还原到词典中的单词时返回null
+     */
+    Word findBaseForm(String word);
+
+    /**
+     * 按ID查询单词
+     * @param wordId 单词ID
+     * @return 单词信息，不存在时返回null
+     */
+    Word findWordById(Integer wordId);
+
+    /**
+     * 判断单词是否在词典中（忽略大小写）
+     * @param word 单词
+     * @return 是否存在
+     */
+    boolean contains(String word);
+
+    /**
+     * 获取词典中的全部单词，用于构建派生索引，不应在请求路径上调用
+     * @return 单词列表
+     */
+    List<Word> listWords();
+
+    /**
+     * 获取词典版本号，每次重新加载后递增，派生索引据此判断是否需要重建
+     * @return 版本号
+     */
+    long getGeneration();
+
+    /**
+     * 获取词典中的单词数量
+     * @return 单词数量
+     */
+    int size();
+
+    /**
+     * 获取拼写建议
+     * @param word 输入单词
+     * @param limit 最多返回的建议数量
+     * @return 建议单词列表，按相似度排序
+     */
+    List<String> suggest(String word, int limit);
+
+    /**
+     * 获取建议引擎的统计信息（引擎、度量、构建耗时、内存估算、查询延迟）
+     * @return 统计信息
+     */
+    Map<String, Object> getEngineStats();
+}
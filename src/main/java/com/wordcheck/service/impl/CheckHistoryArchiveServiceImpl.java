@@ -0,0 +1,176 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.mapper.CheckHistoryArchiveMapper;
+import com.wordcheck.mapper.CheckHistoryMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.service.CheckHistoryArchiveService;
+import com.wordcheck.service.HistorySearchService;
+import com.wordcheck.service.UserHistoryStatService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 检测历史归档服务实现类
+ * 每批在一个短事务中加锁读取、复制到归档表、删除原记录并扣减汇总，批与批之间暂停，
+ * 按(create_time, id)从上一批之后继续，不会长时间锁表，也不会重复扫描已删除的记录。
+ * 每日检测统计保留归档前的数据，只有列表使用的记录数汇总扣减
+ */
+@Slf4j
+@Service
+public class CheckHistoryArchiveServiceImpl implements CheckHistoryArchiveService {
+
+    @Autowired
+    private CheckHistoryMapper checkHistoryMapper;
+
+    @Autowired
+    private CheckHistoryArchiveMapper checkHistoryArchiveMapper;
+
+    @Autowired
+    private UserHistoryStatService userHistoryStatService;
+
+    @Autowired
+    private HistorySearchService historySearchService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 是否启用归档
+     */
+    @Value("${check-history.retention.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 检测历史在check_history中保留的天数
+     */
+    @Value("${check-history.retention.days:365}")
+    private int retentionDays;
+
+    /**
+     * 每批归档的条数
+     */
+    @Value("${check-history.retention.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 批与批之间的暂停时间（毫秒）
+     */
+    @Value("${check-history.retention.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    private final LongAdder archivedRows = new LongAdder();
+
+    private final LongAdder archiveRuns = new LongAdder();
+
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    private final AtomicLong lastRunRows = new AtomicLong();
+
+    @Override
+    public long archiveExpired() {
+        if (!enabled || retentionDays <= 0) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Date before = new Date(start - TimeUnit.DAYS.toMillis(retentionDays));
+        Date afterTime = null;
+        String afterId = null;
+        long total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<CheckHistoryEntity> batch = archiveBatch(before, afterTime, afterId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (CheckHistoryEntity history : batch) {
+                historySearchService.onDeleted(history.getUserId(), history.getId());
+            }
+            total += batch.size();
+            archivedRows.add(batch.size());
+            CheckHistoryEntity last = batch.get(batch.size() - 1);
+            afterTime = last.getCreateTime();
+            afterId = last.getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(batchPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        archiveRuns.increment();
+        lastRunMillis.set(System.currentTimeMillis() - start);
+        lastRunRows.set(total);
+        log.info("检测历史归档完成，截止时间: {}，归档记录数: {}，耗时: {}ms", before, total, lastRunMillis.get());
+        return total;
+    }
+
+    /**
+     * 在一个事务中归档一批记录
+     */
+    private List<CheckHistoryEntity> archiveBatch(Date before, Date afterTime, String afterId) {
+        List<CheckHistoryEntity> batch = transactionTemplate.execute(status -> {
+            // 加锁读取，期间用户删除同一条记录会等待本批提交，汇总不会重复扣减
+            List<CheckHistoryEntity> candidates =
+                    checkHistoryMapper.findArchiveCandidates(before, afterTime, afterId, batchSize);
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+            List<String> ids = new ArrayList<>(candidates.size());
+            for (CheckHistoryEntity history : candidates) {
+                ids.add(history.getId());
+            }
+            checkHistoryArchiveMapper.insertFromHistory(ids);
+            checkHistoryMapper.deleteByIds(ids);
+            userHistoryStatService.recordDeleted(candidates);
+            return candidates;
+        });
+        return batch != null ? batch : Collections.emptyList();
+    }
+
+    @Override
+    public CheckHistoryEntity findArchived(String id) {
+        return checkHistoryArchiveMapper.findById(id);
+    }
+
+    @Override
+    public boolean deleteArchived(String id, Integer userId) {
+        CheckHistoryEntity archived = checkHistoryArchiveMapper.findById(id);
+        if (archived == null) {
+            return false;
+        }
+        if (!Objects.equals(archived.getUserId(), userId)) {
+            log.warn("用户({})无权删除归档的检测历史记录: {}", userId, id);
+            return false;
+        }
+        return checkHistoryArchiveMapper.deleteById(id) > 0;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("retentionDays", retentionDays);
+        stats.put("batchSize", batchSize);
+        stats.put("archivedRows", archivedRows.sum());
+        stats.put("runs", archiveRuns.sum());
+        stats.put("lastRunRows", lastRunRows.get());
+        stats.put("lastRunMillis", lastRunMillis.get());
+        return stats;
+    }
+}
@@ -0,0 +1,238 @@
+package com.wordcheck.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.mapper.CheckHistoryArchiveMapper;
+import com.wordcheck.mapper.CheckHistoryMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.service.CheckHistoryExportService;
+import com.wordcheck.service.CheckHistoryWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 检测历史导出服务实现类
+ * 导出期间占用一个数据库连接，用信号量限制同时进行的导出数量
+ */
+@Slf4j
+@Service
+public class CheckHistoryExportServiceImpl implements CheckHistoryExportService {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] CSV_HEADER = {
+            "ID", "创建时间", "检测类型", "模型", "评分", "消耗积分", "字数", "建议数", "摘要", "内容", "检测结果"
+    };
+
+    @Autowired
+    private CheckHistoryMapper checkHistoryMapper;
+
+    @Autowired
+    private CheckHistoryArchiveMapper checkHistoryArchiveMapper;
+
+    @Autowired
+    private CheckHistoryWriter checkHistoryWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 同时进行的导出数量上限
+     */
+    @Value("${check-history.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @Override
+    public long exportUserHistory(Integer userId, String format, boolean zip, String fileName, OutputStream out)
+            throws IOException {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_JSONL.equals(format)) {
+            throw new IllegalArgumentException("不支持的导出格式: " + format);
+        }
+        if (!permits.tryAcquire()) {
+            throw new IllegalStateException("导出任务过多，请稍后再试");
+        }
+        try {
+            // 队列中尚未写入的记录先写入数据库，导出结果包含刚保存的记录
+            checkHistoryWriter.flush();
+
+            ZipOutputStream zipOut = null;
+            OutputStream target = out;
+            if (zip) {
+                zipOut = new ZipOutputStream(out, StandardCharsets.UTF_8);
+                zipOut.putNextEntry(new ZipEntry(fileName));
+                target = zipOut;
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            long[] count = new long[1];
+            boolean csv = FORMAT_CSV.equals(format);
+            if (csv) {
+                writer.write('\uFEFF');
+                writeCsvRow(writer, CSV_HEADER);
+            }
+            ResultHandler<CheckHistoryEntity> handler = context -> {
+                try {
+                    if (csv) {
+                        writeCsv(writer, context.getResultObject());
+                    } else {
+                        writeJsonLine(writer, context.getResultObject());
+                    }
+                    count[0]++;
+                } catch (IOException e) {
+                    // 客户端断开时停止读取
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                // 归档的记录早于未归档的记录，先导出归档表，整体仍按创建时间升序；
+                // 两次读取在同一事务中使用同一快照，归档任务同时移动记录时不会遗漏或重复
+                transactionTemplate.execute(status -> {
+                    checkHistoryArchiveMapper.streamByUserId(userId, handler);
+                    checkHistoryMapper.streamByUserId(userId, handler);
+                    return null;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            writer.flush();
+            if (zipOut != null) {
+                zipOut.closeEntry();
+                zipOut.finish();
+            }
+            out.flush();
+            log.info("用户({})导出检测历史完成，格式: {}，记录数: {}", userId, format, count[0]);
+            return count[0];
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void writeCsv(Writer writer, CheckHistoryEntity history) throws IOException {
+        writeCsvRow(writer, new String[]{
+                history.getId(),
+                formatTime(history.getCreateTime()),
+                history.getCheckType(),
+                history.getModelName(),
+                toString(history.getScore()),
+                toString(history.getPointsCost()),
+                toString(history.getContentLength()),
+                toString(history.getSuggestionCount()),
+                history.getSummary(),
+                history.getContent(),
+                history.getCheckResult()
+        });
+    }
+
+    private void writeJsonLine(Writer writer, CheckHistoryEntity history) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", history.getId());
+        row.put("createTime", formatTime(history.getCreateTime()));
+        row.put("checkType", history.getCheckType());
+        row.put("modelId", history.getModelId());
+        row.put("modelName", history.getModelName());
+        row.put("score", history.getScore());
+        row.put("pointsCost", history.getPointsCost());
+        row.put("contentLength", history.getContentLength());
+        row.put("suggestionCount", history.getSuggestionCount());
+        row.put("summary", history.getSummary());
+        row.put("content", history.getContent());
+        row.put("checkResult", parseResult(history.getCheckResult()));
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    /**
+     * 检测结果按JSON对象输出，无法解析时按字符串输出
+     */
+    private Object parseResult(String checkResult) {
+        if (checkResult == null || checkResult.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(checkResult);
+        } catch (IOException e) {
+            return checkResult;
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 含逗号、引号、换行的值加引号；以=+-@开头的值前加单引号，避免Excel当作公式执行
+     */
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static String formatTime(Date time) {
+        return time == null ? null : TIME_FORMATTER.format(Instant.ofEpochMilli(time.getTime()).atZone(ZoneId.systemDefault()));
+    }
+
+    private static String toString(Integer value) {
+        return value == null ? null : value.toString();
+    }
+}
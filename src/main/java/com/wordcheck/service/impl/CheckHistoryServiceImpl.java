@@ -1,15 +1,32 @@
 package com.wordcheck.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.dictionary.InvertedIndex;
 import com.wordcheck.mapper.CheckHistoryMapper;
 import com.wordcheck.model.CheckHistoryEntity;
 import com.wordcheck.model.vo.CheckHistory;
+import com.wordcheck.model.vo.CursorPageResult;
+import com.wordcheck.model.vo.HistoryDeleteResult;
+import com.wordcheck.service.CheckHistoryArchiveService;
 import com.wordcheck.service.CheckHistoryService;
+import com.wordcheck.service.CheckHistoryWriter;
+import com.wordcheck.service.CheckStatsService;
+import com.wordcheck.service.HistoryDetailCache;
+import com.wordcheck.service.HistorySearchService;
+import com.wordcheck.service.UserHistoryStatService;
+import com.wordcheck.util.TimeOrderedIdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -25,12 +42,104 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private UserHistoryStatService userHistoryStatService;
+    
+    @Autowired
+    private CheckStatsService checkStatsService;
+    
+    @Autowired
+    private CheckHistoryArchiveService checkHistoryArchiveService;
+    
+    @Autowired
+    private CheckHistoryWriter checkHistoryWriter;
+    
+    @Autowired
+    private TimeOrderedIdGenerator timeOrderedIdGenerator;
+    
+    @Autowired
+    private HistorySearchService historySearchService;
+    
+    @Autowired
+    private HistoryDetailCache historyDetailCache;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    /**
+     * 批量删除后可以撤销的时间（秒）
+     */
+    @Value("${check-history.delete.undo-seconds:300}")
+    private int undoSeconds;
+    
+    /**
+     * 每批彻底删除的记录数
+     */
+    @Value("${check-history.delete.purge-batch-size:500}")
+    private int purgeBatchSize;
+    
+    /**
+     * 32位十六进制ID
+     */
+    private static final Pattern HEX_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+    
+    /**
+     * 游标分页每页最大记录数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    /**
+     * 摘要最大长度，与summary列长度一致
+     */
+    private static final int SUMMARY_MAX_LENGTH = 255;
+    
+    /**
+     * 列表中内容预览的字符数
+     */
+    private static final int PREVIEW_LENGTH = 50;
+    
+    @PostConstruct
+    public void init() {
+        // 异步写入多次失败被丢弃的记录已经放入详情缓存和搜索索引，需要一并移除
+        checkHistoryWriter.setDropListener(history -> {
+            historyDetailCache.invalidate(history.getId());
+            historySearchService.onDeleted(history.getUserId(), history.getId());
+        });
+    }
+    
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public String saveHistory(Integer userId, String content, Integer modelId, String modelName,
                               String checkType, Map<String, Object> result, Integer pointsCost) {
+        CheckHistoryEntity entity = doSaveHistory(userId, content, modelId, modelName, checkType, result, pointsCost);
+        return entity != null ? entity.getId() : null;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public CheckHistory saveAndGetHistory(Integer userId, String content, Integer modelId, String modelName,
+                                          String checkType, Map<String, Object> result, Integer pointsCost) {
+        CheckHistoryEntity entity = doSaveHistory(userId, content, modelId, modelName, checkType, result, pointsCost);
+        if (entity == null) {
+            return null;
+        }
+        // 直接用内存中的数据生成返回结果，不再读取数据库和解析JSON
+        CheckHistory history = convertBasic(entity);
+        fillFromResult(history, result);
+        // 结果页和历史页紧接着会读取同一条记录
+        historyDetailCache.put(history);
+        return history;
+    }
+    
+    /**
+     * 保存检测历史记录，启用异步写入时放入写入队列后立即返回
+     * @return 保存的实体，失败时返回null
+     */
+    private CheckHistoryEntity doSaveHistory(Integer userId, String content, Integer modelId, String modelName,
+                                             String checkType, Map<String, Object> result, Integer pointsCost) {
         try {
-            // 生成唯一ID
-            String id = UUID.randomUUID().toString().replace("-", "");
+            // 生成时间有序的唯一ID，插入时追加到主键索引末尾
+            String id = timeOrderedIdGenerator.nextId();
             
             // 计算内容长度
             int contentLength = content != null ? content.length() : 0;
@@ -92,6 +201,20 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
                 }
             }
             
+            // 摘要、内容预览和建议数单独保存，列表查询不需要读取内容和解析检测结果
+            String summary = null;
+            if (result != null && result.get("summary") != null) {
+                summary = truncate(result.get("summary").toString(), SUMMARY_MAX_LENGTH);
+            }
+            String contentPreview = null;
+            if (content != null) {
+                contentPreview = content.length() <= PREVIEW_LENGTH ? content : truncate(content, PREVIEW_LENGTH) + "...";
+            }
+            int suggestionCount = 0;
+            if (result != null && result.get("suggestions") instanceof List) {
+                suggestionCount = ((List<?>) result.get("suggestions")).size();
+            }
+            
             log.info("保存检测历史记录: 用户ID={}, 内容长度={}, 检测类型={}, 模型ID={}, 模型名称={}, 评分={}, 积分消耗={}",
                     userId, contentLength, checkType, modelId, modelName, score, pointsCost);
             
@@ -101,9 +224,12 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
                     .userId(userId)
                     .content(content)
                     .contentLength(contentLength)
+                    .contentPreview(contentPreview)
                     .checkType(checkType)
                     .modelId(modelId)
                     .modelName(modelName)
+                    .summary(summary)
+                    .suggestionCount(suggestionCount)
                     .checkResult(resultJson)
                     .score(score)
                     .pointsCost(pointsCost)
@@ -111,16 +237,29 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
                     .updateTime(new Date())
                     .build();
             
+            // 异步写入：写入数据库之前从内存中提供查询
+            if (checkHistoryWriter.submit(entity)) {
+                historySearchService.onSaved(entity);
+                log.info("检测历史记录已进入写入队列，ID: {}", id);
+                return entity;
+            }
+            
             int rows = checkHistoryMapper.insert(entity);
             if (rows > 0) {
+                checkHistoryMapper.insertDetail(entity);
+                // 详情、汇总与记录在同一事务中提交
+                userHistoryStatService.recordSaved(entity);
+                checkStatsService.recordSaved(entity);
+                historySearchService.onSaved(entity);
                 log.info("检测历史记录保存成功，ID: {}", id);
-                return id;
+                return entity;
             } else {
                 log.error("保存检测历史记录失败");
                 return null;
             }
         } catch (Exception e) {
             log.error("保存检测历史记录异常", e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return null;
         }
     }
@@ -132,18 +271,30 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
         }
         
         try {
-            CheckHistoryEntity entity = checkHistoryMapper.findById(id);
-            if (entity == null) {
-                return null;
+            // 尚未写入数据库的记录从写入队列中读取
+            CheckHistoryEntity entity = checkHistoryWriter.getPending(id);
+            if (entity != null) {
+                return convertToCheckHistory(entity);
             }
             
-            return convertToCheckHistory(entity);
+            return historyDetailCache.get(id, this::loadHistory);
         } catch (Exception e) {
             log.error("获取检测历史记录异常", e);
             return null;
         }
     }
     
+    /**
+     * 从数据库读取并解析检测历史详情，超过保留期的记录从归档表读取
+     */
+    private CheckHistory loadHistory(String id) {
+        CheckHistoryEntity entity = checkHistoryMapper.findById(id);
+        if (entity == null) {
+            entity = checkHistoryArchiveService.findArchived(id);
+        }
+        return entity != null ? convertToCheckHistory(entity) : null;
+    }
+    
     @Override
     public List<CheckHistory> getUserHistoryList(Integer userId, Integer page, Integer pageSize) {
         if (userId == null || userId <= 0) {
@@ -176,6 +327,86 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
         }
     }
     
+    @Override
+    public CursorPageResult<CheckHistory> getUserHistoryPage(Integer userId, String cursor, Integer pageSize) {
+        if (pageSize == null || pageSize < 1) {
+            pageSize = 10;
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        
+        CursorPageResult<CheckHistory> page = new CursorPageResult<>();
+        page.setSize(pageSize);
+        page.setRecords(Collections.emptyList());
+        page.setHasMore(false);
+        if (userId == null || userId <= 0) {
+            return page;
+        }
+        
+        // 游标解析失败直接抛出，由调用方返回参数错误
+        Date cursorTime = null;
+        String cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            Object[] decoded = decodeCursor(cursor);
+            cursorTime = (Date) decoded[0];
+            cursorId = (String) decoded[1];
+        }
+        
+        // 多查一条判断是否还有下一页
+        List<CheckHistoryEntity> entities = checkHistoryMapper.findByUserIdAfter(userId, cursorTime, cursorId, pageSize + 1);
+        if (entities == null || entities.isEmpty()) {
+            return page;
+        }
+        boolean hasMore = entities.size() > pageSize;
+        if (hasMore) {
+            entities = entities.subList(0, pageSize);
+        }
+        
+        page.setRecords(entities.stream()
+                .map(this::convertToListItem)
+                .collect(Collectors.toList()));
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            CheckHistoryEntity last = entities.get(entities.size() - 1);
+            page.setNextCursor(encodeCursor(last.getCreateTime(), last.getId()));
+        }
+        return page;
+    }
+    
+    @Override
+    public List<CheckHistory> searchUserHistory(Integer userId, String query, int limit) {
+        List<InvertedIndex.Hit> hits = historySearchService.search(userId, query, limit);
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        // 尚未写入数据库的记录从写入队列中读取，其余一次查询
+        Map<String, CheckHistoryEntity> entities = new HashMap<>();
+        List<String> ids = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            CheckHistoryEntity pendingEntity = checkHistoryWriter.getPending(hit.getDocId());
+            if (pendingEntity != null) {
+                entities.put(pendingEntity.getId(), pendingEntity);
+            } else {
+                ids.add(hit.getDocId());
+            }
+        }
+        if (!ids.isEmpty()) {
+            for (CheckHistoryEntity entity : checkHistoryMapper.findSummaryByIds(userId, ids)) {
+                entities.put(entity.getId(), entity);
+            }
+        }
+        
+        // 按相关度顺序返回，跳过索引中已不存在的记录
+        List<CheckHistory> result = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            CheckHistoryEntity entity = entities.get(hit.getDocId());
+            if (entity != null && Objects.equals(entity.getUserId(), userId)) {
+                result.add(convertToListItem(entity));
+            }
+        }
+        return result;
+    }
+    
     @Override
     public int getUserHistoryCount(Integer userId) {
         if (userId == null || userId <= 0) {
@@ -183,7 +414,8 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
         }
         
         try {
-            return checkHistoryMapper.countByUserId(userId);
+            // 读取维护的汇总计数，不再对check_history执行COUNT
+            return userHistoryStatService.getStats(userId).getHistoryCount();
         } catch (Exception e) {
             log.error("获取用户检测历史记录数量异常", e);
             return 0;
@@ -191,33 +423,197 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
     }
     
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean deleteHistory(String id, Integer userId) {
         if (id == null || id.isEmpty() || userId == null || userId <= 0) {
             return false;
         }
         
         try {
-            // 查询记录确认所有权
-            CheckHistoryEntity entity = checkHistoryMapper.findById(id);
-            if (entity == null) {
-                log.warn("要删除的检测历史记录不存在: {}", id);
-                return false;
+            // 尚未写入数据库的记录直接从写入队列中取消
+            CheckHistoryEntity pendingEntity = checkHistoryWriter.getPending(id);
+            if (pendingEntity != null) {
+                if (!Objects.equals(pendingEntity.getUserId(), userId)) {
+                    log.warn("用户({})无权删除检测历史记录: {}", userId, id);
+                    return false;
+                }
+                if (checkHistoryWriter.cancel(id)) {
+                    historyDetailCache.invalidate(id);
+                    historySearchService.onDeleted(userId, id);
+                    return true;
+                }
             }
             
-            if (!Objects.equals(entity.getUserId(), userId)) {
-                log.warn("用户({})无权删除检测历史记录: {}", userId, id);
+            // 一条UPDATE完成所有权校验和软删除，超过撤销期后由后台任务彻底删除
+            List<CheckHistoryEntity> deleted = softDelete(userId, Collections.singletonList(id),
+                    timeOrderedIdGenerator.nextId(), currentSecond());
+            if (deleted.isEmpty()) {
+                if (checkHistoryArchiveService.deleteArchived(id, userId)) {
+                    historyDetailCache.invalidate(id);
+                    return true;
+                }
+                log.warn("要删除的检测历史记录不存在或无权删除，用户: {}，ID: {}", userId, id);
                 return false;
             }
-            
-            // 执行删除
-            int rows = checkHistoryMapper.deleteById(id);
-            return rows > 0;
+            historyDetailCache.invalidate(id);
+            historySearchService.onDeleted(userId, id);
+            return true;
         } catch (Exception e) {
             log.error("删除检测历史记录异常", e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
     }
     
+    @Override
+    public HistoryDeleteResult deleteHistories(Integer userId, List<String> ids) {
+        HistoryDeleteResult result = new HistoryDeleteResult();
+        result.setDeletedCount(0);
+        if (userId == null || userId <= 0 || ids == null || ids.isEmpty()) {
+            return result;
+        }
+        List<String> distinctIds = ids.stream()
+                .filter(id -> id != null && !id.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return result;
+        }
+        
+        // 队列中尚未写入的记录先写入数据库，与其他记录一样可以撤销
+        for (String id : distinctIds) {
+            if (checkHistoryWriter.getPending(id) != null) {
+                checkHistoryWriter.flush();
+                break;
+            }
+        }
+        
+        String token = timeOrderedIdGenerator.nextId();
+        Date deletedAt = currentSecond();
+        List<CheckHistoryEntity> deleted = transactionTemplate.execute(
+                status -> softDelete(userId, distinctIds, token, deletedAt));
+        if (deleted == null || deleted.isEmpty()) {
+            return result;
+        }
+        for (CheckHistoryEntity entity : deleted) {
+            historyDetailCache.invalidate(entity.getId());
+            historySearchService.onDeleted(userId, entity.getId());
+        }
+        
+        result.setDeletedCount(deleted.size());
+        result.setUndoToken(token);
+        result.setUndoExpireTime(new Date(deletedAt.getTime() + undoSeconds * 1000L));
+        log.info("用户({})批量删除检测历史记录{}条，撤销令牌: {}", userId, deleted.size(), token);
+        return result;
+    }
+    
+    @Override
+    public int undoDelete(Integer userId, String undoToken) {
+        if (userId == null || userId <= 0 || undoToken == null || !HEX_ID_PATTERN.matcher(undoToken).matches()) {
+            return 0;
+        }
+        
+        Date since = new Date(System.currentTimeMillis() - undoSeconds * 1000L);
+        List<CheckHistoryEntity> restored = transactionTemplate.execute(status -> {
+            // 加锁读取，与后台彻底删除互斥：要么恢复，要么已被删除
+            List<CheckHistoryEntity> rows = checkHistoryMapper.findByDeleteToken(userId, undoToken, since);
+            if (rows.isEmpty()) {
+                return rows;
+            }
+            checkHistoryMapper.restoreByDeleteToken(userId, undoToken, since);
+            userHistoryStatService.recordSaved(rows);
+            checkStatsService.recordSaved(rows);
+            return rows;
+        });
+        if (restored == null || restored.isEmpty()) {
+            return 0;
+        }
+        // 搜索索引在下次搜索时重建
+        historySearchService.invalidate(userId);
+        log.info("用户({})撤销删除检测历史记录{}条，撤销令牌: {}", userId, restored.size(), undoToken);
+        return restored.size();
+    }
+    
+    @Override
+    public long purgeDeleted() {
+        Date before = new Date(System.currentTimeMillis() - undoSeconds * 1000L);
+        long total = 0;
+        int rows;
+        do {
+            // 每批一条DELETE语句（自动提交），不长时间持有锁
+            rows = checkHistoryMapper.purgeDeleted(before, purgeBatchSize);
+            total += rows;
+        } while (rows >= purgeBatchSize);
+        if (total > 0) {
+            log.info("彻底删除超过撤销期的检测历史记录{}条", total);
+        }
+        return total;
+    }
+    
+    /**
+     * 软删除用户的记录并扣减汇总，须在事务中调用
+     * @return 本次删除的记录
+     */
+    private List<CheckHistoryEntity> softDelete(Integer userId, List<String> ids, String token, Date deletedAt) {
+        int rows = checkHistoryMapper.softDeleteByIds(userId, ids, token, deletedAt);
+        if (rows == 0) {
+            return Collections.emptyList();
+        }
+        // 按令牌读回本次删除的记录，用于扣减汇总
+        List<CheckHistoryEntity> deleted = checkHistoryMapper.findByDeleteToken(userId, token, deletedAt);
+        userHistoryStatService.recordDeleted(deleted);
+        checkStatsService.recordDeleted(deleted);
+        return deleted;
+    }
+    
+    /**
+     * 当前时间，精确到秒，与DATETIME列保存的值一致
+     */
+    private static Date currentSecond() {
+        return new Date(System.currentTimeMillis() / 1000 * 1000);
+    }
+    
+    /**
+     * 截取前maxLength个字符，不拆开代理对
+     */
+    private static String truncate(String text, int maxLength) {
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        int end = maxLength;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+    
+    /**
+     * 生成游标：创建时间（毫秒）和ID，Base64编码后对客户端不透明
+     */
+    private static String encodeCursor(Date createTime, String id) {
+        String raw = createTime.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析游标
+     * @return [创建时间, ID]
+     */
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("游标格式不正确");
+            }
+            long millis = Long.parseLong(raw.substring(0, separator));
+            return new Object[]{new Date(millis), raw.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException和Base64解码错误都是IllegalArgumentException
+            throw new IllegalArgumentException("游标格式不正确");
+        }
+    }
+    
     /**
      * 转换为VO对象（完整数据）
      */
@@ -226,6 +622,25 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
             return null;
         }
         
+        // 解析检测结果JSON
+        Map<String, Object> result = null;
+        if (entity.getCheckResult() != null && !entity.getCheckResult().isEmpty()) {
+            try {
+                result = objectMapper.readValue(entity.getCheckResult(), Map.class);
+            } catch (Exception e) {
+                log.error("解析检测结果JSON失败", e);
+            }
+        }
+        
+        CheckHistory history = convertBasic(entity);
+        fillFromResult(history, result);
+        return history;
+    }
+    
+    /**
+     * 转换为VO对象（不含检测结果中的评价和建议）
+     */
+    private CheckHistory convertBasic(CheckHistoryEntity entity) {
         CheckHistory history = new CheckHistory();
         history.setId(entity.getId());
         history.setUserId(entity.getUserId());
@@ -238,32 +653,36 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
         history.setPointsCost(entity.getPointsCost());
         history.setCreateTime(entity.getCreateTime());
         history.setUpdateTime(entity.getUpdateTime());
+        history.setSummary(entity.getSummary());
+        history.setSuggestionCount(entity.getSuggestionCount());
+        return history;
+    }
+    
+    /**
+     * 从检测结果中提取评价、摘要和建议列表
+     */
+    private void fillFromResult(CheckHistory history, Map<String, Object> result) {
+        if (result == null) {
+            return;
+        }
         
-        // 解析检测结果JSON
-        if (entity.getCheckResult() != null && !entity.getCheckResult().isEmpty()) {
-            try {
-                Map<String, Object> result = objectMapper.readValue(entity.getCheckResult(), Map.class);
-                
-                // 提取评价和摘要
-                history.setEvaluation(result.containsKey("evaluation") ? result.get("evaluation").toString() : null);
-                history.setSummary(result.containsKey("summary") ? result.get("summary").toString() : null);
-                
-                // 提取建议列表
-                if (result.containsKey("suggestions") && result.get("suggestions") instanceof List) {
-                    List<String> suggestions = new ArrayList<>();
-                    ((List<?>) result.get("suggestions")).forEach(item -> {
-                        if (item != null) {
-                            suggestions.add(item.toString());
-                        }
-                    });
-                    history.setSuggestions(suggestions);
-                }
-            } catch (Exception e) {
-                log.error("解析检测结果JSON失败", e);
-            }
+        // 提取评价和摘要
+        history.setEvaluation(result.get("evaluation") != null ? result.get("evaluation").toString() : null);
+        if (result.get("summary") != null) {
+            history.setSummary(result.get("summary").toString());
         }
         
-        return history;
+        // 提取建议列表
+        if (result.get("suggestions") instanceof List) {
+            List<String> suggestions = new ArrayList<>();
+            ((List<?>) result.get("suggestions")).forEach(item -> {
+                if (item != null) {
+                    suggestions.add(item.toString());
+                }
+            });
+            history.setSuggestions(suggestions);
+            history.setSuggestionCount(suggestions.size());
+        }
     }
     
     /**
@@ -285,24 +704,10 @@ public class CheckHistoryServiceImpl implements CheckHistoryService {
         history.setPointsCost(entity.getPointsCost());
         history.setCreateTime(entity.getCreateTime());
         
-        // 设置内容摘要（如果content太大，只保存前50个字符）
-        if (entity.getContent() != null) {
-            if (entity.getContent().length() <= 50) {
-                history.setContentSummary(entity.getContent());
-            } else {
-                history.setContentSummary(entity.getContent().substring(0, 50) + "...");
-            }
-        }
-        
-        // 解析检测结果JSON，仅提取摘要
-        if (entity.getCheckResult() != null && !entity.getCheckResult().isEmpty()) {
-            try {
-                Map<String, Object> result = objectMapper.readValue(entity.getCheckResult(), Map.class);
-                history.setSummary(result.containsKey("summary") ? result.get("summary").toString() : null);
-            } catch (Exception e) {
-                log.error("解析检测结果JSON失败", e);
-            }
-        }
+        // 内容预览、摘要和建议数保存时已单独提取，不再读取内容或解析检测结果JSON
+        history.setContentSummary(entity.getContentPreview());
+        history.setSummary(entity.getSummary());
+        history.setSuggestionCount(entity.getSuggestionCount());
         
         return history;
     }
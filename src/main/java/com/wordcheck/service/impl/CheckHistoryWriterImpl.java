@@ -0,0 +1,419 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.mapper.CheckHistoryMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.service.CheckHistoryWriter;
+import com.wordcheck.service.CheckStatsService;
+import com.wordcheck.service.UserHistoryStatService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 检测历史写入器实现类
+ * 提交的检测历史放入队列，同时按ID保存在内存中供查询，后台线程每满N条或每隔T毫秒
+ * 在一个事务中批量写入记录、详情和汇总，提交后才从内存中移除。
+ * 逐条重试仍失败的记录留在内存中，下一轮再写入，超过重试次数后丢弃并通知调用方清理缓存和索引
+ */
+@Slf4j
+@Service
+public class CheckHistoryWriterImpl implements CheckHistoryWriter {
+
+    @Autowired
+    private CheckHistoryMapper checkHistoryMapper;
+
+    @Autowired
+    private UserHistoryStatService userHistoryStatService;
+
+    @Autowired
+    private CheckStatsService checkStatsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 是否启用异步写入，关闭时由调用方同步写入
+     */
+    @Value("${check-history.write-behind.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 队列容量（条）
+     */
+    @Value("${check-history.write-behind.capacity:2000}")
+    private int capacity;
+
+    /**
+     * 每批写入的最大条数
+     */
+    @Value("${check-history.write-behind.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * 最长写入间隔（毫秒）
+     */
+    @Value("${check-history.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    /**
+     * 写入失败的记录最多再重试的轮数
+     */
+    @Value("${check-history.write-behind.max-retries:3}")
+    private int maxRetries;
+
+    private final ConcurrentLinkedQueue<CheckHistoryEntity> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已提交、尚未写入数据库的检测历史
+     */
+    private final Map<String, CheckHistoryEntity> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 已占用的队列容量，入队前先通过CAS预留
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * 取出并写入一批期间持有，取消和手动刷新与正在写入的批次互斥
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * 写入失败、等待下一轮重试的记录，持有writeLock时访问
+     */
+    private final List<CheckHistoryEntity> retries = new ArrayList<>();
+
+    /**
+     * 记录ID到已失败次数，持有writeLock时访问
+     */
+    private final Map<String, Integer> failures = new HashMap<>();
+
+    private volatile Consumer<CheckHistoryEntity> dropListener;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    private final LongAdder enqueuedRows = new LongAdder();
+    private final LongAdder writtenRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+    private final LongAdder droppedRows = new LongAdder();
+    private final LongAdder rejectedRows = new LongAdder();
+    private final LongAdder cancelledRows = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("检测历史异步写入未启用，将同步写入");
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "check-history-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("检测历史异步写入已启动, 容量: {}, 批次大小: {}, 写入间隔: {}ms",
+                capacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写入线程退出后把剩余记录全部写完，失败的记录按重试次数再写几轮
+        flush();
+        for (int i = 0; i < maxRetries && hasRetries(); i++) {
+            flush();
+        }
+        log.info("检测历史写入器已关闭, 累计写入: {}条, 失败: {}次, 丢弃: {}条",
+                writtenRows.sum(), failedRows.sum(), droppedRows.sum());
+    }
+
+    @Override
+    public boolean submit(CheckHistoryEntity history) {
+        if (!running || history == null || history.getId() == null) {
+            return false;
+        }
+        if (!tryReserve()) {
+            // 队列已满时不等待，由调用方同步写入
+            rejectedRows.increment();
+            LockSupport.unpark(flusher);
+            return false;
+        }
+
+        pending.put(history.getId(), history);
+        queue.add(history);
+        enqueuedRows.increment();
+        if (depth.get() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    @Override
+    public CheckHistoryEntity getPending(String id) {
+        return id != null ? pending.get(id) : null;
+    }
+
+    @Override
+    public List<CheckHistoryEntity> listPending(Integer userId) {
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CheckHistoryEntity> result = new ArrayList<>();
+        for (CheckHistoryEntity history : pending.values()) {
+            if (history.getUserId() != null && history.getUserId().equals(userId)) {
+                result.add(history);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean cancel(String id) {
+        if (id == null || !pending.containsKey(id)) {
+            return false;
+        }
+        synchronized (writeLock) {
+            // 持有写锁时没有正在写入的批次：记录要么仍在队列中，要么已经提交
+            if (pending.remove(id) != null) {
+                cancelledRows.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public void setDropListener(Consumer<CheckHistoryEntity> listener) {
+        this.dropListener = listener;
+    }
+
+    @Override
+    public void flush() {
+        List<CheckHistoryEntity> batch = new ArrayList<>(batchSize);
+        synchronized (writeLock) {
+            writeRetries();
+            while (drain(batch) > 0) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long flushes = flushCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("queueDepth", depth.get());
+        stats.put("pending", pending.size());
+        synchronized (writeLock) {
+            stats.put("retrying", retries.size());
+        }
+        stats.put("capacity", capacity);
+        stats.put("enqueuedRows", enqueuedRows.sum());
+        stats.put("writtenRows", writtenRows.sum());
+        stats.put("failedRows", failedRows.sum());
+        stats.put("droppedRows", droppedRows.sum());
+        stats.put("rejectedRows", rejectedRows.sum());
+        stats.put("cancelledRows", cancelledRows.sum());
+        stats.put("flushCount", flushes);
+        stats.put("avgFlushMillis", flushes == 0 ? 0 : flushNanos.sum() / flushes / 1_000_000.0);
+        stats.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * 写入线程主循环：攒够一批或等待超时后写入
+     */
+    private void runFlushLoop() {
+        List<CheckHistoryEntity> batch = new ArrayList<>(batchSize);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            if (depth.get() < batchSize) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                synchronized (writeLock) {
+                    writeRetries();
+                    while (drain(batch) > 0) {
+                        writeBatch(batch);
+                        batch.clear();
+                        if (depth.get() < batchSize) {
+                            break;
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.error("检测历史写入线程异常", e);
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (depth.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 从队列取出一批，跳过已取消的记录
+     */
+    private int drain(List<CheckHistoryEntity> batch) {
+        int taken = 0;
+        CheckHistoryEntity history;
+        while (batch.size() < batchSize && (history = queue.poll()) != null) {
+            taken++;
+            if (pending.get(history.getId()) == history) {
+                batch.add(history);
+            }
+        }
+        depth.addAndGet(-taken);
+        return taken;
+    }
+
+    private boolean hasRetries() {
+        synchronized (writeLock) {
+            return !retries.isEmpty();
+        }
+    }
+
+    /**
+     * 重试上一轮写入失败的记录，跳过已取消的，须持有writeLock
+     */
+    private void writeRetries() {
+        if (retries.isEmpty()) {
+            return;
+        }
+        List<CheckHistoryEntity> batch = new ArrayList<>(retries.size());
+        for (CheckHistoryEntity history : retries) {
+            if (pending.get(history.getId()) == history) {
+                batch.add(history);
+            } else {
+                failures.remove(history.getId());
+            }
+        }
+        retries.clear();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            writeBatch(batch.subList(from, Math.min(from + batchSize, batch.size())));
+        }
+    }
+
+    /**
+     * 写入一批记录，须持有writeLock
+     */
+    private void writeBatch(List<CheckHistoryEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<CheckHistoryEntity> failed = new ArrayList<>();
+        Set<String> failedIds = new HashSet<>();
+        try {
+            insert(batch);
+            writtenRows.add(batch.size());
+        } catch (Exception e) {
+            // 整批失败时逐条重试，本身有问题的记录留到下一轮
+            log.warn("批量写入检测历史失败，逐条重试, 记录数: {}, 原因: {}", batch.size(), e.getMessage());
+            for (CheckHistoryEntity history : batch) {
+                try {
+                    insert(Collections.singletonList(history));
+                    writtenRows.increment();
+                } catch (Exception single) {
+                    failedRows.increment();
+                    failed.add(history);
+                    failedIds.add(history.getId());
+                    log.error("写入检测历史失败, ID: {}, 用户ID: {}", history.getId(), history.getUserId(), single);
+                }
+            }
+        } finally {
+            for (CheckHistoryEntity history : batch) {
+                if (!failedIds.contains(history.getId())) {
+                    pending.remove(history.getId(), history);
+                    failures.remove(history.getId());
+                }
+            }
+            for (CheckHistoryEntity history : failed) {
+                if (failures.merge(history.getId(), 1, Integer::sum) <= maxRetries) {
+                    retries.add(history);
+                } else {
+                    failures.remove(history.getId());
+                    drop(history);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            flushCount.increment();
+            flushNanos.add(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * 丢弃多次写入失败的记录，通知调用方清理已经放入缓存和索引的数据
+     */
+    private void drop(CheckHistoryEntity history) {
+        pending.remove(history.getId(), history);
+        droppedRows.increment();
+        log.error("检测历史多次写入失败，已丢弃, ID: {}, 用户ID: {}", history.getId(), history.getUserId());
+        Consumer<CheckHistoryEntity> listener = dropListener;
+        if (listener != null) {
+            try {
+                listener.accept(history);
+            } catch (Exception e) {
+                log.warn("清理丢弃的检测历史失败, ID: {}: {}", history.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 在一个事务中写入记录、详情和汇总
+     */
+    private void insert(List<CheckHistoryEntity> batch) {
+        transactionTemplate.execute(status -> {
+            checkHistoryMapper.batchInsert(batch);
+            checkHistoryMapper.batchInsertDetail(batch);
+            userHistoryStatService.recordSaved(batch);
+            checkStatsService.recordSaved(batch);
+            return null;
+        });
+    }
+}
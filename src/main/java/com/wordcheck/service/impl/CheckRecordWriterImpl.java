@@ -0,0 +1,276 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.mapper.CheckRecordMapper;
+import com.wordcheck.model.CheckRecord;
+import com.wordcheck.service.CheckRecordWriter;
+import com.wordcheck.service.WeakWordService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 单词检测记录写入器实现类
+ * 使用无锁队列加计数器实现有界缓冲，后台线程每满N条或每隔T毫秒批量写入一次
+ */
+@Slf4j
+@Service
+public class CheckRecordWriterImpl implements CheckRecordWriter {
+
+    @Autowired
+    private CheckRecordMapper checkRecordMapper;
+
+    @Autowired
+    private WeakWordService weakWordService;
+
+    /**
+     * 是否启用异步写入，关闭时直接同步写入
+     */
+    @Value("${word.check.record-writer.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 队列容量（条）
+     */
+    @Value("${word.check.record-writer.capacity:10000}")
+    private int capacity;
+
+    /**
+     * 每批写入的最大条数
+     */
+    @Value("${word.check.record-writer.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 最长写入间隔（毫秒）
+     */
+    @Value("${word.check.record-writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * 队列满时调用方最多等待的时间（毫秒）
+     */
+    @Value("${word.check.record-writer.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private final ConcurrentLinkedQueue<CheckRecord> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已占用的队列容量，入队前先通过CAS预留
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private volatile boolean running;
+
+    /**
+     * 入队持有读锁，停止时持有写锁：停止之后不会再有记录入队，写入线程退出前的最后一次写入不会漏掉记录
+     */
+    private final ReentrantReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+    private Thread flusher;
+
+    private final LongAdder enqueuedRows = new LongAdder();
+    private final LongAdder writtenRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+    private final LongAdder directRows = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("单词检测记录异步写入未启用，将同步写入");
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "check-record-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("单词检测记录异步写入已启动, 容量: {}, 批次大小: {}, 写入间隔: {}ms",
+                capacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        // 剩余记录由写入线程退出前写完，不在这里与写入线程同时写入
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("单词检测记录写入线程未在10秒内退出，剩余{}条仍由其继续写入", depth.get());
+            return;
+        }
+        log.info("单词检测记录写入器已关闭, 累计写入: {}条, 失败: {}条", writtenRows.sum(), failedRows.sum());
+    }
+
+    @Override
+    public void submit(List<CheckRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        if (!enqueue(records)) {
+            writeDirect(records);
+        }
+    }
+
+    @Override
+    public void flush() {
+        List<CheckRecord> batch = new ArrayList<>(batchSize);
+        while (drain(batch) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long flushes = flushCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("queueDepth", depth.get());
+        stats.put("capacity", capacity);
+        stats.put("enqueuedRows", enqueuedRows.sum());
+        stats.put("writtenRows", writtenRows.sum());
+        stats.put("failedRows", failedRows.sum());
+        stats.put("directRows", directRows.sum());
+        stats.put("flushCount", flushes);
+        stats.put("avgFlushMillis", flushes == 0 ? 0 : flushNanos.sum() / flushes / 1_000_000.0);
+        stats.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * 写入线程主循环：攒够一批或等待超时后写入，停止后写完剩余记录再退出
+     */
+    private void runFlushLoop() {
+        List<CheckRecord> batch = new ArrayList<>(batchSize);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            if (depth.get() < batchSize) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                while (drain(batch) > 0) {
+                    writeBatch(batch);
+                    batch.clear();
+                    if (depth.get() < batchSize) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("单词检测记录写入线程异常", e);
+                batch.clear();
+            }
+        }
+        // 已停止入队，退出前把剩余记录全部写完
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("单词检测记录写入线程退出前写入失败", e);
+        }
+    }
+
+    /**
+     * 放入队列，写入器已停止或队列满等待超时返回false，由调用线程自己写入
+     */
+    private boolean enqueue(List<CheckRecord> records) {
+        int size = records.size();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            while (!tryReserve(size)) {
+                // 背压：唤醒写入线程腾出空间
+                LockSupport.unpark(flusher);
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            queue.addAll(records);
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        enqueuedRows.add(size);
+        if (depth.get() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    private boolean tryReserve(int size) {
+        while (true) {
+            int current = depth.get();
+            if (current + size > capacity && current > 0) {
+                return false;
+            }
+            if (depth.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    private int drain(List<CheckRecord> batch) {
+        CheckRecord record;
+        while (batch.size() < batchSize && (record = queue.poll()) != null) {
+            batch.add(record);
+        }
+        depth.addAndGet(-batch.size());
+        return batch.size();
+    }
+
+    private void writeBatch(List<CheckRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            checkRecordMapper.batchInsert(batch);
+            writtenRows.add(batch.size());
+        } catch (Exception e) {
+            failedRows.add(batch.size());
+            log.error("批量写入单词检测记录失败, 记录数: {}", batch.size(), e);
+            return;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushCount.increment();
+            flushNanos.add(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        }
+        // 记录写入成功后再累加用户单词统计
+        weakWordService.recordChecks(batch);
+    }
+
+    private void writeDirect(List<CheckRecord> records) {
+        directRows.add(records.size());
+        for (int from = 0; from < records.size(); from += batchSize) {
+            writeBatch(records.subList(from, Math.min(records.size(), from + batchSize)));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.mapper.UserDailyCheckStatMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.model.UserDailyCheckStat;
+import com.wordcheck.model.vo.CheckStatsVO;
+import com.wordcheck.service.CheckStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 检测统计服务实现类
+ */
+@Slf4j
+@Service
+public class CheckStatsServiceImpl implements CheckStatsService {
+
+    @Autowired
+    private UserDailyCheckStatMapper userDailyCheckStatMapper;
+
+    @Override
+    public void recordSaved(CheckHistoryEntity history) {
+        UserDailyCheckStat delta = delta(history, 1);
+        if (delta != null) {
+            userDailyCheckStatMapper.upsertDelta(delta);
+        }
+    }
+
+    @Override
+    public void recordDeleted(CheckHistoryEntity history) {
+        UserDailyCheckStat delta = delta(history, -1);
+        if (delta != null) {
+            userDailyCheckStatMapper.upsertDelta(delta);
+        }
+    }
+
+    @Override
+    public void recordSaved(List<CheckHistoryEntity> histories) {
+        applyAll(histories, 1);
+    }
+
+    @Override
+    public void recordDeleted(List<CheckHistoryEntity> histories) {
+        applyAll(histories, -1);
+    }
+
+    @Override
+    public CheckStatsVO getUserStats(Integer userId, int days) {
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = today.minusDays(days - 1L);
+        List<UserDailyCheckStat> rows = userDailyCheckStatMapper.findByUserIdSince(userId, Date.valueOf(fromDate));
+
+        // 按日期合并各模型的行，按模型合并各日期的行
+        Map<LocalDate, long[]> byDate = new HashMap<>();
+        Map<Integer, CheckStatsVO.ModelUsageVO> byModel = new LinkedHashMap<>();
+        int totalChecks = 0;
+        int scoredChecks = 0;
+        long scoreSum = 0;
+        long pointsCost = 0;
+        for (UserDailyCheckStat row : rows) {
+            if (row.getCheckCount() == null || row.getCheckCount() <= 0) {
+                continue;
+            }
+            LocalDate date = Instant.ofEpochMilli(row.getStatDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+            long[] day = byDate.computeIfAbsent(date, d -> new long[3]);
+            day[0] += row.getCheckCount();
+            day[1] += row.getScoredCount();
+            day[2] += row.getScoreSum();
+
+            CheckStatsVO.ModelUsageVO model = byModel.get(row.getModelId());
+            if (model == null) {
+                model = new CheckStatsVO.ModelUsageVO();
+                model.setModelId(row.getModelId());
+                model.setCheckCount(0);
+                byModel.put(row.getModelId(), model);
+            }
+            model.setCheckCount(model.getCheckCount() + row.getCheckCount());
+            if (row.getModelName() != null) {
+                model.setModelName(row.getModelName());
+            }
+
+            totalChecks += row.getCheckCount();
+            scoredChecks += row.getScoredCount();
+            scoreSum += row.getScoreSum();
+            pointsCost += row.getPointsCostSum();
+        }
+
+        List<CheckStatsVO.DailyCheckVO> daily = new ArrayList<>(days);
+        for (LocalDate date = fromDate; !date.isAfter(today); date = date.plusDays(1)) {
+            long[] day = byDate.get(date);
+            CheckStatsVO.DailyCheckVO vo = new CheckStatsVO.DailyCheckVO();
+            vo.setDate(date.toString());
+            vo.setCheckCount(day != null ? (int) day[0] : 0);
+            vo.setAverageScore(day != null ? average(day[2], day[1]) : null);
+            daily.add(vo);
+        }
+
+        List<CheckStatsVO.ModelUsageVO> models = new ArrayList<>(byModel.values());
+        models.sort((a, b) -> Integer.compare(b.getCheckCount(), a.getCheckCount()));
+
+        CheckStatsVO stats = new CheckStatsVO();
+        stats.setDays(days);
+        stats.setTotalChecks(totalChecks);
+        stats.setScoredChecks(scoredChecks);
+        stats.setAverageScore(average(scoreSum, scoredChecks));
+        stats.setTotalPointsCost(pointsCost);
+        stats.setActiveDays(byDate.size());
+        stats.setDaily(daily);
+        stats.setModels(models);
+        return stats;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int reconcile(LocalDate date) {
+        Date statDate = Date.valueOf(date);
+        userDailyCheckStatMapper.deleteByDate(statDate);
+        int rows = userDailyCheckStatMapper.rebuildByDate(statDate);
+        log.info("校正{}的检测统计完成，汇总行数: {}", date, rows);
+        return rows;
+    }
+
+    private void applyAll(List<CheckHistoryEntity> histories, int sign) {
+        Map<String, UserDailyCheckStat> merged = new LinkedHashMap<>();
+        for (CheckHistoryEntity history : histories) {
+            UserDailyCheckStat delta = delta(history, sign);
+            if (delta == null) {
+                continue;
+            }
+            LocalDate date = Instant.ofEpochMilli(delta.getStatDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+            String key = delta.getUserId() + "|" + date + "|" + delta.getModelId();
+            merged.merge(key, delta, (a, b) -> UserDailyCheckStat.builder()
+                    .userId(a.getUserId())
+                    .statDate(a.getStatDate())
+                    .modelId(a.getModelId())
+                    .modelName(a.getModelName() != null ? a.getModelName() : b.getModelName())
+                    .checkCount(a.getCheckCount() + b.getCheckCount())
+                    .scoredCount(a.getScoredCount() + b.getScoredCount())
+                    .scoreSum(a.getScoreSum() + b.getScoreSum())
+                    .pointsCostSum(a.getPointsCostSum() + b.getPointsCostSum())
+                    .build());
+        }
+        for (UserDailyCheckStat delta : merged.values()) {
+            userDailyCheckStatMapper.upsertDelta(delta);
+        }
+    }
+
+    /**
+     * 平均值保留一位小数，没有数据时返回null
+     */
+    private static Double average(long sum, long count) {
+        if (count <= 0) {
+            return null;
+        }
+        return Math.round(sum * 10.0 / count) / 10.0;
+    }
+
+    private static UserDailyCheckStat delta(CheckHistoryEntity history, int sign) {
+        if (history == null || history.getUserId() == null || history.getCreateTime() == null) {
+            return null;
+        }
+        boolean scored = history.getScore() != null;
+        return UserDailyCheckStat.builder()
+                .userId(history.getUserId())
+                .statDate(history.getCreateTime())
+                .modelId(history.getModelId() != null ? history.getModelId() : 0)
+                .modelName(history.getModelName())
+                .checkCount(sign)
+                .scoredCount(scored ? sign : 0)
+                .scoreSum(scored ? (long) sign * history.getScore() : 0L)
+                .pointsCostSum(history.getPointsCost() != null ? (long) sign * history.getPointsCost() : 0L)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.dictionary.AnalyzedText;
+import com.wordcheck.dictionary.ConfusionDetector;
+import com.wordcheck.dictionary.NgramModel;
+import com.wordcheck.model.dto.GrammarHintDTO;
+import com.wordcheck.service.GrammarHintService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 语法提示服务实现类
+ * 模型文件不存在时服务不可用，检查接口返回空列表
+ */
+@Slf4j
+@Service
+public class GrammarHintServiceImpl implements GrammarHintService {
+
+    /**
+     * ARPA格式的语言模型文件路径
+     */
+    @Value("${word.ngram.model-path:}")
+    private String modelPath;
+
+    /**
+     * 替换词的句子对数概率至少高出该值才提示
+     */
+    @Value("${word.ngram.min-gain:1.0}")
+    private float minGain;
+
+    private volatile NgramModel model;
+
+    private volatile ConfusionDetector detector;
+
+    private long loadMillis;
+
+    @PostConstruct
+    public void init() {
+        if (modelPath == null || modelPath.trim().isEmpty()) {
+            log.info("未配置n元语言模型，语法提示不可用");
+            return;
+        }
+        Path file = Paths.get(modelPath.trim());
+        if (!Files.exists(file)) {
+            log.warn("n元语言模型文件不存在，语法提示不可用: {}", file);
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            NgramModel loaded = NgramModel.load(file);
+            this.loadMillis = (System.nanoTime() - start) / 1_000_000;
+            this.model = loaded;
+            this.detector = new ConfusionDetector(loaded, minGain);
+            log.info("n元语言模型加载完成: {}, 阶数: {}, 词表: {}, n元组: {}, 耗时: {}ms, 内存估算: {}KB",
+                    file, loaded.getOrder(), loaded.getVocabularySize(), loaded.getNgramCount(),
+                    loadMillis, loaded.estimateMemoryBytes() / 1024);
+        } catch (Exception e) {
+            log.error("加载n元语言模型失败，语法提示不可用: {}", file, e);
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return detector != null;
+    }
+
+    @Override
+    public List<GrammarHintDTO> check(String text) {
+        if (detector == null || text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return check(AnalyzedText.analyze(text));
+    }
+
+    @Override
+    public List<GrammarHintDTO> check(AnalyzedText text) {
+        ConfusionDetector current = detector;
+        if (current == null || text == null) {
+            return Collections.emptyList();
+        }
+        List<GrammarHintDTO> hints = new ArrayList<>();
+        for (int s = 0; s < text.sentenceCount(); s++) {
+            checkSentence(current, text, text.sentenceTokenStart(s), text.sentenceTokenEnd(s), hints);
+        }
+        return hints;
+    }
+
+    @Override
+    public Map<String, Object> getModelStats() {
+        NgramModel current = model;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("available", current != null);
+        if (current != null) {
+            stats.put("order", current.getOrder());
+            stats.put("vocabularySize", current.getVocabularySize());
+            stats.put("ngramCount", current.getNgramCount());
+            stats.put("estimatedMemoryBytes", current.estimateMemoryBytes());
+            stats.put("loadMillis", loadMillis);
+        }
+        return stats;
+    }
+
+    private void checkSentence(ConfusionDetector current, AnalyzedText text, int from, int to,
+                               List<GrammarHintDTO> hints) {
+        String[] words = new String[to - from];
+        for (int i = from; i < to; i++) {
+            words[i - from] = text.normalizedToken(i);
+        }
+        for (ConfusionDetector.Hint hint : current.detect(words)) {
+            int index = from + hint.getIndex();
+            GrammarHintDTO dto = new GrammarHintDTO();
+            dto.setWord(text.token(index));
+            dto.setOffset(text.tokenStart(index));
+            dto.setLength(text.tokenEnd(index) - text.tokenStart(index));
+            dto.setSuggestion(hint.getReplacement());
+            dto.setConfidence(Math.round(hint.getGain() * 100) / 100.0);
+            dto.setMessage("\"" + dto.getWord() + "\" 在此处可能应为 \"" + hint.getReplacement() + "\"");
+            hints.add(dto);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.model.vo.CheckHistory;
+import com.wordcheck.service.HistoryDetailCache;
+import com.wordcheck.util.CompressionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 检测历史详情缓存实现类
+ * 详情以紧凑的二进制形式保存，超过阈值时再压缩，读取时解码为新对象，调用方修改不影响缓存。
+ * 按最近访问顺序淘汰，总字节数不超过上限
+ */
+@Slf4j
+@Service
+public class HistoryDetailCacheImpl implements HistoryDetailCache {
+
+    /**
+     * 每条缓存除数据外的估算开销（条目对象、链表节点、ID字符串）
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * 是否启用缓存
+     */
+    @Value("${check-history.detail-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 缓存占用的最大字节数
+     */
+    @Value("${check-history.detail-cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    /**
+     * 编码后超过该字节数时压缩保存
+     */
+    @Value("${check-history.detail-cache.compress-threshold:1024}")
+    private int compressThreshold;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final Map<Integer, Set<String>> idsByUser = new HashMap<>();
+
+    private long usedBytes;
+
+    private int compressedEntries;
+
+    /**
+     * 每次失效时递增；加载期间有失效时不放入缓存
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder rawBytes = new LongAdder();
+
+    private final LongAdder storedBytes = new LongAdder();
+
+    @Override
+    public CheckHistory get(String id) {
+        if (!enabled || id == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(id);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        try {
+            CheckHistory history = decode(entry.compressed ? CompressionUtil.decompressBytes(entry.data) : entry.data);
+            hits.increment();
+            return history;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("检测历史详情缓存解码失败，ID: {}", id, e);
+            invalidate(id);
+            misses.increment();
+            return null;
+        }
+    }
+
+    @Override
+    public CheckHistory get(String id, Function<String, CheckHistory> loader) {
+        CheckHistory cached = get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long version = invalidationVersion.get();
+        CheckHistory history = loader.apply(id);
+        if (history != null) {
+            put(history, version);
+        }
+        return history;
+    }
+
+    @Override
+    public void put(CheckHistory history) {
+        put(history, -1);
+    }
+
+    /**
+     * 放入缓存
+     * @param version 加载前的失效版本，之后有记录失效时不放入；-1表示不检查
+     */
+    private void put(CheckHistory history, long version) {
+        if (!enabled || history == null || history.getId() == null) {
+            return;
+        }
+        byte[] data;
+        try {
+            data = encode(history);
+        } catch (IOException e) {
+            log.warn("检测历史详情缓存编码失败，ID: {}", history.getId(), e);
+            return;
+        }
+        int rawLength = data.length;
+        boolean compressed = false;
+        if (data.length > compressThreshold) {
+            byte[] packed = CompressionUtil.compressBytes(data);
+            if (packed.length < data.length) {
+                data = packed;
+                compressed = true;
+            }
+        }
+        Entry entry = new Entry(history.getUserId(), data, compressed);
+        if (entry.weight() > maxBytes / 8) {
+            // 单条过大时不缓存，避免挤掉大量其他记录
+            return;
+        }
+
+        synchronized (this) {
+            if (version >= 0 && invalidationVersion.get() != version) {
+                return;
+            }
+            removeEntry(history.getId());
+            entries.put(history.getId(), entry);
+            usedBytes += entry.weight();
+            if (compressed) {
+                compressedEntries++;
+            }
+            if (entry.userId != null) {
+                idsByUser.computeIfAbsent(entry.userId, k -> new HashSet<>()).add(history.getId());
+            }
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, Entry> eldest = iterator.next();
+                iterator.remove();
+                forget(eldest.getKey(), eldest.getValue());
+                evictions.increment();
+            }
+        }
+        puts.increment();
+        rawBytes.add(rawLength);
+        storedBytes.add(data.length);
+    }
+
+    @Override
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (this) {
+            invalidationVersion.incrementAndGet();
+            removeEntry(id);
+        }
+    }
+
+    @Override
+    public void invalidateUser(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (this) {
+            invalidationVersion.incrementAndGet();
+            Set<String> ids = idsByUser.get(userId);
+            if (ids == null) {
+                return;
+            }
+            for (String id : new ArrayList<>(ids)) {
+                removeEntry(id);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long raw = rawBytes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("compressedEntries", compressedEntries);
+            stats.put("usedBytes", usedBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        stats.put("puts", puts.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("compressionRatio", raw == 0 ? 1 : (double) storedBytes.sum() / raw);
+        return stats;
+    }
+
+    /**
+     * 删除一条缓存，须持有锁
+     */
+    private void removeEntry(String id) {
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            forget(id, removed);
+        }
+    }
+
+    /**
+     * 扣减已从entries中移除的缓存占用，须持有锁
+     */
+    private void forget(String id, Entry entry) {
+        usedBytes -= entry.weight();
+        if (entry.compressed) {
+            compressedEntries--;
+        }
+        if (entry.userId != null) {
+            Set<String> ids = idsByUser.get(entry.userId);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsByUser.remove(entry.userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 按固定字段顺序编码，每个字段前有一个是否为null的标记
+     */
+    static byte[] encode(CheckHistory history) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeString(out, history.getId());
+        writeInteger(out, history.getUserId());
+        writeString(out, history.getContent());
+        writeString(out, history.getContentSummary());
+        writeInteger(out, history.getContentLength());
+        writeString(out, history.getCheckType());
+        writeInteger(out, history.getModelId());
+        writeString(out, history.getModelName());
+        writeInteger(out, history.getScore());
+        writeString(out, history.getSummary());
+        writeString(out, history.getEvaluation());
+        List<String> suggestions = history.getSuggestions();
+        out.writeInt(suggestions == null ? -1 : suggestions.size());
+        if (suggestions != null) {
+            for (String suggestion : suggestions) {
+                writeString(out, suggestion);
+            }
+        }
+        writeInteger(out, history.getSuggestionCount());
+        writeInteger(out, history.getPointsCost());
+        writeDate(out, history.getCreateTime());
+        writeDate(out, history.getUpdateTime());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static CheckHistory decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        CheckHistory history = new CheckHistory();
+        history.setId(readString(in));
+        history.setUserId(readInteger(in));
+        history.setContent(readString(in));
+        history.setContentSummary(readString(in));
+        history.setContentLength(readInteger(in));
+        history.setCheckType(readString(in));
+        history.setModelId(readInteger(in));
+        history.setModelName(readString(in));
+        history.setScore(readInteger(in));
+        history.setSummary(readString(in));
+        history.setEvaluation(readString(in));
+        int suggestionCount = in.readInt();
+        if (suggestionCount >= 0) {
+            List<String> suggestions = new ArrayList<>(suggestionCount);
+            for (int i = 0; i < suggestionCount; i++) {
+                suggestions.add(readString(in));
+            }
+            history.setSuggestions(suggestions);
+        }
+        history.setSuggestionCount(readInteger(in));
+        history.setPointsCost(readInteger(in));
+        history.setCreateTime(readDate(in));
+        history.setUpdateTime(readDate(in));
+        return history;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    /**
+     * 一条缓存
+     */
+    private static final class Entry {
+        final Integer userId;
+        final byte[] data;
+        final boolean compressed;
+
+        Entry(Integer userId, byte[] data, boolean compressed) {
+            this.userId = userId;
+            this.data = data;
+            this.compressed = compressed;
+        }
+
+        long weight() {
+            return ENTRY_OVERHEAD + data.length;
+        }
+    }
+}
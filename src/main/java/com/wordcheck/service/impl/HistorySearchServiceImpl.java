@@ -0,0 +1,204 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.dictionary.InvertedIndex;
+import com.wordcheck.mapper.CheckHistoryMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.service.CheckHistoryWriter;
+import com.wordcheck.service.HistorySearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 检测历史搜索服务实现类
+ * 索引内容为检测内容和结果摘要；只为搜索过的用户保存索引，超过上限时淘汰最久未访问的用户。
+ * 首次搜索时先放入空索引再逐行读取构建，构建期间的保存、删除直接作用于该索引，不阻塞其他用户
+ */
+@Slf4j
+@Service
+public class HistorySearchServiceImpl implements HistorySearchService {
+
+    @Autowired
+    private CheckHistoryMapper checkHistoryMapper;
+
+    @Autowired
+    private CheckHistoryWriter checkHistoryWriter;
+
+    /**
+     * 内存中最多保存索引的用户数
+     */
+    @Value("${check-history.search.max-cached-users:1000}")
+    private int maxCachedUsers;
+
+    private final Map<Integer, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    @Override
+    public void onSaved(CheckHistoryEntity history) {
+        if (history == null || history.getUserId() == null) {
+            return;
+        }
+        UserIndex userIndex = indexes.get(history.getUserId());
+        if (userIndex != null) {
+            userIndex.add(history);
+        }
+    }
+
+    @Override
+    public void onDeleted(Integer userId, String historyId) {
+        if (userId == null || historyId == null) {
+            return;
+        }
+        UserIndex userIndex = indexes.get(userId);
+        if (userIndex != null) {
+            userIndex.remove(historyId);
+        }
+    }
+
+    @Override
+    public List<InvertedIndex.Hit> search(Integer userId, String query, int limit) {
+        if (userId == null || userId <= 0 || query == null || query.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        UserIndex userIndex = getIndex(userId);
+        return userIndex.search(query, limit);
+    }
+
+    @Override
+    public void invalidate(Integer userId) {
+        indexes.remove(userId);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long documents = 0;
+        long memoryBytes = 0;
+        for (UserIndex userIndex : indexes.values()) {
+            synchronized (userIndex) {
+                documents += userIndex.index.size();
+                memoryBytes += userIndex.index.estimateMemoryBytes();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedUsers", indexes.size());
+        stats.put("maxCachedUsers", maxCachedUsers);
+        stats.put("documents", documents);
+        stats.put("estimatedMemoryKB", memoryBytes / 1024);
+        return stats;
+    }
+
+    /**
+     * 获取用户索引，首次访问时从检测历史和写入队列构建；同一用户的并发搜索等待同一次构建
+     */
+    private UserIndex getIndex(Integer userId) {
+        UserIndex userIndex = indexes.get(userId);
+        if (userIndex == null) {
+            UserIndex created = new UserIndex();
+            created.lastAccess = System.currentTimeMillis();
+            userIndex = indexes.putIfAbsent(userId, created);
+            if (userIndex == null) {
+                userIndex = created;
+                evictIfNecessary();
+                buildIndex(userId, created);
+            }
+        }
+        userIndex.loaded.join();
+        userIndex.lastAccess = System.currentTimeMillis();
+        return userIndex;
+    }
+
+    private void buildIndex(Integer userId, UserIndex userIndex) {
+        long start = System.currentTimeMillis();
+        try {
+            checkHistoryMapper.streamSearchTextByUserId(userId, context -> userIndex.load(context.getResultObject()));
+            // 尚未写入数据库的记录
+            for (CheckHistoryEntity history : checkHistoryWriter.listPending(userId)) {
+                userIndex.load(history);
+            }
+        } catch (RuntimeException | Error e) {
+            indexes.remove(userId, userIndex);
+            userIndex.loaded.completeExceptionally(e);
+            throw e;
+        }
+        userIndex.finishLoading();
+        log.debug("构建检测历史搜索索引, userId: {}, 记录数: {}, 耗时: {}ms",
+                userId, userIndex.index.size(), System.currentTimeMillis() - start);
+    }
+
+    private void evictIfNecessary() {
+        if (indexes.size() <= maxCachedUsers) {
+            return;
+        }
+        Integer oldestUser = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<Integer, UserIndex> entry : indexes.entrySet()) {
+            if (entry.getValue().lastAccess < oldestAccess) {
+                oldestAccess = entry.getValue().lastAccess;
+                oldestUser = entry.getKey();
+            }
+        }
+        if (oldestUser != null) {
+            indexes.remove(oldestUser);
+        }
+    }
+
+    /**
+     * 单个用户的索引
+     */
+    private static final class UserIndex {
+        final InvertedIndex index = new InvertedIndex();
+        volatile long lastAccess;
+
+        /**
+         * 构建完成后完成，构建失败时异常完成
+         */
+        final CompletableFuture<Void> loaded = new CompletableFuture<>();
+
+        /**
+         * 构建期间删除的记录ID，构建读到时跳过（读取开始时记录可能尚未删除）；构建完成后为null
+         */
+        private Set<String> removedWhileLoading = new HashSet<>();
+
+        /**
+         * 加入构建时读到的记录，构建期间已删除的跳过；构建期间保存的记录再次读到时覆盖为相同内容
+         */
+        synchronized void load(CheckHistoryEntity history) {
+            if (removedWhileLoading == null || !removedWhileLoading.contains(history.getId())) {
+                add(history);
+            }
+        }
+
+        synchronized void finishLoading() {
+            removedWhileLoading = null;
+            loaded.complete(null);
+        }
+
+        synchronized void add(CheckHistoryEntity history) {
+            String text = history.getContent();
+            if (history.getSummary() != null) {
+                text = text != null ? text + "\n" + history.getSummary() : history.getSummary();
+            }
+            index.add(history.getId(), text);
+        }
+
+        synchronized void remove(String historyId) {
+            index.remove(historyId);
+            if (removedWhileLoading != null) {
+                removedWhileLoading.add(historyId);
+            }
+        }
+
+        synchronized List<InvertedIndex.Hit> search(String query, int limit) {
+            return index.search(query, limit);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.wordcheck.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.common.ApiResponse;
+import com.wordcheck.mapper.IdempotencyKeyMapper;
+import com.wordcheck.model.IdempotencyRecord;
+import com.wordcheck.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 幂等键服务实现类
+ * 本机内存中按插入顺序保存有限个幂等键：处理中的条目带一个Future，同一实例上的重复请求直接等待它；
+ * 本机没有的幂等键用INSERT IGNORE登记到数据库，登记失败说明其他实例或重启前已经处理过，
+ * 已完成的直接返回保存的结果，处理中的轮询等待
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    /**
+     * 等待其他实例处理时的轮询间隔（毫秒）
+     */
+    private static final long POLL_INTERVAL_MS = 200;
+
+    @Autowired
+    private IdempotencyKeyMapper idempotencyKeyMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 已完成结果的保存时间（秒）
+     */
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    /**
+     * 处理中的幂等键超过该时间（秒）视为处理方已失败，可以重新执行
+     */
+    @Value("${idempotency.processing-timeout-seconds:600}")
+    private long processingTimeoutSeconds;
+
+    /**
+     * 重复请求等待第一次请求完成的最长时间（毫秒）
+     */
+    @Value("${idempotency.wait-timeout-ms:60000}")
+    private long waitTimeoutMs;
+
+    /**
+     * 内存中保存的最大幂等键数
+     */
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * 每批删除的过期幂等键数
+     */
+    @Value("${idempotency.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    private Map<String, Entry> entries;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder databaseReplayed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder databaseErrors = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // 被挤出的处理中条目仍有数据库记录兜底
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public <T> ApiResponse<T> execute(Integer userId, String scope, String key, Object request,
+                                      Class<?> bodyType, Supplier<ApiResponse<T>> action) {
+        if (key == null || key.trim().isEmpty()) {
+            return action.get();
+        }
+        String idemKey = key.trim();
+        if (idemKey.length() > MAX_KEY_LENGTH) {
+            return ApiResponse.error(400, HEADER + "不能超过" + MAX_KEY_LENGTH + "个字符");
+        }
+        String requestHash = hash(request);
+        JavaType responseType = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, bodyType);
+        String localKey = userId + ":" + scope + ":" + idemKey;
+
+        Entry entry = new Entry(requestHash);
+        Entry existing;
+        synchronized (entries) {
+            existing = entries.get(localKey);
+            if (existing != null && existing.isExpired(System.currentTimeMillis())) {
+                entries.remove(localKey);
+                existing = null;
+            }
+            if (existing == null) {
+                entries.put(localKey, entry);
+            }
+        }
+        if (existing != null) {
+            return awaitLocal(existing, requestHash, responseType);
+        }
+
+        // 本机第一次遇到该幂等键，到数据库登记；数据库不可用时只靠本机内存去重
+        boolean claimed = false;
+        try {
+            long deadline = System.currentTimeMillis() + waitTimeoutMs;
+            while (true) {
+                IdempotencyRecord record = claim(userId, scope, idemKey, requestHash);
+                if (record == null) {
+                    claimed = true;
+                    break;
+                }
+                if (!requestHash.equals(record.getRequestHash())) {
+                    conflicts.increment();
+                    return finish(localKey, entry, conflict(), null);
+                }
+                if (IdempotencyRecord.STATUS_COMPLETED.equals(record.getStatus())) {
+                    databaseReplayed.increment();
+                    return finish(localKey, entry, readResponse(record.getResponseBody(), responseType),
+                            record.getExpireTime().getTime());
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    return finish(localKey, entry, inProgress(), null);
+                }
+                waited.increment();
+                Thread.sleep(POLL_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return finish(localKey, entry, inProgress(), null);
+        } catch (Exception e) {
+            databaseErrors.increment();
+            log.warn("幂等键数据库登记失败，仅在本机去重, scope: {}, key: {}: {}", scope, idemKey, e.getMessage());
+        }
+
+        ApiResponse<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            if (claimed) {
+                release(userId, scope, idemKey);
+            }
+            entry.result.completeExceptionally(e);
+            removeLocal(localKey, entry);
+            throw e;
+        }
+        executed.increment();
+
+        // 5xx视为处理失败，不保存结果，允许客户端用同一幂等键重试
+        if (response == null || response.getError() >= 500) {
+            if (claimed) {
+                release(userId, scope, idemKey);
+            }
+            return finish(localKey, entry, response, null);
+        }
+        Date expireTime = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        String json = toJson(response);
+        if (claimed && json != null) {
+            try {
+                idempotencyKeyMapper.complete(userId, scope, idemKey, json, expireTime);
+            } catch (Exception e) {
+                databaseErrors.increment();
+                log.error("保存幂等键结果失败, scope: {}, key: {}", scope, idemKey, e);
+            }
+        }
+        return finish(localKey, entry, response, json != null ? expireTime.getTime() : null);
+    }
+
+    @Override
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyMapper.deleteExpired(new Date(now), purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        if (total > 0) {
+            log.info("删除过期幂等键{}条", total);
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        int localEntries;
+        synchronized (entries) {
+            localEntries = entries.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localEntries", localEntries);
+        stats.put("maxEntries", maxEntries);
+        stats.put("executed", executed.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("databaseReplayed", databaseReplayed.sum());
+        stats.put("waited", waited.sum());
+        stats.put("conflicts", conflicts.sum());
+        stats.put("databaseErrors", databaseErrors.sum());
+        return stats;
+    }
+
+    /**
+     * 在数据库登记幂等键
+     *
+     * @return 登记成功返回null；已被登记时返回已有记录
+     */
+    private IdempotencyRecord claim(Integer userId, String scope, String idemKey, String requestHash) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Date now = new Date();
+            IdempotencyRecord record = IdempotencyRecord.builder()
+                    .userId(userId)
+                    .scope(scope)
+                    .idemKey(idemKey)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.STATUS_PROCESSING)
+                    .expireTime(new Date(now.getTime() + TimeUnit.SECONDS.toMillis(processingTimeoutSeconds)))
+                    .build();
+            if (idempotencyKeyMapper.insertIgnore(record) == 1) {
+                return null;
+            }
+            IdempotencyRecord existing = idempotencyKeyMapper.find(userId, scope, idemKey);
+            if (existing == null) {
+                // 登记之后被删除（处理失败），重新登记
+                continue;
+            }
+            if (existing.getExpireTime().before(now)) {
+                idempotencyKeyMapper.deleteIfExpired(userId, scope, idemKey, now);
+                continue;
+            }
+            return existing;
+        }
+        throw new IllegalStateException("幂等键登记失败: " + idemKey);
+    }
+
+    private void release(Integer userId, String scope, String idemKey) {
+        try {
+            idempotencyKeyMapper.deleteProcessing(userId, scope, idemKey);
+        } catch (Exception e) {
+            databaseErrors.increment();
+            log.warn("删除处理中的幂等键失败, scope: {}, key: {}: {}", scope, idemKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 等待本机上同一幂等键的第一次请求
+     */
+    private <T> ApiResponse<T> awaitLocal(Entry existing, String requestHash, JavaType responseType) {
+        if (!existing.requestHash.equals(requestHash)) {
+            conflicts.increment();
+            return conflict();
+        }
+        try {
+            String json;
+            if (existing.result.isDone()) {
+                json = existing.result.get();
+            } else {
+                waited.increment();
+                json = existing.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+            replayed.increment();
+            return objectMapper.readValue(json, responseType);
+        } catch (TimeoutException e) {
+            return inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inProgress();
+        } catch (ExecutionException e) {
+            return ApiResponse.error(500, "相同请求处理失败，请重试");
+        } catch (Exception e) {
+            log.error("还原幂等请求结果失败", e);
+            return ApiResponse.error(500, "相同请求处理失败，请重试");
+        }
+    }
+
+    /**
+     * 把结果交给本机上等待的重复请求
+     *
+     * @param expireAt 结果的过期时间，为null时结果不保存，等待中的请求拿到结果后移除条目
+     */
+    private <T> ApiResponse<T> finish(String localKey, Entry entry, ApiResponse<T> response, Long expireAt) {
+        String json = toJson(response);
+        if (json == null) {
+            entry.result.completeExceptionally(new IllegalStateException("响应无法序列化"));
+            removeLocal(localKey, entry);
+            return response;
+        }
+        if (expireAt != null) {
+            entry.expireAt = expireAt;
+        }
+        entry.result.complete(json);
+        if (expireAt == null) {
+            removeLocal(localKey, entry);
+        }
+        return response;
+    }
+
+    private void removeLocal(String localKey, Entry entry) {
+        synchronized (entries) {
+            entries.remove(localKey, entry);
+        }
+    }
+
+    /**
+     * 还原保存的结果；无法还原时返回错误，不重新执行
+     */
+    private <T> ApiResponse<T> readResponse(String json, JavaType responseType) {
+        try {
+            return objectMapper.readValue(json, responseType);
+        } catch (Exception e) {
+            log.error("还原幂等请求结果失败", e);
+            return ApiResponse.error(500, "相同请求处理失败，请重试");
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error("序列化幂等请求结果失败", e);
+            return null;
+        }
+    }
+
+    private String hash(Object request) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            bytes = String.valueOf(request).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = Character.forDigit((digest[i] >> 4) & 0xF, 16);
+                hex[i * 2 + 1] = Character.forDigit(digest[i] & 0xF, 16);
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> ApiResponse<T> conflict() {
+        return ApiResponse.error(422, HEADER + "已用于内容不同的请求");
+    }
+
+    private static <T> ApiResponse<T> inProgress() {
+        return ApiResponse.error(409, "相同请求正在处理中，请稍后重试");
+    }
+
+    /**
+     * 本机上的一个幂等键
+     */
+    private static final class Entry {
+        final String requestHash;
+
+        /**
+         * 响应JSON，处理完成前未完成
+         */
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        /**
+         * 结果的过期时间，处理中为Long.MAX_VALUE
+         */
+        volatile long expireAt = Long.MAX_VALUE;
+
+        Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        boolean isExpired(long now) {
+            return now > expireAt;
+        }
+    }
+}
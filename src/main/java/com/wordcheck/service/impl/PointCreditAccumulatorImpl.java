@@ -0,0 +1,762 @@
+package com.wordcheck.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.enums.PointActionEnum;
+import com.wordcheck.enums.PointTypeEnum;
+import com.wordcheck.mapper.PointCreditFlushMapper;
+import com.wordcheck.mapper.PointCreditIntentMapper;
+import com.wordcheck.mapper.PointRecordMapper;
+import com.wordcheck.mapper.UserPointMapper;
+import com.wordcheck.model.PointRecord;
+import com.wordcheck.service.PointCreditAccumulator;
+import com.wordcheck.service.PointService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 积分合并写入器实现类
+ * 加分先追加到本地日志（active.log），再累加到按用户ID分段加锁的缓冲区。
+ * 后台线程定期在写锁下把当前日志改名为日志段、同时取走缓冲区，两者内容一致；
+ * 然后每个用户一个短事务：一条UPDATE计入累计值，积分记录批量插入，并在point_credit_flushes中登记。
+ * 全部成功后删除日志段，失败的日志段留在磁盘上，下次写入或重启时从文件重放，已登记的用户跳过。
+ * 事务中的加分随业务事务在point_credit_intents登记，事务提交前就写入日志，提交后才放入缓冲区；
+ * 计入时删除登记记录，只有登记记录仍存在的加分才计入，业务回滚或重复出现的日志行都会跳过
+ */
+@Slf4j
+@Service
+public class PointCreditAccumulatorImpl implements PointCreditAccumulator {
+
+    private static final String ACTIVE_JOURNAL = "active.log";
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * point_credit_flushes记录的保留时间，超过后日志段不会再被重放
+     */
+    private static final long FLUSH_RECORD_RETENTION_MS = TimeUnit.DAYS.toMillis(7);
+
+    private static final long FLUSH_RECORD_CLEANUP_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private UserPointMapper userPointMapper;
+
+    @Autowired
+    private PointRecordMapper pointRecordMapper;
+
+    @Autowired
+    private PointCreditFlushMapper pointCreditFlushMapper;
+
+    @Autowired
+    private PointCreditIntentMapper pointCreditIntentMapper;
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 是否启用合并写入，关闭时直接调用PointService.addPoints
+     */
+    @Value("${points.credit.write-combining:false}")
+    private boolean enabled;
+
+    /**
+     * 缓冲区分段数，向上取整为2的幂
+     */
+    @Value("${points.credit.stripes:16}")
+    private int stripeCount;
+
+    /**
+     * 写入间隔（毫秒）
+     */
+    @Value("${points.credit.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * 日志目录
+     */
+    @Value("${points.credit.journal-dir:data/points-journal}")
+    private String journalDir;
+
+    /**
+     * 每次追加日志后是否强制刷盘；关闭时进程崩溃不丢数据，断电可能丢失最近的记录
+     */
+    @Value("${points.credit.journal-fsync:true}")
+    private boolean journalFsync;
+
+    /**
+     * 新事务模板：事务提交后的回调和后台线程中写入都使用独立事务
+     */
+    private TransactionTemplate requiresNew;
+
+    private Stripe[] stripes;
+
+    /**
+     * 已写入日志、所在事务尚未结束的加分；切换日志段时重新写入新日志，事务结束前日志中始终有它
+     */
+    private final Map<String, PendingCredit> prepared = new ConcurrentHashMap<>();
+
+    /**
+     * 加分持有读锁（日志和缓冲区一起写入），切换日志段持有写锁
+     */
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    private final Object flushLock = new Object();
+
+    /**
+     * 追加日志互斥，写入失败时可以截断回写入前的位置而不截掉其他线程写入的行
+     */
+    private final Object journalLock = new Object();
+
+    private Path directory;
+
+    private FileChannel journal;
+
+    private volatile boolean running;
+
+    private Thread flusher;
+
+    private long lastFlushRecordCleanup;
+
+    private final LongAdder bufferedCredits = new LongAdder();
+    private final LongAdder directCredits = new LongAdder();
+    private final LongAdder flushedCredits = new LongAdder();
+    private final LongAdder flushedUsers = new LongAdder();
+    private final LongAdder failedUsers = new LongAdder();
+    private final LongAdder replayedSegments = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        directory = Paths.get(journalDir);
+
+        // 未启用时也重放上次运行留下的日志，避免切换配置后丢分
+        try {
+            recover();
+        } catch (IOException e) {
+            log.error("重放积分合并写入日志失败, 目录: {}", directory.toAbsolutePath(), e);
+        }
+        if (!enabled) {
+            log.info("积分合并写入未启用，将直接写入");
+            return;
+        }
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        try {
+            Files.createDirectories(directory);
+            journal = openJournal();
+        } catch (IOException e) {
+            log.error("打开积分合并写入日志失败，将直接写入, 目录: {}", directory.toAbsolutePath(), e);
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "point-credit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("积分合并写入已启动, 分段数: {}, 写入间隔: {}ms, 日志目录: {}",
+                size, flushIntervalMs, directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        rotationLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写入线程退出后把剩余积分全部计入
+        flush();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("关闭积分合并写入日志失败: {}", e.getMessage());
+        }
+        log.info("积分合并写入器已关闭, 累计合并: {}条, 失败用户: {}个", flushedCredits.sum(), failedUsers.sum());
+    }
+
+    @Override
+    public int credit(Integer userId, Integer points, String reason,
+                      PointTypeEnum type, PointActionEnum action,
+                      Integer businessId, String businessType, String remark) {
+        if (points == null || points <= 0) {
+            throw new IllegalArgumentException("添加积分数量必须大于0");
+        }
+        if (!running) {
+            pointService.addPoints(userId, points, reason, type, action, businessId, businessType, remark);
+            return 0;
+        }
+
+        PendingCredit credit = new PendingCredit(userId, points, reason, type, action,
+                businessId, businessType, remark, System.currentTimeMillis(), null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            return prepare(credit);
+        }
+        buffer(credit);
+        return getPendingPoints(userId);
+    }
+
+    /**
+     * 事务中的加分：随业务事务登记并写入日志，事务提交后放入缓冲区。
+     * 提交后、放入缓冲区前进程崩溃时，重放日志发现登记记录存在，仍会计入
+     */
+    private int prepare(PendingCredit credit) {
+        Integer userId = credit.getUserId();
+        String creditId = UUID.randomUUID().toString().replace("-", "");
+        credit.setCreditId(creditId);
+        // 先登记再写日志：日志中出现该行时登记记录已插入，计入时的锁定读会等待业务事务结束
+        pointCreditIntentMapper.insert(creditId, userId);
+
+        boolean journaled = false;
+        rotationLock.readLock().lock();
+        try {
+            if (running) {
+                appendJournal(credit);
+                prepared.put(creditId, credit);
+                journaled = true;
+            }
+        } catch (IOException e) {
+            log.error("写入积分合并写入日志失败，改为随业务事务直接写入, userId: {}", userId, e);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if (!journaled) {
+            // 删除登记记录后即使日志中留有该行也不会再计入
+            pointCreditIntentMapper.deleteById(creditId);
+            directCredits.increment();
+            pointService.addPoints(userId, credit.getPoints(), credit.getReason(), credit.getType(),
+                    credit.getAction(), credit.getBusinessId(), credit.getBusinessType(), credit.getRemark());
+            return 0;
+        }
+
+        int pending = getPendingPoints(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stash(credit);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                prepared.remove(creditId);
+            }
+        });
+        return pending + credit.getPoints();
+    }
+
+    /**
+     * 事务已提交的加分放入缓冲区，日志已在事务中写入；写入器已停止时直接计入
+     */
+    private void stash(PendingCredit credit) {
+        rotationLock.readLock().lock();
+        try {
+            if (running) {
+                Stripe stripe = stripeFor(credit.getUserId());
+                synchronized (stripe) {
+                    stripe.users.computeIfAbsent(credit.getUserId(), k -> new UserCredits()).add(credit);
+                }
+                bufferedCredits.increment();
+                return;
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        directCredits.increment();
+        requiresNew.execute(status -> {
+            applyCommitted(credit.getUserId(), Collections.singletonList(credit));
+            return null;
+        });
+    }
+
+    @Override
+    public int getPendingPoints(Integer userId) {
+        if (!running) {
+            return 0;
+        }
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            UserCredits credits = stripe.users.get(userId);
+            return credits != null ? credits.points : 0;
+        }
+    }
+
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            if (journal == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            boolean rotated = false;
+            try {
+                // 先重放之前失败的日志段，保证同一用户的积分记录按发生顺序写入
+                replaySegments();
+
+                String segment;
+                Map<Integer, List<PendingCredit>> snapshot = new LinkedHashMap<>();
+                rotationLock.writeLock().lock();
+                try {
+                    if (!journal.isOpen()) {
+                        // 上次切换后重新打开失败
+                        journal = openJournal();
+                    }
+                    if (journal.size() == 0) {
+                        return;
+                    }
+                    segment = SEGMENT_PREFIX + System.currentTimeMillis() + "-"
+                            + UUID.randomUUID().toString().replace("-", "");
+                    journal.close();
+                    try {
+                        Files.move(directory.resolve(ACTIVE_JOURNAL), directory.resolve(segment + SEGMENT_SUFFIX),
+                                StandardCopyOption.ATOMIC_MOVE);
+                    } finally {
+                        // 改名失败时重新打开原日志继续追加，缓冲区不取走，下次再切换
+                        journal = openJournal();
+                    }
+                    carryPreparedForward();
+                    for (Stripe stripe : stripes) {
+                        synchronized (stripe) {
+                            for (Map.Entry<Integer, UserCredits> entry : stripe.users.entrySet()) {
+                                snapshot.put(entry.getKey(), entry.getValue().credits);
+                            }
+                            stripe.users = new HashMap<>();
+                        }
+                    }
+                } finally {
+                    rotationLock.writeLock().unlock();
+                }
+                rotated = true;
+
+                if (applySegment(segment, snapshot)) {
+                    Files.deleteIfExists(directory.resolve(segment + SEGMENT_SUFFIX));
+                }
+            } catch (IOException e) {
+                log.error("切换积分合并写入日志失败", e);
+            } finally {
+                if (rotated) {
+                    recordFlush(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    /**
+     * 把事务尚未结束的加分重新写入新日志，旧日志段计入删除后日志中仍有它们
+     */
+    private void carryPreparedForward() {
+        for (PendingCredit credit : prepared.values()) {
+            try {
+                appendJournal(credit);
+            } catch (IOException e) {
+                log.error("重新写入未结束事务的加分失败, creditId: {}", credit.getCreditId(), e);
+            }
+        }
+    }
+
+    private void recordFlush(long elapsed) {
+        flushCount.increment();
+        flushNanos.add(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        int pendingUsers = 0;
+        long pendingPoints = 0;
+        if (running) {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    pendingUsers += stripe.users.size();
+                    for (UserCredits credits : stripe.users.values()) {
+                        pendingPoints += credits.points;
+                    }
+                }
+            }
+        }
+        long journalBytes = 0;
+        try {
+            FileChannel current = journal;
+            journalBytes = current != null && current.isOpen() ? current.size() : 0;
+        } catch (IOException e) {
+            log.debug("读取积分合并写入日志大小失败: {}", e.getMessage());
+        }
+        long flushes = flushCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("stripes", stripes != null ? stripes.length : 0);
+        stats.put("pendingUsers", pendingUsers);
+        stats.put("pendingPoints", pendingPoints);
+        stats.put("journalBytes", journalBytes);
+        stats.put("bufferedCredits", bufferedCredits.sum());
+        stats.put("directCredits", directCredits.sum());
+        stats.put("flushedCredits", flushedCredits.sum());
+        stats.put("flushedUsers", flushedUsers.sum());
+        stats.put("failedUsers", failedUsers.sum());
+        stats.put("replayedSegments", replayedSegments.sum());
+        stats.put("flushCount", flushes);
+        stats.put("avgFlushMillis", flushes == 0 ? 0 : flushNanos.sum() / flushes / 1_000_000.0);
+        stats.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * 写入日志并累加到缓冲区；日志写入失败（已截断，日志中没有该行）时直接计入用户积分表
+     */
+    private void buffer(PendingCredit credit) {
+        boolean buffered = false;
+        rotationLock.readLock().lock();
+        try {
+            if (running) {
+                appendJournal(credit);
+                Stripe stripe = stripeFor(credit.getUserId());
+                synchronized (stripe) {
+                    stripe.users.computeIfAbsent(credit.getUserId(), k -> new UserCredits()).add(credit);
+                }
+                bufferedCredits.increment();
+                buffered = true;
+            }
+        } catch (IOException e) {
+            log.error("写入积分合并写入日志失败，改为直接写入, userId: {}", credit.getUserId(), e);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if (!buffered) {
+            directCredits.increment();
+            requiresNew.execute(status -> {
+                applyCredits(credit.getUserId(), Collections.singletonList(credit));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 追加一行日志，按配置刷盘，须持有读锁或写锁。
+     * 写入或刷盘失败时截断回写入前的位置再抛出异常，此时日志中一定没有该行，调用方可以改为直接写入；
+     * 无法截断时该行可能已在日志中，按写入成功处理，由日志段统一计入，避免重放时重复
+     */
+    private void appendJournal(PendingCredit credit) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(credit) + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (journalLock) {
+            long position = journal.size();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    journal.write(buffer);
+                }
+                if (journalFsync) {
+                    journal.force(false);
+                }
+            } catch (IOException e) {
+                try {
+                    journal.truncate(position);
+                    if (journalFsync) {
+                        journal.force(false);
+                    }
+                } catch (IOException truncateError) {
+                    log.error("截断积分合并写入日志失败，按已写入处理, userId: {}", credit.getUserId(), truncateError);
+                    return;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 写入线程主循环
+     */
+    private void runFlushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                flush();
+                cleanupFlushRecords();
+            } catch (Exception e) {
+                log.error("积分合并写入线程异常", e);
+            }
+        }
+    }
+
+    /**
+     * 启动时把上次留下的活动日志改为日志段，并重放所有日志段
+     */
+    private void recover() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Path active = directory.resolve(ACTIVE_JOURNAL);
+        if (Files.exists(active)) {
+            if (Files.size(active) > 0) {
+                Files.move(active, directory.resolve(SEGMENT_PREFIX + System.currentTimeMillis() + "-"
+                        + UUID.randomUUID().toString().replace("-", "") + SEGMENT_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.delete(active);
+            }
+        }
+        replaySegments();
+    }
+
+    /**
+     * 按名称（即创建时间）顺序重放磁盘上的日志段，全部成功的删除
+     */
+    private void replaySegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments);
+        for (Path path : segments) {
+            String fileName = path.getFileName().toString();
+            String segment = fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length());
+            if (applySegment(segment, readSegment(path))) {
+                Files.deleteIfExists(path);
+                replayedSegments.increment();
+                log.info("积分合并写入日志段重放完成: {}", segment);
+            }
+        }
+    }
+
+    /**
+     * 读取日志段；进程崩溃时最后一行可能不完整，跳过无法解析的行
+     */
+    private Map<Integer, List<PendingCredit>> readSegment(Path path) throws IOException {
+        Map<Integer, List<PendingCredit>> byUser = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    PendingCredit credit = objectMapper.readValue(line, PendingCredit.class);
+                    byUser.computeIfAbsent(credit.getUserId(), k -> new ArrayList<>()).add(credit);
+                } catch (IOException e) {
+                    log.warn("跳过无法解析的积分合并写入日志行, 文件: {}, 内容: {}", path.getFileName(), line);
+                }
+            }
+        }
+        return byUser;
+    }
+
+    /**
+     * 把一个日志段的积分计入用户积分表，每个用户一个事务
+     *
+     * @return 是否全部成功
+     */
+    private boolean applySegment(String segment, Map<Integer, List<PendingCredit>> byUser) {
+        boolean allApplied = true;
+        for (Map.Entry<Integer, List<PendingCredit>> entry : byUser.entrySet()) {
+            Integer userId = entry.getKey();
+            List<PendingCredit> credits = entry.getValue();
+            try {
+                requiresNew.execute(status -> {
+                    // 已登记说明该用户在这个日志段中的积分已经计入（上次写入后未来得及删除日志段）
+                    if (pointCreditFlushMapper.insertIgnore(segment, userId) == 0) {
+                        return null;
+                    }
+                    applyCommitted(userId, credits);
+                    return null;
+                });
+                flushedUsers.increment();
+                flushedCredits.add(credits.size());
+            } catch (Exception e) {
+                allApplied = false;
+                failedUsers.increment();
+                log.error("积分合并写入失败，日志段保留待重放, segment: {}, userId: {}, 记录数: {}",
+                        segment, userId, credits.size(), e);
+            }
+        }
+        return allApplied;
+    }
+
+    /**
+     * 计入一个用户的多笔积分，事务中的加分只计入业务已提交且尚未计入的，须在事务中调用
+     */
+    private void applyCommitted(Integer userId, List<PendingCredit> credits) {
+        List<PendingCredit> committed = new ArrayList<>(credits.size());
+        for (PendingCredit credit : credits) {
+            String creditId = credit.getCreditId();
+            if (creditId == null) {
+                committed.add(credit);
+            } else if (pointCreditIntentMapper.lockById(creditId) != null) {
+                // 删除登记记录，同一加分在日志中再次出现时跳过
+                pointCreditIntentMapper.deleteById(creditId);
+                committed.add(credit);
+            }
+        }
+        if (!committed.isEmpty()) {
+            applyCredits(userId, committed);
+        }
+    }
+
+    /**
+     * 把一个用户的多笔积分用一条UPDATE计入，积分记录批量插入，须在事务中调用
+     */
+    private void applyCredits(Integer userId, List<PendingCredit> credits) {
+        int total = 0;
+        for (PendingCredit credit : credits) {
+            total += credit.getPoints();
+        }
+        if (userPointMapper.addPoints(userId, total) == 0) {
+            userPointMapper.initIfAbsent(userId);
+            userPointMapper.addPoints(userId, total);
+        }
+
+        // 变更后积分由UPDATE写入，按发生顺序倒推每笔记录的变更前后积分
+        int balance = userPointMapper.selectLastInsertId() - total;
+        List<PointRecord> records = new ArrayList<>(credits.size());
+        for (PendingCredit credit : credits) {
+            PointRecord record = new PointRecord();
+            record.setUserId(userId);
+            record.setPoints(credit.getPoints());
+            record.setReason(credit.getReason());
+            record.setType(credit.getType().name());
+            record.setAction(credit.getAction().name());
+            record.setBusinessId(credit.getBusinessId());
+            record.setBusinessType(credit.getBusinessType());
+            record.setRemark(credit.getRemark());
+            record.setBeforePoints(balance);
+            balance += credit.getPoints();
+            record.setAfterPoints(balance);
+            record.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(credit.getCreatedAt()), ZoneId.systemDefault()));
+            records.add(record);
+        }
+        pointRecordMapper.batchInsert(records);
+    }
+
+    /**
+     * 定期删除过期的point_credit_flushes记录
+     */
+    private void cleanupFlushRecords() {
+        long now = System.currentTimeMillis();
+        if (now - lastFlushRecordCleanup < FLUSH_RECORD_CLEANUP_INTERVAL_MS) {
+            return;
+        }
+        lastFlushRecordCleanup = now;
+        Date before = new Date(now - FLUSH_RECORD_RETENTION_MS);
+        int deleted = pointCreditFlushMapper.deleteBefore(before) + pointCreditIntentMapper.deleteBefore(before);
+        if (deleted > 0) {
+            log.info("删除过期积分合并写入记录{}条", deleted);
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(directory.resolve(ACTIVE_JOURNAL),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Stripe stripeFor(Integer userId) {
+        int h = userId.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * 缓冲区的一段
+     */
+    private static final class Stripe {
+        Map<Integer, UserCredits> users = new HashMap<>();
+    }
+
+    /**
+     * 一个用户未计入的积分
+     */
+    private static final class UserCredits {
+        final List<PendingCredit> credits = new ArrayList<>();
+        int points;
+
+        void add(PendingCredit credit) {
+            credits.add(credit);
+            points += credit.getPoints();
+        }
+    }
+
+    /**
+     * 一笔未计入的积分，也是日志中的一行
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class PendingCredit {
+        private Integer userId;
+        private Integer points;
+        private String reason;
+        private PointTypeEnum type;
+        private PointActionEnum action;
+        private Integer businessId;
+        private String businessType;
+        private String remark;
+        private long createdAt;
+
+        /**
+         * 事务中的加分ID，对应point_credit_intents中的登记记录；不在事务中时为null
+         */
+        private String creditId;
+    }
+}
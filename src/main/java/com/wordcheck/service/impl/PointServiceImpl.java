@@ -5,7 +5,9 @@ import com.wordcheck.model.UserPoint;
 import com.wordcheck.enums.PointActionEnum;
 import com.wordcheck.enums.PointTypeEnum;
 import com.wordcheck.mapper.PointRecordMapper;
+import com.wordcheck.mapper.PointReservationMapper;
 import com.wordcheck.mapper.UserPointMapper;
+import com.wordcheck.model.PointReservation;
 import com.wordcheck.model.dto.PointsDTO;
 import com.wordcheck.model.dto.PointsRecordDTO;
 import com.wordcheck.model.vo.PointRecordVO;
@@ -15,8 +17,10 @@ import com.wordcheck.model.vo.PageResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Date;
 import java.util.List;
@@ -38,6 +42,24 @@ public class PointServiceImpl implements PointService {
     @Autowired
     private PointRecordMapper pointRecordMapper;
 
+    @Autowired
+    private PointReservationMapper pointReservationMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 预占的有效时间（秒），须长于AI调用的最长耗时
+     */
+    @Value("${points.reservation.hold-seconds:600}")
+    private int holdSeconds;
+
+    /**
+     * 每批释放的过期预占数
+     */
+    @Value("${points.reservation.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
     /**
      * 获取用户积分
      *
@@ -71,6 +93,7 @@ public class PointServiceImpl implements PointService {
         // 将UserPoint转换为PointsDTO
         PointsDTO pointsDTO = new PointsDTO();
         pointsDTO.setCurrentPoints(userPoint.getCurrentPoints());
+        pointsDTO.setFrozenPoints(userPoint.getFrozenPoints());
         pointsDTO.setTotalEarned(userPoint.getTotalEarned());
         pointsDTO.setTotalSpent(userPoint.getTotalSpent());
         pointsDTO.setLevel(userPoint.getLevel());
@@ -151,19 +174,30 @@ public class PointServiceImpl implements PointService {
             return existPoint;
         }
         
-        // 创建新用户积分记录
+        // 创建新用户积分记录，并发初始化时由INSERT IGNORE去重
+        UserPoint userPoint = newUserPoint(userId);
+        if (userPointMapper.insertIfAbsent(userPoint) == 0) {
+            logger.info("用户积分已由其他请求初始化, userId: {}", userId);
+            return userPointMapper.findByUserId(userId);
+        }
+        logger.info("用户积分初始化成功, userId: {}", userId);
+        
+        return userPoint;
+    }
+
+    /**
+     * 构造初始用户积分记录
+     */
+    private UserPoint newUserPoint(Integer userId) {
         UserPoint userPoint = new UserPoint();
         userPoint.setUserId(userId);
         userPoint.setCurrentPoints(0);
+        userPoint.setFrozenPoints(0);
         userPoint.setTotalEarned(0);
         userPoint.setTotalSpent(0);
         userPoint.setLevel(1);
         userPoint.setLevelName("初学者");
         userPoint.setNextLevelPoints(200);
-        
-        userPointMapper.insert(userPoint);
-        logger.info("用户积分初始化成功, userId: {}", userId);
-        
         return userPoint;
     }
 
@@ -216,56 +250,64 @@ public class PointServiceImpl implements PointService {
             throw new IllegalArgumentException("扣减积分数量必须大于0");
         }
         
-        UserPoint userPoint = userPointMapper.findByUserId(userId);
+        UserPoint userPoint = changePoints(userId, -points, reason, type, action, businessId, businessType, remark);
         if (userPoint == null) {
-            logger.warn("用户积分不存在, userId: {}", userId);
-            throw new IllegalArgumentException("用户积分不存在");
-        }
-        
-        if (userPoint.getCurrentPoints() < points) {
-            logger.warn("用户积分不足, userId: {}, 当前积分: {}, 需扣减积分: {}", 
-                    userId, userPoint.getCurrentPoints(), points);
+            if (userPointMapper.findByUserId(userId) == null) {
+                logger.warn("用户积分不存在, userId: {}", userId);
+                throw new IllegalArgumentException("用户积分不存在");
+            }
+            logger.warn("用户积分不足, userId: {}, 需扣减积分: {}", userId, points);
             throw new IllegalArgumentException("用户积分不足");
         }
-        
-        return changePoints(userId, -points, reason, type, action, businessId, businessType, remark);
+        return userPoint;
     }
 
     /**
-     * 修改用户积分（内部方法）
+     * 修改用户积分（内部方法），须在事务中调用
+     * 余额的检查和修改由一条条件UPDATE完成，不先读后写，并发变更不会互相覆盖，也不会扣成负数；
+     * UPDATE之后在同一事务中读取一次新余额（行锁持有到提交，读到的就是本次变更后的值），积分记录与余额在同一事务中提交
+     *
+     * @return 更新后的用户积分；扣减时用户积分不存在或余额不足返回null，不做任何修改
      */
     private UserPoint changePoints(Integer userId, Integer points, String reason, 
                                   PointTypeEnum type, PointActionEnum action, 
                                   Integer businessId, String businessType, String remark) {
-        // 获取用户积分，如果不存在则初始化
-        UserPoint userPoint = userPointMapper.findByUserId(userId);
-        if (userPoint == null) {
-            userPoint = initUserPoints(userId);
-        }
-        
-        // 记录变更前积分
-        int beforePoints = userPoint.getCurrentPoints();
-        
-        // 更新积分
-        int newPoints = beforePoints + points;
-        int newTotalEarned = userPoint.getTotalEarned();
-        int newTotalSpent = userPoint.getTotalSpent();
-        
-        // 根据积分变动更新总获取和总消费
+        int updated;
         if (points > 0) {
-            newTotalEarned += points;
+            updated = userPointMapper.addPoints(userId, points);
+            if (updated == 0) {
+                // 用户积分不存在，初始化后重试
+                userPointMapper.insertIfAbsent(newUserPoint(userId));
+                updated = userPointMapper.addPoints(userId, points);
+            }
         } else {
-            newTotalSpent -= points;  // points是负数，所以用减法
+            updated = userPointMapper.deductPoints(userId, -points);
+        }
+        if (updated == 0) {
+            return null;
         }
         
-        userPoint.setCurrentPoints(newPoints);
-        userPoint.setTotalEarned(newTotalEarned);
-        userPoint.setTotalSpent(newTotalSpent);
-        
-        // 更新用户积分
-        userPointMapper.update(userPoint);
+        // 变更前积分由变更后积分推算
+        UserPoint userPoint = userPointMapper.findByUserId(userId);
+        int newPoints = userPoint.getCurrentPoints();
+        int beforePoints = newPoints - points;
         
         // 记录积分变动
+        insertRecord(userId, points, reason, type, action, businessId, businessType, remark, beforePoints, newPoints);
+        
+        logger.info("用户积分变更成功, userId: {}, 变更积分: {}, 变更前: {}, 变更后: {}, 原因: {}", 
+                userId, points, beforePoints, newPoints, reason);
+        
+        return userPoint;
+    }
+
+    /**
+     * 记录积分变动
+     */
+    private void insertRecord(Integer userId, Integer points, String reason,
+                              PointTypeEnum type, PointActionEnum action,
+                              Integer businessId, String businessType, String remark,
+                              int beforePoints, int afterPoints) {
         PointRecord record = new PointRecord();
         record.setUserId(userId);
         record.setPoints(points);
@@ -276,14 +318,9 @@ public class PointServiceImpl implements PointService {
         record.setBusinessType(businessType);
         record.setRemark(remark);
         record.setBeforePoints(beforePoints);
-        record.setAfterPoints(newPoints);
+        record.setAfterPoints(afterPoints);
         
         pointRecordMapper.insert(record);
-        
-        logger.info("用户积分变更成功, userId: {}, 变更积分: {}, 变更前: {}, 变更后: {}, 原因: {}", 
-                userId, points, beforePoints, newPoints, reason);
-        
-        return userPoint;
     }
 
     /**
@@ -402,6 +439,7 @@ public class PointServiceImpl implements PointService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Long increasePoints(Integer userId, Integer points, String reason, String type, Integer businessId, String businessType, String remark) {
         // 将字符串类型转换为枚举
         PointTypeEnum typeEnum = PointTypeEnum.valueOf(type.toUpperCase());
@@ -414,6 +452,7 @@ public class PointServiceImpl implements PointService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Long decreasePoints(Integer userId, Integer points, String reason, String type, Integer businessId, String businessType, String remark) {
         // 将字符串类型转换为枚举
         PointTypeEnum typeEnum = PointTypeEnum.valueOf(type.toUpperCase());
@@ -425,18 +464,129 @@ public class PointServiceImpl implements PointService {
         return userPoint != null ? 1L : null;
     }
 
+    /**
+     * 冻结用户积分，即创建预占
+     *
+     * @return 预占ID，可用积分不足时返回null
+     */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Long freezePoints(Integer userId, Integer points, String reason, Integer businessId, String businessType, String remark) {
-        // 实现冻结积分功能
-        // 暂未实现，返回null
-        return null;
+        return holdPoints(userId, points, reason, businessId, businessType);
     }
 
+    /**
+     * 解冻用户积分，即释放该业务最近一条冻结中的预占
+     *
+     * @return 释放的预占ID，没有冻结中的预占或积分数量不符时返回null
+     */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Long unfreezePoints(Integer userId, Integer points, String reason, Integer businessId, String businessType, String remark) {
-        // 实现解冻积分功能
-        // 暂未实现，返回null
-        return null;
+        PointReservation reservation = pointReservationMapper.findLatestHeld(userId, businessType, businessId);
+        if (reservation == null || !reservation.getPoints().equals(points)) {
+            logger.warn("没有可解冻的积分预占, userId: {}, points: {}, businessType: {}, businessId: {}",
+                    userId, points, businessType, businessId);
+            return null;
+        }
+        return releaseReservation(reservation.getId()) ? reservation.getId() : null;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Long holdPoints(Integer userId, Integer points, String reason, Integer businessId, String businessType) {
+        if (points == null || points <= 0) {
+            throw new IllegalArgumentException("冻结积分数量必须大于0");
+        }
+        
+        // 余额检查和冻结由同一条条件UPDATE完成
+        if (userPointMapper.holdPoints(userId, points) == 0) {
+            logger.info("可用积分不足，无法冻结, userId: {}, points: {}", userId, points);
+            return null;
+        }
+        int newPoints = userPointMapper.selectLastInsertId();
+        
+        PointReservation reservation = PointReservation.builder()
+                .userId(userId)
+                .points(points)
+                .status(PointReservation.STATUS_HELD)
+                .reason(reason)
+                .businessId(businessId)
+                .businessType(businessType)
+                .expireTime(new Date(System.currentTimeMillis() + holdSeconds * 1000L))
+                .build();
+        pointReservationMapper.insert(reservation);
+        
+        // 冻结即从可用积分中扣除，记为一笔扣减；结算不再记录，释放时记一笔退回
+        insertRecord(userId, -points, reason, PointTypeEnum.FREEZE, PointActionEnum.DEDUCT,
+                businessId, businessType, "积分预占: " + reservation.getId(), newPoints + points, newPoints);
+        
+        logger.info("用户积分冻结成功, userId: {}, 冻结积分: {}, 预占ID: {}", userId, points, reservation.getId());
+        return reservation.getId();
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean settleReservation(Long reservationId) {
+        // 状态条件保证与释放、过期清理互斥
+        if (pointReservationMapper.finish(reservationId, PointReservation.STATUS_SETTLED) == 0) {
+            logger.warn("积分预占已结束，无法结算, reservationId: {}", reservationId);
+            return false;
+        }
+        PointReservation reservation = pointReservationMapper.findById(reservationId);
+        if (userPointMapper.settleFrozenPoints(reservation.getUserId(), reservation.getPoints()) == 0) {
+            throw new IllegalStateException("冻结积分不足，无法结算预占: " + reservationId);
+        }
+        logger.info("积分预占结算成功, userId: {}, 积分: {}, 预占ID: {}",
+                reservation.getUserId(), reservation.getPoints(), reservationId);
+        return true;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean releaseReservation(Long reservationId) {
+        return doReleaseReservation(reservationId, "预占释放");
+    }
+
+    @Override
+    public int releaseExpiredReservations() {
+        int released = 0;
+        List<Long> ids;
+        do {
+            ids = pointReservationMapper.findExpiredHeldIds(new Date(), sweepBatchSize);
+            for (Long id : ids) {
+                // 每条预占一个短事务，与正在进行的结算互不阻塞
+                Boolean done = transactionTemplate.execute(status -> doReleaseReservation(id, "预占过期释放"));
+                if (Boolean.TRUE.equals(done)) {
+                    released++;
+                }
+            }
+        } while (ids.size() == sweepBatchSize);
+        if (released > 0) {
+            logger.info("释放过期积分预占{}条", released);
+        }
+        return released;
+    }
+
+    /**
+     * 释放预占（内部方法），须在事务中调用
+     */
+    private boolean doReleaseReservation(Long reservationId, String remark) {
+        if (pointReservationMapper.finish(reservationId, PointReservation.STATUS_RELEASED) == 0) {
+            return false;
+        }
+        PointReservation reservation = pointReservationMapper.findById(reservationId);
+        if (userPointMapper.releaseFrozenPoints(reservation.getUserId(), reservation.getPoints()) == 0) {
+            throw new IllegalStateException("冻结积分不足，无法释放预占: " + reservationId);
+        }
+        int newPoints = userPointMapper.selectLastInsertId();
+        insertRecord(reservation.getUserId(), reservation.getPoints(), reservation.getReason(),
+                PointTypeEnum.UNFREEZE, PointActionEnum.ADD, reservation.getBusinessId(),
+                reservation.getBusinessType(), remark + ": " + reservationId,
+                newPoints - reservation.getPoints(), newPoints);
+        logger.info("积分预占释放成功, userId: {}, 积分: {}, 预占ID: {}",
+                reservation.getUserId(), reservation.getPoints(), reservationId);
+        return true;
     }
 
     @Override
@@ -477,23 +627,10 @@ public class PointServiceImpl implements PointService {
             throw new IllegalArgumentException("扣减积分数量必须大于0");
         }
         
-        // 获取用户积分
-        UserPoint userPoint = getUserPoints(userId);
-        
-        // 如果用户积分不存在，则初始化
-        if (userPoint == null) {
-            userPoint = initUserPoints(userId);
-        }
-        
-        // 检查用户积分是否足够
-        if (userPoint.getCurrentPoints() < points) {
-            throw new IllegalStateException("用户积分不足");
-        }
-        
-        // 调用扣减积分方法
-        UserPoint updatedPoints = deductPoints(
+        // 余额检查和扣减由同一条条件UPDATE完成
+        UserPoint updatedPoints = changePoints(
             userId, 
-            points, 
+            -points, 
             reason, 
             PointTypeEnum.CONSUMPTION, 
             PointActionEnum.DEDUCT, 
@@ -502,9 +639,15 @@ public class PointServiceImpl implements PointService {
             "API接口扣减"
         );
         
+        // 用户积分不存在或余额不足
+        if (updatedPoints == null) {
+            throw new IllegalStateException("用户积分不足");
+        }
+        
         // 将UserPoint转换为PointsDTO
         PointsDTO pointsDTO = new PointsDTO();
         pointsDTO.setCurrentPoints(updatedPoints.getCurrentPoints());
+        pointsDTO.setFrozenPoints(updatedPoints.getFrozenPoints());
         pointsDTO.setTotalEarned(updatedPoints.getTotalEarned());
         pointsDTO.setTotalSpent(updatedPoints.getTotalSpent());
         pointsDTO.setLevel(updatedPoints.getLevel());
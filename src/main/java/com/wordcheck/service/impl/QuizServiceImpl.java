@@ -0,0 +1,275 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.dictionary.SeededPermutation;
+import com.wordcheck.model.Word;
+import com.wordcheck.model.dto.QuizItemDTO;
+import com.wordcheck.service.QuizService;
+import com.wordcheck.service.WeakWordService;
+import com.wordcheck.service.WordDictionaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单词测验服务实现类
+ * 词典每次重新加载后，按难度、分类、难度+分类把单词ID分组为有序数组。
+ * 每个用户在每个题库上的出题顺序是一个带种子的随机排列，只需保存当前轮次和位置，
+ * 取k个单词为O(k)，连续出题在题库用完之前不重复，用完后换一个种子开始新的一轮
+ */
+@Slf4j
+@Service
+public class QuizServiceImpl implements QuizService {
+
+    private static final String ALL = "*";
+
+    private static final long DAILY_SEED = 0x5EED_DA11L;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Autowired
+    private WeakWordService weakWordService;
+
+    /**
+     * 每组题目中薄弱单词的最大比例
+     */
+    @Value("${word.quiz.weak-ratio:0.3}")
+    private double weakRatio;
+
+    /**
+     * 内存中保存出题进度的最大条数（用户 × 题库），超过后清空，各用户从新的一轮开始
+     */
+    @Value("${word.quiz.max-cursors:100000}")
+    private int maxCursors;
+
+    private volatile Pools pools = new Pools(-1, Collections.emptyMap());
+
+    /**
+     * 出题进度：高32位为轮次，低32位为本轮已出到的位置
+     */
+    private final ConcurrentHashMap<String, AtomicLong> cursors = new ConcurrentHashMap<>();
+
+    @Override
+    public List<QuizItemDTO> generateQuiz(Integer userId, String difficulty, String category, int count) {
+        String key = poolKey(difficulty, category);
+        int[] pool = currentPools().byKey.get(key);
+        if (pool == null || pool.length == 0 || count <= 0) {
+            return Collections.emptyList();
+        }
+        int target = Math.min(count, pool.length);
+        List<QuizItemDTO> items = new ArrayList<>(target);
+        Set<Integer> chosen = new HashSet<>();
+
+        // 先混入属于该题库的薄弱单词
+        int weakLimit = (int) Math.round(target * weakRatio);
+        if (weakLimit > 0) {
+            for (int wordId : weakWordService.getWeakWordIds(userId, weakLimit * 4)) {
+                if (items.size() >= weakLimit) {
+                    break;
+                }
+                if (Arrays.binarySearch(pool, wordId) >= 0 && chosen.add(wordId)) {
+                    addItem(items, wordId, true);
+                }
+            }
+        }
+
+        // 其余按用户的随机排列依次取出
+        AtomicLong cursor = cursor(userId + ":" + key);
+        int scanned = 0;
+        while (items.size() < target && scanned < pool.length + target) {
+            long current = cursor.get();
+            int round = (int) (current >>> 32);
+            int position = (int) current;
+            if (position >= pool.length) {
+                cursor.compareAndSet(current, (long) (round + 1) << 32);
+                continue;
+            }
+            int take = Math.min(target - items.size(), pool.length - position);
+            if (!cursor.compareAndSet(current, ((long) round << 32) | (position + take))) {
+                continue;
+            }
+            SeededPermutation permutation = new SeededPermutation(pool.length, seed(userId, key, round));
+            for (int i = position; i < position + take; i++) {
+                int wordId = pool[permutation.get(i)];
+                if (chosen.add(wordId)) {
+                    addItem(items, wordId, false);
+                }
+            }
+            scanned += take;
+        }
+        return items;
+    }
+
+    @Override
+    public QuizItemDTO getWordOfTheDay(String difficulty) {
+        int[] pool = currentPools().byKey.get(poolKey(difficulty, null));
+        if (pool == null || pool.length == 0) {
+            return null;
+        }
+        long day = LocalDate.now().toEpochDay();
+        long round = day / pool.length;
+        SeededPermutation permutation = new SeededPermutation(pool.length, DAILY_SEED ^ (round * 0x9E3779B97F4A7C15L));
+        List<QuizItemDTO> items = new ArrayList<>(1);
+        addItem(items, pool[permutation.get((int) (day % pool.length))], false);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    @Override
+    public Map<String, Object> getPoolStats() {
+        Pools current = currentPools();
+        Map<String, Integer> difficulties = new TreeMap<>();
+        Map<String, Integer> categories = new TreeMap<>();
+        for (Map.Entry<String, int[]> entry : current.byKey.entrySet()) {
+            String[] parts = entry.getKey().split("\\|", -1);
+            if (!ALL.equals(parts[0]) && ALL.equals(parts[1])) {
+                difficulties.put(parts[0], entry.getValue().length);
+            } else if (ALL.equals(parts[0]) && !ALL.equals(parts[1])) {
+                categories.put(parts[1], entry.getValue().length);
+            }
+        }
+        int[] all = current.byKey.get(poolKey(null, null));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dictionaryGeneration", current.generation);
+        stats.put("totalWords", all != null ? all.length : 0);
+        stats.put("pools", current.byKey.size());
+        stats.put("difficulties", difficulties);
+        stats.put("categories", categories);
+        stats.put("cursors", cursors.size());
+        return stats;
+    }
+
+    private void addItem(List<QuizItemDTO> items, int wordId, boolean weak) {
+        Word word = wordDictionaryService.findWordById(wordId);
+        if (word == null) {
+            return;
+        }
+        QuizItemDTO item = new QuizItemDTO();
+        item.setWordId(word.getId());
+        item.setWord(word.getWord());
+        item.setMeaning(word.getMeaning());
+        item.setCategory(word.getCategory());
+        item.setDifficulty(word.getDifficulty());
+        item.setWeak(weak);
+        items.add(item);
+    }
+
+    private AtomicLong cursor(String key) {
+        AtomicLong cursor = cursors.get(key);
+        if (cursor == null) {
+            if (cursors.size() >= maxCursors) {
+                cursors.clear();
+            }
+            cursor = cursors.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        return cursor;
+    }
+
+    private static long seed(Integer userId, String key, int round) {
+        long seed = userId != null ? userId : 0;
+        seed = seed * 0x9E3779B97F4A7C15L + key.hashCode();
+        return seed * 0xC2B2AE3D27D4EB4FL + round;
+    }
+
+    /**
+     * 词典重新加载后重建题库，请求路径上只比较版本号
+     */
+    private Pools currentPools() {
+        Pools current = pools;
+        long generation = wordDictionaryService.getGeneration();
+        if (current.generation == generation) {
+            return current;
+        }
+        synchronized (this) {
+            current = pools;
+            if (current.generation != generation) {
+                current = buildPools(generation);
+                pools = current;
+            }
+            return current;
+        }
+    }
+
+    private Pools buildPools(long generation) {
+        long start = System.currentTimeMillis();
+        List<Word> words = wordDictionaryService.listWords();
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (Word word : words) {
+            if (word.getId() == null) {
+                continue;
+            }
+            String difficulty = normalize(word.getDifficulty());
+            String category = normalize(word.getCategory());
+            addToGroup(groups, poolKey(null, null), word.getId());
+            if (difficulty != null) {
+                addToGroup(groups, poolKey(difficulty, null), word.getId());
+            }
+            if (category != null) {
+                addToGroup(groups, poolKey(null, category), word.getId());
+            }
+            if (difficulty != null && category != null) {
+                addToGroup(groups, poolKey(difficulty, category), word.getId());
+            }
+        }
+
+        Map<String, int[]> byKey = new HashMap<>(groups.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : groups.entrySet()) {
+            List<Integer> ids = entry.getValue();
+            int[] pool = new int[ids.size()];
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = ids.get(i);
+            }
+            // 有序数组便于判断薄弱单词是否属于题库
+            Arrays.sort(pool);
+            byKey.put(entry.getKey(), pool);
+        }
+        log.info("测验题库构建完成，单词数: {}, 题库数: {}, 耗时: {}ms",
+                words.size(), byKey.size(), System.currentTimeMillis() - start);
+        return new Pools(generation, byKey);
+    }
+
+    private static void addToGroup(Map<String, List<Integer>> groups, String key, Integer wordId) {
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(wordId);
+    }
+
+    private static String poolKey(String difficulty, String category) {
+        String d = normalize(difficulty);
+        String c = normalize(category);
+        return (d != null ? d : ALL) + "|" + (c != null ? c : ALL);
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() || ALL.equals(trimmed) ? null : trimmed.replace('|', '/');
+    }
+
+    /**
+     * 某一版本词典对应的全部题库
+     */
+    private static final class Pools {
+        final long generation;
+        final Map<String, int[]> byKey;
+
+        Pools(long generation, Map<String, int[]> byKey) {
+            this.generation = generation;
+            this.byKey = byKey;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.wordcheck.mapper.SignInMapper;
 import com.wordcheck.model.SignIn;
 import com.wordcheck.model.dto.SignInResponseDTO;
 import com.wordcheck.model.dto.SignInStatusDTO;
+import com.wordcheck.service.PointCreditAccumulator;
 import com.wordcheck.service.PointService;
 import com.wordcheck.service.SignInService;
 
@@ -33,6 +34,9 @@ public class SignInServiceImpl implements SignInService {
     @Autowired
     private PointService pointService;
     
+    @Autowired
+    private PointCreditAccumulator pointCreditAccumulator;
+    
     /**
      * 用户签到
      *
@@ -83,8 +87,8 @@ public class SignInServiceImpl implements SignInService {
         // 保存签到记录
         signInMapper.insert(signIn);
         
-        // 增加用户积分
-        pointService.addPoints(userId, points, "每日签到奖励", 
+        // 增加用户积分，启用合并写入时由后台线程批量计入
+        int pendingPoints = pointCreditAccumulator.credit(userId, points, "每日签到奖励", 
                 PointTypeEnum.SIGN_IN, PointActionEnum.ADD, 
                 signIn.getId(), "sign_in", "连续签到" + continuousDays + "天");
         
@@ -93,7 +97,7 @@ public class SignInServiceImpl implements SignInService {
         response.setPoints(points);
         response.setContinuousDays(continuousDays);
         response.setSignDate(today);
-        response.setCurrentPoints(pointService.getUserAvailablePoints(userId));
+        response.setCurrentPoints(pointService.getUserAvailablePoints(userId) + pendingPoints);
         response.setTotalSignDays(signInMapper.countByUserId(userId));
         
         log.info("用户签到成功, userId: {}, 连续签到: {}天, 获得积分: {}", 
@@ -0,0 +1,171 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.mapper.UserHistoryStatMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.model.UserHistoryStat;
+import com.wordcheck.service.UserHistoryStatService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户检测历史汇总服务实现类
+ * 增量随检测历史一起提交；内存缓存只在事务提交后更新，回滚的增量不会进入缓存
+ */
+@Slf4j
+@Service
+public class UserHistoryStatServiceImpl implements UserHistoryStatService {
+
+    @Autowired
+    private UserHistoryStatMapper userHistoryStatMapper;
+
+    /**
+     * 内存中最多缓存的用户数，超过时清空
+     */
+    @Value("${check-history.max-cached-stats:10000}")
+    private int maxCachedUsers;
+
+    private final Map<Integer, UserHistoryStat> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 每次提交增量后递增；从数据库加载期间有增量提交时不放入缓存，避免缓存旧值
+     */
+    private final AtomicLong commitVersion = new AtomicLong();
+
+    @Override
+    public void recordSaved(CheckHistoryEntity history) {
+        apply(delta(history, 1));
+    }
+
+    @Override
+    public void recordDeleted(CheckHistoryEntity history) {
+        apply(delta(history, -1));
+    }
+
+    @Override
+    public void recordSaved(List<CheckHistoryEntity> histories) {
+        applyAll(histories, 1);
+    }
+
+    @Override
+    public void recordDeleted(List<CheckHistoryEntity> histories) {
+        applyAll(histories, -1);
+    }
+
+    @Override
+    public UserHistoryStat getStats(Integer userId) {
+        UserHistoryStat cached = cache.get(userId);
+        if (cached != null) {
+            return copy(cached);
+        }
+
+        long version = commitVersion.get();
+        UserHistoryStat stat = userHistoryStatMapper.findByUserId(userId);
+        if (stat == null) {
+            stat = empty(userId);
+        }
+        if (commitVersion.get() == version) {
+            if (cache.size() >= maxCachedUsers) {
+                cache.clear();
+            }
+            cache.putIfAbsent(userId, stat);
+            // 放入缓存前后之间有增量提交时，放入的值可能已过期
+            if (commitVersion.get() != version) {
+                cache.remove(userId, stat);
+            }
+        }
+        return copy(stat);
+    }
+
+    private void applyAll(List<CheckHistoryEntity> histories, int sign) {
+        Map<Integer, UserHistoryStat> merged = new LinkedHashMap<>();
+        for (CheckHistoryEntity history : histories) {
+            UserHistoryStat delta = delta(history, sign);
+            if (delta == null) {
+                continue;
+            }
+            merged.merge(delta.getUserId(), delta, (a, b) -> UserHistoryStat.builder()
+                    .userId(a.getUserId())
+                    .historyCount(a.getHistoryCount() + b.getHistoryCount())
+                    .scoredCount(a.getScoredCount() + b.getScoredCount())
+                    .scoreSum(a.getScoreSum() + b.getScoreSum())
+                    .pointsCostSum(a.getPointsCostSum() + b.getPointsCostSum())
+                    .build());
+        }
+        for (UserHistoryStat delta : merged.values()) {
+            apply(delta);
+        }
+    }
+
+    private void apply(UserHistoryStat delta) {
+        if (delta == null) {
+            return;
+        }
+        userHistoryStatMapper.upsertDelta(delta);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyToCache(delta);
+                }
+            });
+        } else {
+            applyToCache(delta);
+        }
+    }
+
+    private void applyToCache(UserHistoryStat delta) {
+        commitVersion.incrementAndGet();
+        cache.computeIfPresent(delta.getUserId(), (userId, current) -> UserHistoryStat.builder()
+                .userId(userId)
+                .historyCount(Math.max(0, current.getHistoryCount() + delta.getHistoryCount()))
+                .scoredCount(Math.max(0, current.getScoredCount() + delta.getScoredCount()))
+                .scoreSum(Math.max(0, current.getScoreSum() + delta.getScoreSum()))
+                .pointsCostSum(Math.max(0, current.getPointsCostSum() + delta.getPointsCostSum()))
+                .build());
+    }
+
+    private static UserHistoryStat delta(CheckHistoryEntity history, int sign) {
+        if (history == null || history.getUserId() == null) {
+            return null;
+        }
+        boolean scored = history.getScore() != null;
+        return UserHistoryStat.builder()
+                .userId(history.getUserId())
+                .historyCount(sign)
+                .scoredCount(scored ? sign : 0)
+                .scoreSum(scored ? (long) sign * history.getScore() : 0L)
+                .pointsCostSum(history.getPointsCost() != null ? (long) sign * history.getPointsCost() : 0L)
+                .build();
+    }
+
+    private static UserHistoryStat empty(Integer userId) {
+        return UserHistoryStat.builder()
+                .userId(userId)
+                .historyCount(0)
+                .scoredCount(0)
+                .scoreSum(0L)
+                .pointsCostSum(0L)
+                .build();
+    }
+
+    private static UserHistoryStat copy(UserHistoryStat stat) {
+        return UserHistoryStat.builder()
+                .userId(stat.getUserId())
+                .historyCount(stat.getHistoryCount())
+                .scoredCount(stat.getScoredCount())
+                .scoreSum(stat.getScoreSum())
+                .pointsCostSum(stat.getPointsCostSum())
+                .build();
+    }
+}
@@ -0,0 +1,215 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.dictionary.WordStatsTable;
+import com.wordcheck.mapper.UserWordStatMapper;
+import com.wordcheck.model.CheckRecord;
+import com.wordcheck.model.UserWordStat;
+import com.wordcheck.model.Word;
+import com.wordcheck.model.dto.WeakWordDTO;
+import com.wordcheck.service.WeakWordService;
+import com.wordcheck.service.WordDictionaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户薄弱单词服务实现类
+ * 统计增量写入user_word_stats表，已加载用户的统计同时更新内存中的WordStatsTable
+ */
+@Slf4j
+@Service
+public class WeakWordServiceImpl implements WeakWordService {
+
+    @Autowired
+    private UserWordStatMapper userWordStatMapper;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    /**
+     * 内存中最多缓存的用户数，超过时淘汰最久未访问的用户
+     */
+    @Value("${word.weak.max-cached-users:10000}")
+    private int maxCachedUsers;
+
+    private final Map<Integer, Profile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * 加载用户统计与写入增量互斥，避免同一批增量被重复计入内存
+     */
+    private final Object loadLock = new Object();
+
+    @Override
+    public void recordChecks(List<CheckRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+
+        // 同一批次中相同用户和单词的记录先合并
+        Map<Long, UserWordStat> deltas = new HashMap<>();
+        for (CheckRecord record : records) {
+            if (record.getUserId() == null || record.getWordId() == null) {
+                continue;
+            }
+            long key = ((long) record.getUserId() << 32) | (record.getWordId() & 0xFFFFFFFFL);
+            UserWordStat delta = deltas.get(key);
+            if (delta == null) {
+                delta = UserWordStat.builder()
+                        .userId(record.getUserId())
+                        .wordId(record.getWordId())
+                        .wrongCount(0)
+                        .rightCount(0)
+                        .lastSeen(record.getCheckTime() != null ? record.getCheckTime() : new Date())
+                        .build();
+                deltas.put(key, delta);
+            }
+            if (Boolean.TRUE.equals(record.getIsCorrect())) {
+                delta.setRightCount(delta.getRightCount() + 1);
+            } else {
+                delta.setWrongCount(delta.getWrongCount() + 1);
+            }
+            if (record.getCheckTime() != null && record.getCheckTime().after(delta.getLastSeen())) {
+                delta.setLastSeen(record.getCheckTime());
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<UserWordStat> stats = new ArrayList<>(deltas.values());
+        synchronized (loadLock) {
+            try {
+                userWordStatMapper.batchUpsert(stats);
+            } catch (Exception e) {
+                log.error("更新用户单词统计失败, 记录数: {}", stats.size(), e);
+                return;
+            }
+            for (UserWordStat stat : stats) {
+                Profile profile = profiles.get(stat.getUserId());
+                if (profile != null) {
+                    profile.add(stat);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<WeakWordDTO> getWeakWords(Integer userId, int limit) {
+        Profile profile = getProfile(userId);
+        if (profile == null) {
+            return Collections.emptyList();
+        }
+
+        List<WeakWordDTO> result = new ArrayList<>(limit);
+        synchronized (profile) {
+            // 多取一些，跳过已从词典中删除的单词
+            int[] wordIds = profile.table.weakest(limit * 2);
+            for (int wordId : wordIds) {
+                Word word = wordDictionaryService.findWordById(wordId);
+                if (word == null) {
+                    continue;
+                }
+                WeakWordDTO dto = new WeakWordDTO();
+                dto.setWordId(wordId);
+                dto.setWord(word.getWord());
+                dto.setMeaning(word.getMeaning());
+                dto.setWrongCount(profile.table.wrongCount(wordId));
+                dto.setRightCount(profile.table.rightCount(wordId));
+                dto.setLastSeen(new Date(profile.table.lastSeen(wordId)));
+                result.add(dto);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int[] getWeakWordIds(Integer userId, int limit) {
+        Profile profile = getProfile(userId);
+        if (profile == null) {
+            return new int[0];
+        }
+        synchronized (profile) {
+            return profile.table.weakest(limit);
+        }
+    }
+
+    /**
+     * 获取用户统计，首次访问时从user_word_stats表加载
+     */
+    private Profile getProfile(Integer userId) {
+        if (userId == null || userId <= 0) {
+            return null;
+        }
+        Profile profile = profiles.get(userId);
+        if (profile == null) {
+            synchronized (loadLock) {
+                profile = profiles.get(userId);
+                if (profile == null) {
+                    profile = loadProfile(userId);
+                    evictIfNecessary();
+                    profiles.put(userId, profile);
+                }
+            }
+        }
+        profile.lastAccess = System.currentTimeMillis();
+        return profile;
+    }
+
+    private Profile loadProfile(Integer userId) {
+        List<UserWordStat> stats = userWordStatMapper.findByUserId(userId);
+        Profile profile = new Profile(stats.size());
+        for (UserWordStat stat : stats) {
+            profile.add(stat);
+        }
+        log.debug("加载用户单词统计, userId: {}, 单词数: {}", userId, stats.size());
+        return profile;
+    }
+
+    private void evictIfNecessary() {
+        if (profiles.size() < maxCachedUsers) {
+            return;
+        }
+        Integer oldestUser = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<Integer, Profile> entry : profiles.entrySet()) {
+            if (entry.getValue().lastAccess < oldestAccess) {
+                oldestAccess = entry.getValue().lastAccess;
+                oldestUser = entry.getKey();
+            }
+        }
+        if (oldestUser != null) {
+            profiles.remove(oldestUser);
+        }
+    }
+
+    /**
+     * 单个用户的内存统计
+     */
+    private static final class Profile {
+        final WordStatsTable table;
+        volatile long lastAccess;
+
+        Profile(int expected) {
+            this.table = new WordStatsTable(Math.max(16, expected));
+        }
+
+        synchronized void add(UserWordStat stat) {
+            table.add(stat.getWordId(),
+                    stat.getWrongCount() != null ? stat.getWrongCount() : 0,
+                    stat.getRightCount() != null ? stat.getRightCount() : 0,
+                    stat.getLastSeen() != null ? stat.getLastSeen().getTime() : 0);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.dictionary.AnalyzedText;
+import com.wordcheck.model.CheckRecord;
+import com.wordcheck.model.Word;
+import com.wordcheck.model.dto.GrammarHintDTO;
+import com.wordcheck.model.dto.MisspellingDTO;
+import com.wordcheck.model.dto.TextCheckResultDTO;
+import com.wordcheck.service.CheckRecordWriter;
+import com.wordcheck.service.GrammarHintService;
+import com.wordcheck.service.WordCheckService;
+import com.wordcheck.service.WordDictionaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 单词拼写检查服务实现类
+ */
+@Slf4j
+@Service
+public class WordCheckServiceImpl implements WordCheckService {
+
+    /**
+     * 不能通过去掉后缀还原的缩写
+     */
+    private static final Set<String> IRREGULAR_CONTRACTIONS = new HashSet<>(Arrays.asList(
+            "can't", "won't", "shan't", "ain't"));
+
+    /**
+     * 常见缩写后缀
+     */
+    private static final String[] CLITICS = {"n't", "'s", "'re", "'ve", "'ll", "'d", "'m"};
+
+    /**
+     * Fork/Join每个子任务最多处理的单词数
+     */
+    private static final int FORK_CHUNK_SIZE = 64;
+
+    /**
+     * 检测记录中单词的最大长度（check_records.input_word为VARCHAR(100)）
+     */
+    private static final int MAX_RECORD_WORD_LENGTH = 100;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Autowired
+    private CheckRecordWriter checkRecordWriter;
+
+    @Autowired
+    private GrammarHintService grammarHintService;
+
+    /**
+     * 去重后单词数达到该值时使用Fork/Join并行检查
+     */
+    @Value("${word.check.parallel-threshold:256}")
+    private int parallelThreshold;
+
+    /**
+     * 每个错误单词返回的建议数量
+     */
+    @Value("${word.check.suggestion-limit:3}")
+    private int suggestionLimit;
+
+    @Override
+    public TextCheckResultDTO checkText(Integer userId, String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("检查内容不能为空");
+        }
+        return checkText(userId, AnalyzedText.analyze(text));
+    }
+
+    @Override
+    public TextCheckResultDTO checkText(Integer userId, AnalyzedText text) {
+        if (text == null || text.getOriginal().trim().isEmpty()) {
+            throw new IllegalArgumentException("检查内容不能为空");
+        }
+        if (wordDictionaryService.size() == 0) {
+            throw new IllegalStateException("单词词典未加载，暂时无法检查");
+        }
+
+        long start = System.nanoTime();
+
+        // 易混淆词提示与拼写检查并行执行
+        CompletableFuture<List<GrammarHintDTO>> grammarHints = grammarHintService.isAvailable()
+                ? CompletableFuture.supplyAsync(() -> grammarHintService.check(text))
+                : CompletableFuture.completedFuture(Collections.emptyList());
+
+        // 按规范形式去重，记录每个单词的所有出现位置
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < text.tokenCount(); i++) {
+            if (text.tokenEnd(i) - text.tokenStart(i) < 2 || text.isAllUpperCase(i)) {
+                // 单字母和全大写缩写不参与检查
+                continue;
+            }
+            groups.computeIfAbsent(text.normalizedToken(i), k -> new ArrayList<>(2)).add(text.tokenStart(i));
+        }
+
+        String[] distinct = groups.keySet().toArray(new String[0]);
+        Verdict[] verdicts = new Verdict[distinct.length];
+        if (distinct.length >= parallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new CheckTask(distinct, verdicts, 0, distinct.length));
+        } else {
+            checkRange(distinct, verdicts, 0, distinct.length);
+        }
+
+        // 组装结果和检测记录
+        Date now = new Date();
+        List<MisspellingDTO> misspellings = new ArrayList<>();
+        List<CheckRecord> records = new ArrayList<>(distinct.length);
+        for (int i = 0; i < distinct.length; i++) {
+            Verdict verdict = verdicts[i];
+            // 超长的词不记录，否则整批写入失败，同批其他用户的记录一起丢失
+            if (distinct[i].length() <= MAX_RECORD_WORD_LENGTH) {
+                records.add(CheckRecord.builder()
+                        .userId(userId)
+                        .wordId(verdict.wordId)
+                        .inputWord(distinct[i])
+                        .isCorrect(verdict.correct)
+                        .checkTime(now)
+                        .build());
+            }
+            if (!verdict.correct) {
+                MisspellingDTO misspelling = new MisspellingDTO();
+                misspelling.setWord(distinct[i]);
+                misspelling.setLength(distinct[i].length());
+                misspelling.setOffsets(groups.get(distinct[i]));
+                misspelling.setSuggestions(verdict.suggestions);
+                misspellings.add(misspelling);
+            }
+        }
+
+        TextCheckResultDTO result = new TextCheckResultDTO();
+        result.setTotalWords(text.tokenCount());
+        result.setDistinctWords(distinct.length);
+        result.setMisspelledCount(misspellings.size());
+        result.setMisspellings(misspellings);
+        result.setGrammarHints(joinGrammarHints(grammarHints));
+        result.setElapsedMicros((System.nanoTime() - start) / 1000);
+
+        checkRecordWriter.submit(records);
+
+        log.info("文本拼写检查完成, userId: {}, 单词数: {}, 去重后: {}, 错误: {}, 耗时: {}μs",
+                userId, text.tokenCount(), distinct.length, misspellings.size(), result.getElapsedMicros());
+        return result;
+    }
+
+    private void checkRange(String[] tokens, Verdict[] verdicts, int from, int to) {
+        for (int i = from; i < to; i++) {
+            verdicts[i] = check(tokens[i]);
+        }
+    }
+
+    /**
+     * 检查单个单词
+     */
+    private Verdict check(String token) {
+        Word word = wordDictionaryService.findWord(token);
+        if (word != null) {
+            return new Verdict(word.getId(), true, null);
+        }
+
+        // 屈折形式：还原为原形后检查
+        Word base = wordDictionaryService.findBaseForm(token);
+        if (base != null) {
+            return new Verdict(base.getId(), true, null);
+        }
+
+        // 缩写：去掉后缀后检查词干
+        if (token.indexOf('\'') > 0) {
+            if (IRREGULAR_CONTRACTIONS.contains(token)) {
+                return new Verdict(null, true, null);
+            }
+            for (String clitic : CLITICS) {
+                if (token.endsWith(clitic) && token.length() > clitic.length()) {
+                    String stemText = token.substring(0, token.length() - clitic.length());
+                    Word stem = wordDictionaryService.findWord(stemText);
+                    if (stem == null) {
+                        stem = wordDictionaryService.findBaseForm(stemText);
+                    }
+                    if (stem != null) {
+                        return new Verdict(stem.getId(), true, null);
+                    }
+                }
+            }
+        }
+
+        // 连字符复合词：每个部分都正确即视为正确
+        if (token.indexOf('-') > 0 && allPartsKnown(token)) {
+            return new Verdict(null, true, null);
+        }
+
+        List<String> suggestions = wordDictionaryService.suggest(token, suggestionLimit);
+        Integer targetId = null;
+        if (!suggestions.isEmpty()) {
+            Word target = wordDictionaryService.findWord(suggestions.get(0));
+            targetId = target != null ? target.getId() : null;
+        }
+        return new Verdict(targetId, false, suggestions);
+    }
+
+    private boolean allPartsKnown(String token) {
+        for (String part : token.split("-")) {
+            if (part.length() > 1 && !wordDictionaryService.contains(part)
+                    && wordDictionaryService.findBaseForm(part) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<GrammarHintDTO> joinGrammarHints(CompletableFuture<List<GrammarHintDTO>> future) {
+        try {
+            return future.join();
+        } catch (Exception e) {
+            log.warn("易混淆词检测失败: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 单词检查结论
+     */
+    private static final class Verdict {
+        final Integer wordId;
+        final boolean correct;
+        final List<String> suggestions;
+
+        Verdict(Integer wordId, boolean correct, List<String> suggestions) {
+            this.wordId = wordId;
+            this.correct = correct;
+            this.suggestions = suggestions;
+        }
+    }
+
+    /**
+     * Fork/Join并行检查任务，按区间二分直到子区间足够小
+     */
+    private final class CheckTask extends RecursiveAction {
+        private final String[] tokens;
+        private final Verdict[] verdicts;
+        private final int from;
+        private final int to;
+
+        CheckTask(String[] tokens, Verdict[] verdicts, int from, int to) {
+            this.tokens = tokens;
+            this.verdicts = verdicts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FORK_CHUNK_SIZE) {
+                checkRange(tokens, verdicts, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CheckTask(tokens, verdicts, from, mid), new CheckTask(tokens, verdicts, mid, to));
+        }
+    }
+}
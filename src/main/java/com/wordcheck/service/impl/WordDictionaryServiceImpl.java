@@ -0,0 +1,438 @@
+package com.wordcheck.service.impl;
+
+import com.wordcheck.dictionary.BkTreeSuggestionEngine;
+import com.wordcheck.dictionary.CharSequenceSet;
+import com.wordcheck.dictionary.DictionarySnapshot;
+import com.wordcheck.dictionary.Lemmatizer;
+import com.wordcheck.dictionary.Suggestion;
+import com.wordcheck.dictionary.SuggestionEngine;
+import com.wordcheck.dictionary.SuggestionEngines;
+import com.wordcheck.dictionary.metric.DistanceMetric;
+import com.wordcheck.dictionary.metric.DistanceMetrics;
+import com.wordcheck.mapper.WordMapper;
+import com.wordcheck.model.Word;
+import com.wordcheck.service.WordDictionaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单词词典服务实现类
+ * 词典与建议索引整体替换，查询时无需加锁。
+ * 配置了快照路径时，词典以内存映射的二进制快照提供服务，words表版本变化时才重新生成快照
+ */
+@Slf4j
+@Service
+public class WordDictionaryServiceImpl implements WordDictionaryService {
+
+    @Autowired
+    private WordMapper wordMapper;
+
+    /**
+     * 建议引擎：bktree、linear
+     */
+    @Value("${word.suggest.engine:bktree}")
+    private String engineName;
+
+    /**
+     * 距离度量：damerau、keyboard、phonetic
+     */
+    @Value("${word.suggest.metric:damerau}")
+    private String metricName;
+
+    /**
+     * 建议的最大编辑次数
+     */
+    @Value("${word.suggest.max-edits:2}")
+    private int maxEdits;
+
+    /**
+     * 词典快照文件路径，为空时不使用快照
+     */
+    @Value("${word.snapshot.path:}")
+    private String snapshotPath;
+
+    private volatile DictionaryState state = DictionaryState.EMPTY;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Lemmatizer lemmatizer = new Lemmatizer();
+
+    private final LongAdder suggestCount = new LongAdder();
+    private final LongAdder suggestNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("加载单词词典失败，拼写检查将不可用", e);
+        }
+    }
+
+    @Override
+    public void reload() {
+        long start = System.nanoTime();
+        // 先取版本再取数据，数据在两次查询之间变化时下次检查会再次重建
+        Date maxUpdateTime = wordMapper.findMaxUpdateTime();
+        long sourceVersion = maxUpdateTime != null ? maxUpdateTime.getTime() : 0;
+        int sourceCount = wordMapper.countAll();
+
+        DictionaryState next = null;
+        if (isSnapshotEnabled()) {
+            next = loadSnapshot(sourceVersion, sourceCount, start);
+        }
+        if (next == null) {
+            next = loadFromDatabase(sourceVersion, sourceCount, start);
+        }
+
+        this.state = next;
+        generation.incrementAndGet();
+        if (next instanceof SnapshotState) {
+            // 切换后删除旧版本快照；仍被映射而删除失败的下次加载时再删
+            DictionarySnapshot.deleteStale(Paths.get(snapshotPath.trim()), ((SnapshotState) next).snapshot.getFile());
+        }
+        suggestCount.reset();
+        suggestNanos.reset();
+        log.info("单词词典加载完成，来源: {}, 单词数: {}, 引擎: {}, 度量: {}, 耗时: {}ms, 索引堆内存估算: {}KB",
+                next.source, next.size(), next.engine.getName(), next.engine.getMetric().getName(),
+                next.buildMillis, next.engine.estimateMemoryBytes() / 1024);
+    }
+
+    @Override
+    public boolean refreshIfChanged() {
+        Date maxUpdateTime = wordMapper.findMaxUpdateTime();
+        long sourceVersion = maxUpdateTime != null ? maxUpdateTime.getTime() : 0;
+        int sourceCount = wordMapper.countAll();
+        DictionaryState current = state;
+        if (current.sourceVersion == sourceVersion && current.sourceCount == sourceCount) {
+            return false;
+        }
+        log.info("单词表已变化，重新加载词典，版本: {} -> {}, 行数: {} -> {}",
+                current.sourceVersion, sourceVersion, current.sourceCount, sourceCount);
+        reload();
+        return true;
+    }
+
+    private boolean isSnapshotEnabled() {
+        if (snapshotPath == null || snapshotPath.trim().isEmpty()) {
+            return false;
+        }
+        if (engineName != null && !engineName.trim().isEmpty()
+                && !BkTreeSuggestionEngine.NAME.equalsIgnoreCase(engineName.trim())) {
+            log.warn("词典快照仅支持bktree引擎，当前引擎为{}，不使用快照", engineName);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 从words表加载词典并在堆上构建索引
+     */
+    private DictionaryState loadFromDatabase(long sourceVersion, int sourceCount, long start) {
+        List<Word> words = wordMapper.findAll();
+
+        Map<String, Word> wordMap = new HashMap<>(words.size() * 2);
+        Map<Integer, Word> idMap = new HashMap<>(words.size() * 2);
+        for (Word word : words) {
+            if (word.getWord() != null && !word.getWord().trim().isEmpty()) {
+                wordMap.put(normalize(word.getWord()), word);
+                idMap.put(word.getId(), word);
+            }
+        }
+
+        SuggestionEngine engine = SuggestionEngines.create(
+                engineName, DistanceMetrics.of(metricName), wordMap.keySet());
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        return new HeapState(wordMap, idMap, engine, buildMillis, sourceVersion, sourceCount);
+    }
+
+    /**
+     * 映射最新版本的词典快照文件，版本或度量不一致时先从words表生成新版本文件
+     * 快照不可用时返回null，由调用方改为从数据库加载
+     */
+    private DictionaryState loadSnapshot(long sourceVersion, int sourceCount, long start) {
+        Path file = Paths.get(snapshotPath.trim());
+        DistanceMetric metric = DistanceMetrics.of(metricName);
+        try {
+            DictionarySnapshot snapshot = null;
+            Path latest = DictionarySnapshot.findLatest(file);
+            if (latest != null) {
+                try {
+                    snapshot = DictionarySnapshot.open(latest);
+                } catch (Exception e) {
+                    log.warn("词典快照文件损坏，将重新生成: {}", e.getMessage());
+                }
+            }
+            if (snapshot == null || snapshot.getSourceVersion() != sourceVersion
+                    || snapshot.getSourceCount() != sourceCount
+                    || !snapshot.getMetricName().equals(metric.getName())) {
+                snapshot = DictionarySnapshot.open(writeSnapshot(file, sourceVersion, sourceCount, metric));
+            }
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            return new SnapshotState(snapshot, snapshot.suggestionEngine(metric), buildMillis);
+        } catch (Exception e) {
+            log.error("加载词典快照失败，改为从数据库加载: {}", file, e);
+            return null;
+        }
+    }
+
+    private Path writeSnapshot(Path file, long sourceVersion, int sourceCount, DistanceMetric metric)
+            throws IOException {
+        long start = System.nanoTime();
+        List<Word> words = wordMapper.findAll();
+        List<DictionarySnapshot.Entry> entries = new ArrayList<>(words.size());
+        for (Word word : words) {
+            if (word.getId() != null && word.getWord() != null && !word.getWord().trim().isEmpty()) {
+                entries.add(new DictionarySnapshot.Entry(word.getId(), normalize(word.getWord()), word.getWord(),
+                        word.getMeaning(), word.getCategory(), word.getDifficulty()));
+            }
+        }
+        Path written = DictionarySnapshot.write(file, sourceVersion, sourceCount, metric, entries);
+        log.info("词典快照已生成: {}, 单词数: {}, 耗时: {}ms",
+                written, entries.size(), (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    @Override
+    public Word findWord(String word) {
+        if (word == null || word.isEmpty()) {
+            return null;
+        }
+        return state.findWord(normalize(word));
+    }
+
+    @Override
+    public Word findBaseForm(String word) {
+        if (word == null || word.isEmpty()) {
+            return null;
+        }
+        DictionaryState current = state;
+        String lemma = lemmatizer.lemmatize(normalize(word), current::containsKey);
+        return lemma != null ? current.findWord(lemma) : null;
+    }
+
+    @Override
+    public Word findWordById(Integer wordId) {
+        if (wordId == null) {
+            return null;
+        }
+        return state.findWordById(wordId);
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return findWord(word) != null;
+    }
+
+    @Override
+    public List<Word> listWords() {
+        return state.listWords();
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    @Override
+    public int size() {
+        return state.size();
+    }
+
+    @Override
+    public List<String> suggest(String word, int limit) {
+        if (word == null || word.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        List<Suggestion> suggestions = state.engine.suggest(normalize(word), maxEdits, limit);
+        suggestNanos.add(System.nanoTime() - start);
+        suggestCount.increment();
+
+        List<String> result = new ArrayList<>(suggestions.size());
+        for (Suggestion suggestion : suggestions) {
+            result.add(suggestion.getWord());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getEngineStats() {
+        DictionaryState current = state;
+        long count = suggestCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", current.source);
+        stats.put("engine", current.engine.getName());
+        stats.put("metric", current.engine.getMetric().getName());
+        stats.put("maxEdits", maxEdits);
+        stats.put("wordCount", current.engine.size());
+        stats.put("buildMillis", current.buildMillis);
+        stats.put("estimatedMemoryBytes", current.engine.estimateMemoryBytes());
+        if (current instanceof SnapshotState) {
+            DictionarySnapshot snapshot = ((SnapshotState) current).snapshot;
+            stats.put("snapshotFile", snapshot.getFile().toString());
+            stats.put("snapshotBytes", snapshot.getFileBytes());
+        }
+        stats.put("suggestCount", count);
+        stats.put("avgSuggestMicros", count == 0 ? 0 : suggestNanos.sum() / count / 1000.0);
+        return stats;
+    }
+
+    private static String normalize(String word) {
+        return word.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 词典状态，整体替换
+     */
+    private abstract static class DictionaryState {
+        static final DictionaryState EMPTY = new HeapState(
+                Collections.emptyMap(),
+                Collections.emptyMap(),
+                SuggestionEngines.create(null, DistanceMetrics.of(null), Collections.emptyList()),
+                0, -1, -1);
+
+        final String source;
+        final SuggestionEngine engine;
+        final long buildMillis;
+        final long sourceVersion;
+        final int sourceCount;
+
+        DictionaryState(String source, SuggestionEngine engine, long buildMillis,
+                        long sourceVersion, int sourceCount) {
+            this.source = source;
+            this.engine = engine;
+            this.buildMillis = buildMillis;
+            this.sourceVersion = sourceVersion;
+            this.sourceCount = sourceCount;
+        }
+
+        abstract Word findWord(String key);
+
+        abstract boolean containsKey(CharSequence key);
+
+        abstract Word findWordById(int wordId);
+
+        abstract List<Word> listWords();
+
+        abstract int size();
+    }
+
+    /**
+     * 从数据库加载、索引位于堆上的词典
+     */
+    private static final class HeapState extends DictionaryState {
+        final Map<String, Word> words;
+        final Map<Integer, Word> wordsById;
+
+        /**
+         * 单词键集合，词形还原用复用的缓冲区查询，不需要先转换为字符串
+         */
+        final CharSequenceSet keys;
+
+        HeapState(Map<String, Word> words, Map<Integer, Word> wordsById, SuggestionEngine engine,
+                  long buildMillis, long sourceVersion, int sourceCount) {
+            super("database", engine, buildMillis, sourceVersion, sourceCount);
+            this.words = words;
+            this.wordsById = wordsById;
+            this.keys = new CharSequenceSet(words.keySet());
+        }
+
+        @Override
+        Word findWord(String key) {
+            return words.get(key);
+        }
+
+        @Override
+        boolean containsKey(CharSequence key) {
+            return keys.contains(key);
+        }
+
+        @Override
+        Word findWordById(int wordId) {
+            return wordsById.get(wordId);
+        }
+
+        @Override
+        List<Word> listWords() {
+            return new ArrayList<>(wordsById.values());
+        }
+
+        @Override
+        int size() {
+            return words.size();
+        }
+    }
+
+    /**
+     * 基于内存映射快照的词典，查询时才把命中的单词解码为对象
+     */
+    private static final class SnapshotState extends DictionaryState {
+        final DictionarySnapshot snapshot;
+
+        SnapshotState(DictionarySnapshot snapshot, SuggestionEngine engine, long buildMillis) {
+            super("snapshot", engine, buildMillis, snapshot.getSourceVersion(), snapshot.getSourceCount());
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        Word findWord(String key) {
+            return toWord(snapshot.indexOf(key));
+        }
+
+        @Override
+        boolean containsKey(CharSequence key) {
+            return snapshot.indexOf(key) >= 0;
+        }
+
+        @Override
+        Word findWordById(int wordId) {
+            return toWord(snapshot.indexOfId(wordId));
+        }
+
+        @Override
+        List<Word> listWords() {
+            List<Word> words = new ArrayList<>(snapshot.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                words.add(toWord(i));
+            }
+            return words;
+        }
+
+        @Override
+        int size() {
+            return snapshot.size();
+        }
+
+        private Word toWord(int index) {
+            if (index < 0) {
+                return null;
+            }
+            DictionarySnapshot.Entry entry = snapshot.entry(index);
+            Word word = new Word();
+            word.setId(entry.getId());
+            word.setWord(entry.getWord());
+            word.setMeaning(entry.getMeaning());
+            word.setCategory(entry.getCategory());
+            word.setDifficulty(entry.getDifficulty());
+            return word;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.wordcheck.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 文本压缩工具类
+ * 格式与MySQL的COMPRESS()/UNCOMPRESS()相同：4字节小端原文长度 + zlib数据，空字符串压缩为空数组
+ */
+public class CompressionUtil {
+
+    /**
+     * 原文长度上限，防止损坏的数据导致分配过大的数组
+     */
+    private static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+    private CompressionUtil() {
+    }
+
+    /**
+     * 压缩文本（UTF-8）
+     *
+     * @param text 文本
+     * @return 压缩数据，text为null时返回null
+     */
+    public static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        return compressBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 压缩字节数组
+     *
+     * @param input 原始数据
+     * @return 压缩数据，input为null时返回null
+     */
+    public static byte[] compressBytes(byte[] input) {
+        if (input == null) {
+            return null;
+        }
+        if (input.length == 0) {
+            return new byte[0];
+        }
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 3));
+            out.write(input.length & 0xFF);
+            out.write((input.length >>> 8) & 0xFF);
+            out.write((input.length >>> 16) & 0xFF);
+            out.write((input.length >>> 24) & 0xFF);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 解压文本
+     *
+     * @param data 压缩数据
+     * @return 文本，data为null时返回null
+     * @throws IllegalArgumentException 数据已损坏
+     */
+    public static String decompress(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return new String(decompressBytes(data), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 解压字节数组
+     *
+     * @param data 压缩数据
+     * @return 原始数据，data为null时返回null
+     * @throws IllegalArgumentException 数据已损坏
+     */
+    public static byte[] decompressBytes(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return new byte[0];
+        }
+        if (data.length < 4) {
+            throw new IllegalArgumentException("压缩数据已损坏");
+        }
+        int length = (data[0] & 0xFF) | (data[1] & 0xFF) << 8 | (data[2] & 0xFF) << 16 | (data[3] & 0xFF) << 24;
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("压缩数据已损坏");
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 4, data.length - 4);
+            byte[] output = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int n = inflater.inflate(output, offset, length - offset);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != length) {
+                throw new IllegalArgumentException("压缩数据已损坏");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("压缩数据已损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
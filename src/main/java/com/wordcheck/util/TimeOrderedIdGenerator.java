@@ -0,0 +1,110 @@
+package com.wordcheck.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间有序ID生成器
+ * 生成128位ID，对外表示为32位小写十六进制字符串（与原UUID去掉横线的格式相同），数据库中以BINARY(16)保存。
+ * 布局：48位毫秒时间戳 | 16位同一毫秒内的序号 | 16位节点号 | 48位随机数。
+ * 同一节点生成的ID严格递增，不同节点之间按毫秒大致有序；生成过程无锁
+ */
+@Component
+public class TimeOrderedIdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeOrderedIdGenerator.class);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int SEQUENCE_BITS = 16;
+
+    /**
+     * 节点号（0-65535），多实例部署时应各不相同；小于0时启动时随机选择
+     */
+    @Value("${check-history.node-id:-1}")
+    private int configuredNodeId;
+
+    private int nodeId;
+
+    /**
+     * 上一次生成的时间戳和序号：高48位为毫秒时间戳，低16位为序号
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId >= 0 ? configuredNodeId & 0xFFFF : new SecureRandom().nextInt(1 << 16);
+        logger.info("时间有序ID生成器节点号: {}", nodeId);
+    }
+
+    /**
+     * 生成ID
+     *
+     * @return 32位小写十六进制字符串
+     */
+    public String nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    /**
+     * 按给定的当前时间生成ID
+     *
+     * @param now 当前毫秒时间戳
+     * @return 32位小写十六进制字符串
+     */
+    String nextId(long now) {
+        long state = nextState(now);
+        long low = ((long) nodeId << 48) | (ThreadLocalRandom.current().nextLong() & 0xFFFFFFFFFFFFL);
+        return toHex(state, low);
+    }
+
+    /**
+     * 从ID中取出生成时间
+     *
+     * @param id 32位十六进制ID
+     * @return 毫秒时间戳
+     */
+    public static long timestampOf(String id) {
+        return Long.parseLong(id.substring(0, 12), 16);
+    }
+
+    /**
+     * 时钟回拨或同一毫秒内序号用完时沿用上一时间戳并递增，保证单调
+     */
+    private long nextState(long now) {
+        while (true) {
+            long last = lastState.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 序号溢出时自然进位到下一毫秒
+                next = last + 1;
+            }
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static String toHex(long high, long low) {
+        char[] chars = new char[32];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (high & 0xF)];
+            high >>>= 4;
+        }
+        for (int i = 31; i >= 16; i--) {
+            chars[i] = HEX[(int) (low & 0xF)];
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+}
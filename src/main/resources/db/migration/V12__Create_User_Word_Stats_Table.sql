@@ -0,0 +1,19 @@
+-- 创建用户单词统计表（由检测记录增量维护）
+CREATE TABLE IF NOT EXISTS `user_word_stats` (
+  `user_id` INT NOT NULL COMMENT '用户ID',
+  `word_id` INT NOT NULL COMMENT '单词ID',
+  `wrong_count` INT NOT NULL DEFAULT 0 COMMENT '拼错次数',
+  `right_count` INT NOT NULL DEFAULT 0 COMMENT '拼对次数',
+  `last_seen` DATETIME NOT NULL COMMENT '最近一次检测时间',
+  PRIMARY KEY (`user_id`, `word_id`),
+  INDEX `idx_word_id` (`word_id`),
+  CONSTRAINT `fk_user_word_stats_user_id` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE CASCADE,
+  CONSTRAINT `fk_user_word_stats_word_id` FOREIGN KEY (`word_id`) REFERENCES `words` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户单词统计表';
+
+-- 根据已有检测记录初始化统计
+INSERT INTO `user_word_stats` (`user_id`, `word_id`, `wrong_count`, `right_count`, `last_seen`)
+SELECT `user_id`, `word_id`, SUM(`is_correct` = 0), SUM(`is_correct` = 1), MAX(`check_time`)
+FROM `check_records`
+WHERE `word_id` IS NOT NULL
+GROUP BY `user_id`, `word_id`;
@@ -0,0 +1,4 @@
+-- 检测历史按用户、时间倒序的游标分页索引，(user_id)前缀索引随之冗余
+ALTER TABLE `check_history`
+    ADD INDEX `idx_user_create_time_id` (`user_id`, `create_time`, `id`),
+    DROP INDEX `idx_user_id`;
@@ -0,0 +1,16 @@
+-- 创建用户检测历史汇总表（与check_history在同一事务中维护）
+CREATE TABLE IF NOT EXISTS `user_history_stats` (
+  `user_id` INT NOT NULL COMMENT '用户ID',
+  `history_count` INT NOT NULL DEFAULT 0 COMMENT '检测历史记录数',
+  `scored_count` INT NOT NULL DEFAULT 0 COMMENT '有评分的记录数',
+  `score_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '评分之和',
+  `points_cost_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '消耗积分之和',
+  `update_time` DATETIME NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户检测历史汇总表';
+
+-- 根据已有检测历史初始化汇总
+INSERT INTO `user_history_stats` (`user_id`, `history_count`, `scored_count`, `score_sum`, `points_cost_sum`, `update_time`)
+SELECT `user_id`, COUNT(1), COUNT(`score`), IFNULL(SUM(`score`), 0), IFNULL(SUM(`points_cost`), 0), NOW()
+FROM `check_history`
+GROUP BY `user_id`;
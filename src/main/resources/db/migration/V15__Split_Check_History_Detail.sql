@@ -0,0 +1,25 @@
+-- 检测历史拆分：列表字段留在check_history，大文本压缩后移到check_history_detail
+-- 压缩格式与MySQL COMPRESS()相同（4字节小端原文长度 + zlib数据），可直接用UNCOMPRESS()查看
+CREATE TABLE IF NOT EXISTS `check_history_detail` (
+  `history_id` VARCHAR(32) NOT NULL COMMENT '历史记录ID',
+  `content` MEDIUMBLOB COMMENT '检测内容（压缩）',
+  `check_result` MEDIUMBLOB COMMENT '检测结果JSON（压缩）',
+  PRIMARY KEY (`history_id`),
+  CONSTRAINT `fk_check_history_detail_history_id` FOREIGN KEY (`history_id`) REFERENCES `check_history` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='检测历史详情表';
+
+ALTER TABLE `check_history`
+    ADD COLUMN `summary` VARCHAR(255) DEFAULT NULL COMMENT '检测结果摘要' AFTER `model_name`;
+
+-- 迁移已有数据
+INSERT INTO `check_history_detail` (`history_id`, `content`, `check_result`)
+SELECT `id`, COMPRESS(`content`), COMPRESS(`check_result`)
+FROM `check_history`;
+
+UPDATE `check_history`
+SET `summary` = LEFT(JSON_UNQUOTE(JSON_EXTRACT(`check_result`, '$.summary')), 255)
+WHERE `check_result` IS NOT NULL AND JSON_VALID(`check_result`);
+
+ALTER TABLE `check_history`
+    DROP COLUMN `content`,
+    DROP COLUMN `check_result`;
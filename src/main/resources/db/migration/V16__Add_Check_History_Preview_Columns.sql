@@ -0,0 +1,19 @@
+-- 检测历史列表字段：内容预览和建议数在保存时提取，列表查询不需要读取详情或解析JSON
+ALTER TABLE `check_history`
+    ADD COLUMN `content_preview` VARCHAR(60) DEFAULT NULL COMMENT '内容预览（前50个字符）' AFTER `content_length`,
+    ADD COLUMN `suggestion_count` INT NOT NULL DEFAULT 0 COMMENT '建议数量' AFTER `summary`;
+
+-- 根据已有详情初始化
+UPDATE `check_history` h
+JOIN `check_history_detail` d ON d.`history_id` = h.`id`
+SET h.`content_preview` = CASE
+        WHEN CHAR_LENGTH(CONVERT(UNCOMPRESS(d.`content`) USING utf8mb4)) <= 50
+            THEN CONVERT(UNCOMPRESS(d.`content`) USING utf8mb4)
+        ELSE CONCAT(LEFT(CONVERT(UNCOMPRESS(d.`content`) USING utf8mb4), 50), '...')
+    END,
+    h.`suggestion_count` = CASE
+        WHEN JSON_VALID(CONVERT(UNCOMPRESS(d.`check_result`) USING utf8mb4))
+            THEN IFNULL(JSON_LENGTH(CONVERT(UNCOMPRESS(d.`check_result`) USING utf8mb4), '$.suggestions'), 0)
+        ELSE 0
+    END
+WHERE d.`content` IS NOT NULL OR d.`check_result` IS NOT NULL;
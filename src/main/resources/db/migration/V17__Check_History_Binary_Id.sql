@@ -0,0 +1,26 @@
+-- 检测历史ID由VARCHAR(32)改为BINARY(16)，新ID按时间递增，插入时追加到聚簇索引末尾
+-- 已有ID为32位十六进制字符串，UNHEX后对外表示不变；不符合格式的旧ID用其MD5代替
+ALTER TABLE `check_history_detail` DROP FOREIGN KEY `fk_check_history_detail_history_id`;
+
+ALTER TABLE `check_history` ADD COLUMN `id_bin` BINARY(16) NULL FIRST;
+UPDATE `check_history`
+SET `id_bin` = CASE WHEN `id` REGEXP '^[0-9a-fA-F]{32}$' THEN UNHEX(`id`) ELSE UNHEX(MD5(`id`)) END;
+
+ALTER TABLE `check_history_detail` ADD COLUMN `history_id_bin` BINARY(16) NULL FIRST;
+UPDATE `check_history_detail`
+SET `history_id_bin` = CASE WHEN `history_id` REGEXP '^[0-9a-fA-F]{32}$' THEN UNHEX(`history_id`) ELSE UNHEX(MD5(`history_id`)) END;
+
+ALTER TABLE `check_history`
+    DROP PRIMARY KEY,
+    DROP INDEX `idx_user_create_time_id`,
+    DROP COLUMN `id`,
+    CHANGE COLUMN `id_bin` `id` BINARY(16) NOT NULL COMMENT '历史记录ID（时间有序）',
+    ADD PRIMARY KEY (`id`),
+    ADD INDEX `idx_user_create_time_id` (`user_id`, `create_time`, `id`);
+
+ALTER TABLE `check_history_detail`
+    DROP PRIMARY KEY,
+    DROP COLUMN `history_id`,
+    CHANGE COLUMN `history_id_bin` `history_id` BINARY(16) NOT NULL COMMENT '历史记录ID',
+    ADD PRIMARY KEY (`history_id`),
+    ADD CONSTRAINT `fk_check_history_detail_history_id` FOREIGN KEY (`history_id`) REFERENCES `check_history` (`id`) ON DELETE CASCADE;
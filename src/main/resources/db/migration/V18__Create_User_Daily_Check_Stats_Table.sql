@@ -0,0 +1,22 @@
+-- 创建用户每日检测汇总表（随检测历史增量维护，每晚按check_history校正）
+CREATE TABLE IF NOT EXISTS `user_daily_check_stats` (
+  `user_id` INT NOT NULL COMMENT '用户ID',
+  `stat_date` DATE NOT NULL COMMENT '统计日期',
+  `model_id` INT NOT NULL DEFAULT 0 COMMENT '模型ID，0表示未使用模型',
+  `model_name` VARCHAR(100) DEFAULT NULL COMMENT '模型名称',
+  `check_count` INT NOT NULL DEFAULT 0 COMMENT '检测次数',
+  `scored_count` INT NOT NULL DEFAULT 0 COMMENT '有评分的次数',
+  `score_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '评分之和',
+  `points_cost_sum` BIGINT NOT NULL DEFAULT 0 COMMENT '消耗积分之和',
+  `update_time` DATETIME NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`user_id`, `stat_date`, `model_id`),
+  INDEX `idx_stat_date` (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户每日检测汇总表';
+
+-- 根据已有检测历史初始化汇总
+INSERT INTO `user_daily_check_stats` (`user_id`, `stat_date`, `model_id`, `model_name`, `check_count`, `scored_count`,
+                                      `score_sum`, `points_cost_sum`, `update_time`)
+SELECT `user_id`, DATE(`create_time`), IFNULL(`model_id`, 0), MAX(`model_name`), COUNT(1), COUNT(`score`),
+       IFNULL(SUM(`score`), 0), IFNULL(SUM(`points_cost`), 0), NOW()
+FROM `check_history`
+GROUP BY `user_id`, DATE(`create_time`), IFNULL(`model_id`, 0);
@@ -0,0 +1,21 @@
+-- 创建检测历史归档表：超过保留期的记录从check_history移到这里，详情保持COMPRESS()格式，按ID仍可查询
+CREATE TABLE IF NOT EXISTS `check_history_archive` (
+  `id` BINARY(16) NOT NULL COMMENT '历史记录ID',
+  `user_id` INT NOT NULL COMMENT '用户ID',
+  `content_length` INT DEFAULT NULL COMMENT '内容长度',
+  `content_preview` VARCHAR(60) DEFAULT NULL COMMENT '内容预览',
+  `check_type` VARCHAR(50) DEFAULT NULL COMMENT '检测类型',
+  `model_id` INT DEFAULT NULL COMMENT '模型ID',
+  `model_name` VARCHAR(100) DEFAULT NULL COMMENT '模型名称',
+  `summary` VARCHAR(255) DEFAULT NULL COMMENT '检测结果摘要',
+  `suggestion_count` INT DEFAULT NULL COMMENT '建议数量',
+  `score` INT DEFAULT NULL COMMENT '评分',
+  `points_cost` INT DEFAULT NULL COMMENT '消耗积分',
+  `content` MEDIUMBLOB COMMENT '检测内容（COMPRESS格式）',
+  `check_result` MEDIUMBLOB COMMENT '检测结果JSON（COMPRESS格式）',
+  `create_time` DATETIME NOT NULL COMMENT '创建时间',
+  `update_time` DATETIME DEFAULT NULL COMMENT '更新时间',
+  `archive_time` DATETIME NOT NULL COMMENT '归档时间',
+  PRIMARY KEY (`id`),
+  INDEX `idx_user_create_time` (`user_id`, `create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 ROW_FORMAT=COMPRESSED COMMENT='检测历史归档表';
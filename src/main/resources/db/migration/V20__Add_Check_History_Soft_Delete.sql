@@ -0,0 +1,6 @@
+-- 检测历史改为软删除：删除时只标记，撤销期内可按令牌恢复，过期后由后台任务分批彻底删除
+ALTER TABLE `check_history`
+    ADD COLUMN `deleted_at` DATETIME DEFAULT NULL COMMENT '删除时间，NULL表示未删除',
+    ADD COLUMN `delete_token` BINARY(16) DEFAULT NULL COMMENT '撤销删除令牌，同一批删除的记录相同',
+    ADD INDEX `idx_deleted_at` (`deleted_at`),
+    ADD INDEX `idx_delete_token` (`delete_token`);
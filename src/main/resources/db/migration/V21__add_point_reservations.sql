@@ -0,0 +1,19 @@
+-- 积分预占：AI批改等耗时操作先冻结积分，成功后结算、失败或超时后释放
+ALTER TABLE `user_points`
+    ADD COLUMN `frozen_points` INT NOT NULL DEFAULT 0 COMMENT '已冻结（预占中）的积分，不计入当前可用积分' AFTER `current_points`;
+
+CREATE TABLE IF NOT EXISTS `point_reservations` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '预占ID',
+    `user_id` INT NOT NULL COMMENT '用户ID',
+    `points` INT NOT NULL COMMENT '冻结的积分',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'HELD' COMMENT '状态：HELD-冻结中，SETTLED-已结算，RELEASED-已释放',
+    `reason` VARCHAR(255) DEFAULT NULL COMMENT '原因',
+    `business_id` INT DEFAULT NULL COMMENT '业务ID',
+    `business_type` VARCHAR(50) DEFAULT NULL COMMENT '业务类型',
+    `expire_time` DATETIME NOT NULL COMMENT '过期时间，过期仍未结算的由后台任务释放',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_status_expire_time` (`status`, `expire_time`),
+    KEY `idx_user_business` (`user_id`, `business_type`, `business_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='积分预占表';
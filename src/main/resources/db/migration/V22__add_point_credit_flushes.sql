@@ -0,0 +1,8 @@
+-- 积分合并写入：记录每个日志段中已计入积分的用户，重放日志段时跳过，保证同一笔奖励只计入一次
+CREATE TABLE IF NOT EXISTS `point_credit_flushes` (
+    `segment` VARCHAR(64) NOT NULL COMMENT '日志段名称',
+    `user_id` INT NOT NULL COMMENT '用户ID',
+    `flush_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '计入时间',
+    PRIMARY KEY (`segment`, `user_id`),
+    KEY `idx_flush_time` (`flush_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='积分合并写入记录表';
@@ -0,0 +1,13 @@
+-- 幂等键：客户端在请求头Idempotency-Key中携带，同一用户同一接口的重复请求直接返回第一次的结果
+CREATE TABLE IF NOT EXISTS `idempotency_keys` (
+    `user_id` INT NOT NULL COMMENT '用户ID',
+    `scope` VARCHAR(50) NOT NULL COMMENT '接口标识',
+    `idem_key` VARCHAR(64) NOT NULL COMMENT '客户端提供的幂等键',
+    `request_hash` CHAR(64) NOT NULL COMMENT '请求内容的SHA-256，同一幂等键内容不同时拒绝',
+    `status` VARCHAR(20) NOT NULL COMMENT '状态：PROCESSING-处理中，COMPLETED-已完成',
+    `response_body` MEDIUMTEXT DEFAULT NULL COMMENT '已完成请求的响应（JSON）',
+    `expire_time` DATETIME NOT NULL COMMENT '过期时间；处理中的记录过期视为处理方已失败',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`user_id`, `scope`, `idem_key`),
+    KEY `idx_expire_time` (`expire_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='幂等键表';
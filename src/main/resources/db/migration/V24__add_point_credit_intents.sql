@@ -0,0 +1,9 @@
+-- 积分合并写入：事务中的加分随业务事务登记一条待计入记录，业务回滚时记录一起回滚；
+-- 计入时删除记录，重放日志只计入记录仍存在的加分，保证已回滚或已计入的加分不会再计入
+CREATE TABLE IF NOT EXISTS `point_credit_intents` (
+    `credit_id` CHAR(32) NOT NULL COMMENT '加分ID',
+    `user_id` INT NOT NULL COMMENT '用户ID',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登记时间',
+    PRIMARY KEY (`credit_id`),
+    KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='积分合并写入待计入表';
@@ -0,0 +1,107 @@
+package com.wordcheck.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 词形还原测试：规则变化、不规则变化、过度规则化的错误形式，以及单个词的耗时
+ */
+class LemmatizerTest {
+
+    private final Lemmatizer lemmatizer = new Lemmatizer();
+
+    private final CharSequenceSet words = new CharSequenceSet(Arrays.asList(
+            "go", "buy", "teach", "child", "man", "run", "good", "bad", "study", "walk", "like", "stop",
+            "hope", "happy", "big", "fast", "late", "cat", "box", "watch", "burn", "index", "old",
+            "leaf", "die", "lie", "make", "tie", "wolf", "knife", "quick", "gentle", "foot", "see"));
+
+    private final Lemmatizer.Lexicon lexicon = words::contains;
+
+    @Test
+    void regularInflectionsAreReduced() {
+        assertLemma("cat", "cats");
+        assertLemma("box", "boxes");
+        assertLemma("watch", "watches");
+        assertLemma("study", "studies");
+        assertLemma("study", "studied");
+        assertLemma("walk", "walked");
+        assertLemma("like", "liked");
+        assertLemma("stop", "stopped");
+        assertLemma("hope", "hoping");
+        assertLemma("run", "running");
+        assertLemma("lie", "lying");
+        assertLemma("happy", "happier");
+        assertLemma("big", "biggest");
+        assertLemma("late", "later");
+        assertLemma("happy", "happily");
+        assertLemma("gentle", "gently");
+    }
+
+    @Test
+    void irregularFormsAreReduced() {
+        assertLemma("go", "went");
+        assertLemma("go", "goes");
+        assertLemma("buy", "bought");
+        assertLemma("teach", "taught");
+        assertLemma("child", "children");
+        assertLemma("man", "men");
+        assertLemma("foot", "feet");
+        assertLemma("run", "ran");
+        assertLemma("good", "better");
+        assertLemma("bad", "worst");
+        assertLemma("wolf", "wolves");
+        assertLemma("knife", "knives");
+    }
+
+    @Test
+    void overRegularisedFormsAreRejected() {
+        for (String word : new String[]{"goed", "buyed", "teached", "runned", "seed",
+                "childs", "mans", "foots", "leafs", "wolfs",
+                "gooder", "goodest", "badder", "baddest"}) {
+            assertNull(lemmatizer.lemmatize(word, lexicon), word);
+        }
+    }
+
+    @Test
+    void regularFormsCoexistingWithIrregularOnesAreAccepted() {
+        assertLemma("burn", "burned");
+        assertLemma("index", "indexes");
+        assertLemma("old", "older");
+        assertLemma("die", "dies");
+        assertLemma("lie", "lied");
+    }
+
+    @Test
+    void lemmatizingTakesLessThanAMicrosecondPerToken() {
+        String[] tokens = {"studies", "walked", "running", "happier", "quickly", "went", "children",
+                "boxes", "stopped", "goed", "cats", "biggest", "liked", "unknownword", "teached"};
+        int rounds = 20_000;
+        // 预热后取多轮中的最好成绩，减少JIT和其他负载的影响
+        long best = Long.MAX_VALUE;
+        int found = 0;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                for (String token : tokens) {
+                    if (lemmatizer.lemmatize(token, lexicon) != null) {
+                        found++;
+                    }
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double nanosPerToken = (double) best / ((long) rounds * tokens.length);
+
+        assertTrue(found > 0);
+        assertTrue(nanosPerToken < 1000, "每个词耗时" + nanosPerToken + "ns");
+    }
+
+    private void assertLemma(String expected, String word) {
+        assertEquals(expected, lemmatizer.lemmatize(word, lexicon), word);
+    }
+}
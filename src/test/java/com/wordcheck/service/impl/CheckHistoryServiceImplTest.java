@@ -0,0 +1,100 @@
+package com.wordcheck.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.mapper.CheckHistoryMapper;
+import com.wordcheck.model.CheckHistoryEntity;
+import com.wordcheck.model.vo.CheckHistory;
+import com.wordcheck.model.vo.CursorPageResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 检测历史列表测试：列表项只复制保存时提取的列，不读取内容、不解析检测结果JSON
+ */
+class CheckHistoryServiceImplTest {
+
+    private static final Integer USER_ID = 1;
+
+    private CheckHistoryMapper checkHistoryMapper;
+    private ObjectMapper objectMapper;
+    private CheckHistoryServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        checkHistoryMapper = mock(CheckHistoryMapper.class);
+        objectMapper = mock(ObjectMapper.class);
+        service = new CheckHistoryServiceImpl();
+        ReflectionTestUtils.setField(service, "checkHistoryMapper", checkHistoryMapper);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void cursorPageCopiesPrecomputedColumnsWithoutParsingJson() {
+        List<CheckHistoryEntity> entities = entities(21);
+        when(checkHistoryMapper.findByUserIdAfter(eq(USER_ID), any(), any(), anyInt())).thenReturn(entities);
+
+        CursorPageResult<CheckHistory> page = service.getUserHistoryPage(USER_ID, null, 20);
+
+        assertEquals(20, page.getRecords().size());
+        assertTrue(page.getHasMore());
+        CheckHistory first = page.getRecords().get(0);
+        assertEquals("preview 0...", first.getContentSummary());
+        assertEquals("summary 0", first.getSummary());
+        assertEquals(Integer.valueOf(3), first.getSuggestionCount());
+        assertNull(first.getContent());
+        assertNull(first.getSuggestions());
+        verifyNoInteractions(objectMapper);
+    }
+
+    @Test
+    void offsetPageCopiesPrecomputedColumnsWithoutParsingJson() {
+        when(checkHistoryMapper.findByUserId(USER_ID, 10, 0)).thenReturn(entities(10));
+
+        List<CheckHistory> items = service.getUserHistoryList(USER_ID, 1, 10);
+
+        assertEquals(10, items.size());
+        assertEquals("summary 9", items.get(9).getSummary());
+        assertEquals(Integer.valueOf(3), items.get(9).getSuggestionCount());
+        verifyNoInteractions(objectMapper);
+    }
+
+    /**
+     * 检测结果和内容也填上，证明列表项不读取它们
+     */
+    private static List<CheckHistoryEntity> entities(int count) {
+        List<CheckHistoryEntity> entities = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            entities.add(CheckHistoryEntity.builder()
+                    .id(String.format("%032x", i))
+                    .userId(USER_ID)
+                    .content("full content " + i)
+                    .contentLength(100)
+                    .contentPreview("preview " + i + "...")
+                    .checkType("essay")
+                    .summary("summary " + i)
+                    .suggestionCount(3)
+                    .checkResult("{\"summary\":\"summary " + i + "\",\"suggestions\":[\"a\",\"b\",\"c\"]}")
+                    .score(80)
+                    .pointsCost(5)
+                    .createTime(new Date(now - i * 1000L))
+                    .build());
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,235 @@
+package com.wordcheck.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.common.ApiResponse;
+import com.wordcheck.mapper.IdempotencyKeyMapper;
+import com.wordcheck.model.IdempotencyRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 幂等键服务测试：并发重复请求、幂等键被用于不同请求、处理失败后允许重试
+ */
+class IdempotencyServiceImplTest {
+
+    private static final Integer USER_ID = 1;
+    private static final String SCOPE = "essay-check";
+    private static final String KEY = "key-1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyKeyMapper idempotencyKeyMapper;
+    private IdempotencyServiceImpl service;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyMapper = mock(IdempotencyKeyMapper.class);
+        when(idempotencyKeyMapper.insertIgnore(any())).thenReturn(1);
+
+        service = new IdempotencyServiceImpl();
+        ReflectionTestUtils.setField(service, "idempotencyKeyMapper", idempotencyKeyMapper);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 86400L);
+        ReflectionTestUtils.setField(service, "processingTimeoutSeconds", 600L);
+        ReflectionTestUtils.setField(service, "waitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(service, "maxEntries", 100);
+        ReflectionTestUtils.setField(service, "purgeBatchSize", 100);
+        service.init();
+
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void completedResponseIsStoredAndReplayed() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiResponse<String> first = execute(request("hello"), succeed(calls, "result"));
+        ApiResponse<String> second = execute(request("hello"), succeed(calls, "other"));
+
+        assertEquals(1, calls.get());
+        assertEquals("result", first.getBody());
+        assertEquals("result", second.getBody());
+        verify(idempotencyKeyMapper, times(1)).insertIgnore(any());
+        verify(idempotencyKeyMapper).complete(eq(USER_ID), eq(SCOPE), eq(KEY), anyString(), any(Date.class));
+    }
+
+    @Test
+    void claimLostToAnotherInstanceWaitsForItsResponse() throws Exception {
+        when(idempotencyKeyMapper.insertIgnore(any())).thenReturn(0);
+        String stored = objectMapper.writeValueAsString(ApiResponse.success("from other instance"));
+        when(idempotencyKeyMapper.find(USER_ID, SCOPE, KEY)).thenReturn(
+                record(IdempotencyRecord.STATUS_PROCESSING, null),
+                record(IdempotencyRecord.STATUS_COMPLETED, stored));
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiResponse<String> response = execute(request("hello"), succeed(calls, "local"));
+
+        assertEquals(0, calls.get());
+        assertEquals("from other instance", response.getBody());
+        verify(idempotencyKeyMapper, never()).complete(anyInt(), anyString(), anyString(), anyString(), any());
+        verify(idempotencyKeyMapper, never()).deleteProcessing(anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    void concurrentRequestOnSameInstanceWaitsForFirst() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ApiResponse<String>> slow = () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ApiResponse.success("result");
+        };
+
+        Future<ApiResponse<String>> first = executor.submit(() -> execute(request("hello"), slow));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<ApiResponse<String>> second = executor.submit(() -> execute(request("hello"), slow));
+        release.countDown();
+
+        assertEquals("result", first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("result", second.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, calls.get());
+        verify(idempotencyKeyMapper, times(1)).insertIgnore(any());
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        AtomicInteger calls = new AtomicInteger();
+        execute(request("hello"), succeed(calls, "result"));
+
+        ApiResponse<String> response = execute(request("changed"), succeed(calls, "other"));
+
+        assertEquals(422, response.getError());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void keyClaimedInDatabaseForDifferentRequestIsRejected() {
+        when(idempotencyKeyMapper.insertIgnore(any())).thenReturn(0);
+        IdempotencyRecord other = record(IdempotencyRecord.STATUS_COMPLETED, "{}");
+        other.setRequestHash(hash(request("changed")));
+        when(idempotencyKeyMapper.find(USER_ID, SCOPE, KEY)).thenReturn(other);
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiResponse<String> response = execute(request("hello"), succeed(calls, "result"));
+
+        assertEquals(422, response.getError());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void serverErrorReleasesKeyForRetry() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ApiResponse<String> failed = execute(request("hello"), () -> {
+            calls.incrementAndGet();
+            return ApiResponse.error(500, "AI服务不可用");
+        });
+        ApiResponse<String> retried = execute(request("hello"), succeed(calls, "result"));
+
+        assertEquals(500, failed.getError());
+        assertEquals("result", retried.getBody());
+        assertEquals(2, calls.get());
+        verify(idempotencyKeyMapper).deleteProcessing(USER_ID, SCOPE, KEY);
+        verify(idempotencyKeyMapper, times(1)).complete(anyInt(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void exceptionReleasesKeyAndIsRethrown() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> execute(request("hello"), () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        ApiResponse<String> retried = execute(request("hello"), succeed(calls, "result"));
+
+        assertEquals("result", retried.getBody());
+        assertEquals(2, calls.get());
+        verify(idempotencyKeyMapper).deleteProcessing(USER_ID, SCOPE, KEY);
+    }
+
+    @Test
+    void clientErrorIsStoredAndNotReExecuted() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<ApiResponse<String>> insufficient = () -> {
+            calls.incrementAndGet();
+            return ApiResponse.error(402, "积分不足");
+        };
+
+        execute(request("hello"), insufficient);
+        ApiResponse<String> replayed = execute(request("hello"), insufficient);
+
+        assertEquals(402, replayed.getError());
+        assertEquals(1, calls.get());
+        verify(idempotencyKeyMapper, never()).deleteProcessing(anyInt(), anyString(), anyString());
+    }
+
+    private ApiResponse<String> execute(Map<String, Object> request, Supplier<ApiResponse<String>> action) {
+        return service.execute(USER_ID, SCOPE, KEY, request, String.class, action);
+    }
+
+    private static Supplier<ApiResponse<String>> succeed(AtomicInteger calls, String body) {
+        return () -> {
+            calls.incrementAndGet();
+            return ApiResponse.success(body);
+        };
+    }
+
+    private static Map<String, Object> request(String content) {
+        return Collections.singletonMap("content", content);
+    }
+
+    private String hash(Object request) {
+        return ReflectionTestUtils.invokeMethod(service, "hash", request);
+    }
+
+    private IdempotencyRecord record(String status, String responseBody) {
+        return IdempotencyRecord.builder()
+                .userId(USER_ID)
+                .scope(SCOPE)
+                .idemKey(KEY)
+                .requestHash(hash(request("hello")))
+                .status(status)
+                .responseBody(responseBody)
+                .expireTime(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10)))
+                .build();
+    }
+}
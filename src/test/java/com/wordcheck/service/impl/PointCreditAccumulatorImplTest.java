@@ -0,0 +1,382 @@
+package com.wordcheck.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wordcheck.enums.PointActionEnum;
+import com.wordcheck.enums.PointTypeEnum;
+import com.wordcheck.mapper.PointCreditFlushMapper;
+import com.wordcheck.mapper.PointCreditIntentMapper;
+import com.wordcheck.mapper.PointRecordMapper;
+import com.wordcheck.mapper.UserPointMapper;
+import com.wordcheck.model.PointRecord;
+import com.wordcheck.service.PointService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 积分合并写入器测试：日志切换与重放、已计入用户跳过、事务中加分的提交与回滚
+ * 数据库用内存中的余额、计入记录和待计入记录模拟
+ */
+class PointCreditAccumulatorImplTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Integer, Integer> balances = new HashMap<>();
+    private final AtomicInteger lastInsertId = new AtomicInteger();
+    private final Set<String> flushMarkers = new HashSet<>();
+    private final Set<String> intents = new HashSet<>();
+    private final List<PointRecord> records = new ArrayList<>();
+    private final Set<Integer> failingUsers = new HashSet<>();
+
+    private UserPointMapper userPointMapper;
+    private PointRecordMapper pointRecordMapper;
+    private PointCreditFlushMapper pointCreditFlushMapper;
+    private PointCreditIntentMapper pointCreditIntentMapper;
+    private PlatformTransactionManager transactionManager;
+
+    private final List<PointCreditAccumulatorImpl> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userPointMapper = mock(UserPointMapper.class);
+        when(userPointMapper.addPoints(anyInt(), anyInt())).thenAnswer(invocation -> {
+            Integer userId = invocation.getArgument(0);
+            Integer points = invocation.getArgument(1);
+            lastInsertId.set(balances.merge(userId, points, Integer::sum));
+            return 1;
+        });
+        when(userPointMapper.selectLastInsertId()).thenAnswer(invocation -> lastInsertId.get());
+
+        pointRecordMapper = mock(PointRecordMapper.class);
+        when(pointRecordMapper.batchInsert(anyList())).thenAnswer(invocation -> {
+            List<PointRecord> batch = invocation.getArgument(0);
+            records.addAll(batch);
+            return batch.size();
+        });
+
+        pointCreditFlushMapper = mock(PointCreditFlushMapper.class);
+        when(pointCreditFlushMapper.insertIgnore(anyString(), anyInt())).thenAnswer(invocation -> {
+            Integer userId = invocation.getArgument(1);
+            if (failingUsers.contains(userId)) {
+                // 模拟数据库不可用，登记记录随事务回滚不会留下
+                throw new IllegalStateException("模拟写入失败");
+            }
+            return flushMarkers.add(invocation.getArgument(0) + ":" + userId) ? 1 : 0;
+        });
+
+        pointCreditIntentMapper = mock(PointCreditIntentMapper.class);
+        when(pointCreditIntentMapper.insert(anyString(), anyInt())).thenAnswer(invocation ->
+                intents.add(invocation.getArgument(0)) ? 1 : 0);
+        when(pointCreditIntentMapper.lockById(anyString())).thenAnswer(invocation -> {
+            String creditId = invocation.getArgument(0);
+            return intents.contains(creditId) ? creditId : null;
+        });
+        when(pointCreditIntentMapper.deleteById(anyString())).thenAnswer(invocation ->
+                intents.remove(invocation.<String>getArgument(0)) ? 1 : 0);
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (PointCreditAccumulatorImpl accumulator : started) {
+            crash(accumulator);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flushRotatesJournalAndCombinesCreditsPerUser() throws IOException {
+        PointCreditAccumulatorImpl accumulator = start();
+        assertEquals(2, credit(accumulator, 1, 2));
+        assertEquals(5, credit(accumulator, 1, 3));
+        assertEquals(4, credit(accumulator, 2, 4));
+        assertTrue(Files.size(journalDir.resolve("active.log")) > 0);
+
+        accumulator.flush();
+
+        assertEquals(Integer.valueOf(5), balances.get(1));
+        assertEquals(Integer.valueOf(4), balances.get(2));
+        assertEquals(0, accumulator.getPendingPoints(1));
+        assertEquals(0, Files.size(journalDir.resolve("active.log")));
+        assertTrue(segments().isEmpty());
+        assertEquals(2, flushMarkers.size());
+
+        // 每笔加分一条记录，变更前后积分按发生顺序衔接
+        assertEquals(3, records.size());
+        PointRecord first = records.get(0);
+        PointRecord second = records.get(1);
+        assertEquals(Integer.valueOf(0), first.getBeforePoints());
+        assertEquals(Integer.valueOf(2), first.getAfterPoints());
+        assertEquals(Integer.valueOf(2), second.getBeforePoints());
+        assertEquals(Integer.valueOf(5), second.getAfterPoints());
+    }
+
+    @Test
+    void journalIsReplayedAfterCrash() throws IOException {
+        PointCreditAccumulatorImpl crashed = start();
+        credit(crashed, 1, 2);
+        credit(crashed, 2, 3);
+        crash(crashed);
+        assertTrue(balances.isEmpty());
+
+        start();
+
+        assertEquals(Integer.valueOf(2), balances.get(1));
+        assertEquals(Integer.valueOf(3), balances.get(2));
+        assertTrue(segments().isEmpty());
+    }
+
+    @Test
+    void replaySkipsUsersAlreadyFlushedFromSegment() throws IOException {
+        String segment = "segment-1-test";
+        writeSegment(segment, line(1, 3, null), line(2, 4, null));
+        // 上次已计入用户1，删除日志段前进程退出
+        flushMarkers.add(segment + ":1");
+        balances.put(1, 3);
+
+        start();
+
+        assertEquals(Integer.valueOf(3), balances.get(1));
+        assertEquals(Integer.valueOf(4), balances.get(2));
+        assertEquals(1, records.size());
+        assertTrue(segments().isEmpty());
+    }
+
+    @Test
+    void failedUserKeepsSegmentUntilReplaySucceeds() throws IOException {
+        PointCreditAccumulatorImpl accumulator = start();
+        credit(accumulator, 1, 2);
+        credit(accumulator, 2, 3);
+        failingUsers.add(2);
+
+        accumulator.flush();
+
+        assertEquals(Integer.valueOf(2), balances.get(1));
+        assertNull(balances.get(2));
+        assertEquals(1, segments().size());
+
+        failingUsers.clear();
+        accumulator.flush();
+
+        // 重放时用户1已登记，不重复计入
+        assertEquals(Integer.valueOf(2), balances.get(1));
+        assertEquals(Integer.valueOf(3), balances.get(2));
+        assertTrue(segments().isEmpty());
+    }
+
+    @Test
+    void committedTransactionalCreditIsReplayedWhenCrashBeforeAfterCommit() throws IOException {
+        PointCreditAccumulatorImpl crashed = start();
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(5, credit(crashed, 1, 5));
+        assertEquals(1, intents.size());
+        // 业务事务已提交（登记记录保留），afterCommit之前进程退出
+        TransactionSynchronizationManager.clearSynchronization();
+        crash(crashed);
+
+        start();
+
+        assertEquals(Integer.valueOf(5), balances.get(1));
+        assertTrue(intents.isEmpty());
+    }
+
+    @Test
+    void rolledBackTransactionalCreditIsNotReplayed() throws IOException {
+        PointCreditAccumulatorImpl crashed = start();
+        TransactionSynchronizationManager.initSynchronization();
+        credit(crashed, 1, 5);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        // 业务事务回滚，登记记录随之消失
+        intents.clear();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(0, crashed.getPendingPoints(1));
+        crash(crashed);
+
+        start();
+
+        assertNull(balances.get(1));
+        assertTrue(records.isEmpty());
+    }
+
+    @Test
+    void openTransactionalCreditSurvivesRotationAndIsAppliedOnce() throws IOException {
+        PointCreditAccumulatorImpl accumulator = start();
+        TransactionSynchronizationManager.initSynchronization();
+        credit(accumulator, 1, 5);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // 事务未结束时切换日志段：旧日志段计入后删除，未结束的加分写入新日志
+        credit(accumulator, 2, 1);
+        accumulator.flush();
+        assertNull(balances.get(1));
+        assertTrue(Files.size(journalDir.resolve("active.log")) > 0);
+
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCommit();
+        }
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(5, accumulator.getPendingPoints(1));
+
+        accumulator.flush();
+        accumulator.flush();
+
+        assertEquals(Integer.valueOf(5), balances.get(1));
+        assertEquals(Integer.valueOf(1), balances.get(2));
+        assertTrue(intents.isEmpty());
+    }
+
+    @Test
+    void carriedForwardCreditIsReplayedAfterCrash() throws IOException {
+        PointCreditAccumulatorImpl crashed = start();
+        TransactionSynchronizationManager.initSynchronization();
+        credit(crashed, 1, 5);
+        TransactionSynchronizationManager.clearSynchronization();
+        credit(crashed, 2, 1);
+        crashed.flush();
+        // 第一个日志段已删除，事务提交后、afterCommit之前进程退出
+        crash(crashed);
+
+        start();
+
+        assertEquals(Integer.valueOf(5), balances.get(1));
+        assertEquals(Integer.valueOf(1), balances.get(2));
+    }
+
+    @Test
+    void duplicateJournalLinesOfSameCreditAreAppliedOnce() throws IOException {
+        String creditId = "0123456789abcdef0123456789abcdef";
+        intents.add(creditId);
+        writeSegment("segment-1-first", line(1, 5, creditId));
+        writeSegment("segment-2-second", line(1, 5, creditId));
+
+        start();
+
+        assertEquals(Integer.valueOf(5), balances.get(1));
+        assertEquals(1, records.size());
+        assertFalse(intents.contains(creditId));
+        assertTrue(segments().isEmpty());
+    }
+
+    private PointCreditAccumulatorImpl start() {
+        PointCreditAccumulatorImpl accumulator = new PointCreditAccumulatorImpl();
+        ReflectionTestUtils.setField(accumulator, "userPointMapper", userPointMapper);
+        ReflectionTestUtils.setField(accumulator, "pointRecordMapper", pointRecordMapper);
+        ReflectionTestUtils.setField(accumulator, "pointCreditFlushMapper", pointCreditFlushMapper);
+        ReflectionTestUtils.setField(accumulator, "pointCreditIntentMapper", pointCreditIntentMapper);
+        ReflectionTestUtils.setField(accumulator, "pointService", mock(PointService.class));
+        ReflectionTestUtils.setField(accumulator, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(accumulator, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(accumulator, "enabled", true);
+        ReflectionTestUtils.setField(accumulator, "stripeCount", 4);
+        // 后台线程不在测试期间写入，由测试调用flush
+        ReflectionTestUtils.setField(accumulator, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(accumulator, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(accumulator, "journalFsync", false);
+        accumulator.start();
+        started.add(accumulator);
+        return accumulator;
+    }
+
+    /**
+     * 模拟进程退出：关闭日志、停止后台线程，不计入缓冲区
+     */
+    private void crash(PointCreditAccumulatorImpl accumulator) throws IOException {
+        ReflectionTestUtils.setField(accumulator, "running", false);
+        FileChannel journal = (FileChannel) ReflectionTestUtils.getField(accumulator, "journal");
+        // 置空后后台线程被唤醒时flush直接返回，不再读写日志目录
+        ReflectionTestUtils.setField(accumulator, "journal", null);
+        if (journal != null) {
+            journal.close();
+        }
+        Thread flusher = (Thread) ReflectionTestUtils.getField(accumulator, "flusher");
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int credit(PointCreditAccumulatorImpl accumulator, int userId, int points) {
+        return accumulator.credit(userId, points, "每日签到奖励", PointTypeEnum.SIGN_IN, PointActionEnum.ADD,
+                null, "sign_in", null);
+    }
+
+    private String line(int userId, int points, String creditId) throws IOException {
+        Map<String, Object> credit = new LinkedHashMap<>();
+        credit.put("userId", userId);
+        credit.put("points", points);
+        credit.put("reason", "每日签到奖励");
+        credit.put("type", PointTypeEnum.SIGN_IN.name());
+        credit.put("action", PointActionEnum.ADD.name());
+        credit.put("businessType", "sign_in");
+        credit.put("createdAt", System.currentTimeMillis());
+        credit.put("creditId", creditId);
+        return objectMapper.writeValueAsString(credit);
+    }
+
+    private void writeSegment(String segment, String... lines) throws IOException {
+        Files.write(journalDir.resolve(segment + ".log"),
+                (String.join("\n", Arrays.asList(lines)) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, "segment-*.log")) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        return segments;
+    }
+}
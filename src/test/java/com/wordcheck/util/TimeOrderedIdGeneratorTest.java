@@ -0,0 +1,112 @@
+package com.wordcheck.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 时间有序ID生成器测试
+ */
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private TimeOrderedIdGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new TimeOrderedIdGenerator();
+        ReflectionTestUtils.setField(generator, "configuredNodeId", 7);
+        generator.init();
+    }
+
+    @Test
+    void idsAreHexWithTimestampAndNodeId() {
+        String id = generator.nextId(NOW);
+
+        assertEquals(32, id.length());
+        assertTrue(id.matches("[0-9a-f]{32}"));
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(id));
+        assertEquals("0007", id.substring(16, 20));
+    }
+
+    @Test
+    void idsStayIncreasingWhenClockGoesBackwards() {
+        String first = generator.nextId(NOW);
+        String second = generator.nextId(NOW - 5_000);
+        String third = generator.nextId(NOW - 1);
+        String fourth = generator.nextId(NOW + 1);
+
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+        assertTrue(third.compareTo(fourth) < 0);
+        // 回拨期间沿用上一时间戳
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(second));
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(third));
+        assertEquals(NOW + 1, TimeOrderedIdGenerator.timestampOf(fourth));
+    }
+
+    @Test
+    void sequenceOverflowCarriesIntoNextMillisecond() {
+        String previous = generator.nextId(NOW);
+        // 同一毫秒内最多65536个序号，再多一个进位到下一毫秒
+        for (int i = 1; i < 65536; i++) {
+            String id = generator.nextId(NOW);
+            assertTrue(previous.compareTo(id) < 0);
+            previous = id;
+        }
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(previous));
+
+        String carried = generator.nextId(NOW);
+        assertTrue(previous.compareTo(carried) < 0);
+        assertEquals(NOW + 1, TimeOrderedIdGenerator.timestampOf(carried));
+
+        // 时钟追上进位后的毫秒时继续递增，不回到序号0
+        String caughtUp = generator.nextId(NOW + 1);
+        assertTrue(carried.compareTo(caughtUp) < 0);
+        assertEquals(NOW + 1, TimeOrderedIdGenerator.timestampOf(caughtUp));
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<List<String>> task = () -> {
+                    List<String> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId(NOW));
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                List<String> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+                }
+                all.addAll(ids);
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}